@@ -0,0 +1,229 @@
+package com.company.vehiclemanagement.loadtest;
+
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a running instance with simulated employees and fleet managers.
+ *
+ * <pre>
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.args="--base-url=http://localhost:8080 --employees=200 --managers=10 --duration=5m"
+ * </pre>
+ *
+ * Every virtual user runs on its own thread: a virtual thread when the JVM
+ * has them (21+), a platform thread otherwise. Users are started evenly over
+ * the ramp-up and cycle through the accounts given for their group. The run
+ * writes throughput.csv (one line per endpoint and sampling interval),
+ * summary.txt and one HdrHistogram percentile distribution per endpoint to
+ * the report directory.
+ */
+public final class LoadTest {
+
+    record Options(URI baseUrl, Duration duration, Duration rampUp, Duration interval, Duration thinkTime,
+            int employees, int managers, List<VirtualUser.Account> employeeAccounts,
+            List<VirtualUser.Account> managerAccounts, String employeeMix, String managerMix, int horizonDays,
+            long seed, Path reportDir) {
+    }
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("base-url", "http://localhost:8080");
+        DEFAULTS.put("duration", "2m");
+        DEFAULTS.put("ramp-up", "30s");
+        DEFAULTS.put("interval", "1s");
+        DEFAULTS.put("think-time", "1s");
+        DEFAULTS.put("employees", "50");
+        DEFAULTS.put("managers", "2");
+        DEFAULTS.put("employee-accounts", "employee:employee123,jane.smith:password123,mike.wilson:password123");
+        DEFAULTS.put("manager-accounts", "manager:manager123");
+        DEFAULTS.put("employee-mix", Scenario.EMPLOYEE_DEFAULT);
+        DEFAULTS.put("manager-mix", Scenario.MANAGER_DEFAULT);
+        DEFAULTS.put("horizon-days", "60");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("report-dir", "target/loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parse(args);
+        Files.createDirectories(options.reportDir());
+
+        Metrics metrics = new Metrics();
+        AtomicInteger activeUsers = new AtomicInteger();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        int total = options.employees() + options.managers();
+        long started = System.nanoTime();
+        long deadline = started + options.duration().toNanos();
+        long rampUp = options.rampUp().toNanos();
+        Random seeds = new Random(options.seed());
+        Scenario employeeMix = Scenario.parse(options.employeeMix());
+        Scenario managerMix = Scenario.parse(options.managerMix());
+
+        System.out.printf("%d employees and %d fleet managers against %s for %s on %s%n", options.employees(),
+                options.managers(), options.baseUrl(), options.duration(), threadKind());
+
+        if (options.employees() > options.employeeAccounts().size()
+                || options.managers() > options.managerAccounts().size()) {
+            // The application keeps one session per account, so users sharing one log each other out
+            System.out.println("Warning: fewer accounts than virtual users, shared accounts will keep re-logging in");
+        }
+
+        ExecutorService users = newUserExecutor();
+        for (int i = 0; i < total; i++) {
+            boolean employee = i < options.employees();
+            List<VirtualUser.Account> accounts = employee ? options.employeeAccounts() : options.managerAccounts();
+            int index = employee ? i : i - options.employees();
+            // Each group is spread over the whole ramp-up so managers are not all started last
+            long delay = rampUp * index / (employee ? options.employees() : options.managers());
+            users.execute(new VirtualUser(accounts.get(index % accounts.size()),
+                    new Session(client, options.baseUrl(), metrics), employee ? employeeMix : managerMix,
+                    new Random(seeds.nextLong()), options, delay, deadline, activeUsers));
+        }
+        users.shutdown();
+
+        long interval = options.interval().toNanos();
+        try (PrintWriter curve = new PrintWriter(
+                Files.newBufferedWriter(options.reportDir().resolve("throughput.csv"), StandardCharsets.UTF_8))) {
+            Metrics.writeCurveHeader(curve);
+            long lastSample = started;
+            while (!users.awaitTermination(Math.max(1, lastSample + interval - System.nanoTime()),
+                    TimeUnit.NANOSECONDS)) {
+                long now = System.nanoTime();
+                if (now - lastSample >= interval) {
+                    metrics.sample(seconds(now - started), seconds(now - lastSample), activeUsers.get(), curve);
+                    lastSample = now;
+                }
+                if (now > deadline + TimeUnit.SECONDS.toNanos(35)) {
+                    users.shutdownNow();
+                }
+            }
+            long now = System.nanoTime();
+            metrics.sample(seconds(now - started), Math.max(seconds(now - lastSample), 0.001), 0, curve);
+        }
+
+        System.out.println();
+        metrics.writeReport(options.reportDir(), seconds(System.nanoTime() - started), System.out);
+        System.out.println();
+        System.out.println("Reports written to " + options.reportDir().toAbsolutePath());
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                System.out.println("Options (with defaults):");
+                DEFAULTS.forEach((key, value) -> System.out.println("  --" + key + "=" + value));
+                System.out.println("Accounts are user:password lists; emp%05d#1-500:secret expands to emp00001..emp00500.");
+                System.exit(0);
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !DEFAULTS.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown option " + arg + " (see --help)");
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        String baseUrl = values.get("base-url");
+        return new Options(
+                URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/"),
+                duration(values.get("duration")),
+                duration(values.get("ramp-up")),
+                duration(values.get("interval")),
+                duration(values.get("think-time")),
+                Integer.parseInt(values.get("employees")),
+                Integer.parseInt(values.get("managers")),
+                accounts(values.get("employee-accounts")),
+                accounts(values.get("manager-accounts")),
+                values.get("employee-mix"),
+                values.get("manager-mix"),
+                Math.max(1, Integer.parseInt(values.get("horizon-days"))),
+                Long.parseLong(values.get("seed")),
+                Path.of(values.get("report-dir")));
+    }
+
+    /** 90s, 5m, 1h, 250ms or an ISO-8601 duration. */
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration " + value);
+        };
+    }
+
+    static List<VirtualUser.Account> accounts(String spec) {
+        List<VirtualUser.Account> accounts = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected user:password but got " + entry);
+            }
+            String username = entry.substring(0, separator).trim();
+            String password = entry.substring(separator + 1);
+            int range = username.indexOf('#');
+            if (range < 0) {
+                accounts.add(new VirtualUser.Account(username, password));
+                continue;
+            }
+            String[] bounds = username.substring(range + 1).split("-");
+            String pattern = username.substring(0, range);
+            for (int n = Integer.parseInt(bounds[0]); n <= Integer.parseInt(bounds[1]); n++) {
+                accounts.add(new VirtualUser.Account(String.format(Locale.ROOT, pattern, n), password));
+            }
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("No accounts in " + spec);
+        }
+        return accounts;
+    }
+
+    // Looked up reflectively so the harness still builds and runs on 17
+    private static ExecutorService newUserExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static String threadKind() {
+        return Runtime.version().feature() >= 21 ? "virtual threads" : "platform threads";
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.vehiclemanagement.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency and throughput. Requests are recorded in microseconds
+ * into HdrHistogram recorders; every sampling interval the recorders are
+ * swapped, the interval written as one line of the throughput curve and added
+ * to the run totals that end up in the summary and the .hgrm files.
+ */
+final class Metrics {
+
+    static final String ALL = "all";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long startNanos, boolean ok) {
+        long micros = Math.max(1, (System.nanoTime() - startNanos) / 1_000);
+        Endpoint target = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        target.recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (!ok) {
+            target.failed.increment();
+        }
+    }
+
+    static void writeCurveHeader(PrintWriter curve) {
+        curve.println("elapsed_s,active_users,endpoint,requests,rps,failed,p50_ms,p90_ms,p99_ms,max_ms");
+    }
+
+    /** Closes the current interval and appends it to the throughput curve, one line per endpoint plus "all". */
+    void sample(double elapsedSeconds, double intervalSeconds, int activeUsers, PrintWriter curve) {
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long allFailed = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            endpoint.interval = endpoint.recorder.getIntervalHistogram(endpoint.interval);
+            long failed = endpoint.failed.sumThenReset();
+            endpoint.total.add(endpoint.interval);
+            endpoint.totalFailed += failed;
+            all.add(endpoint.interval);
+            allFailed += failed;
+            writeCurveLine(curve, elapsedSeconds, intervalSeconds, activeUsers, entry.getKey(), endpoint.interval,
+                    failed);
+        }
+        writeCurveLine(curve, elapsedSeconds, intervalSeconds, activeUsers, ALL, all, allFailed);
+        curve.flush();
+    }
+
+    /** Prints the summary table and writes one percentile distribution per endpoint, in milliseconds. */
+    void writeReport(Path directory, double elapsedSeconds, PrintStream out) throws IOException {
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long allFailed = 0;
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%-20s %9s %8s %8s %9s %9s %9s %9s %9s %9s%n", "endpoint",
+                "requests", "rps", "failed", "mean_ms", "p50_ms", "p90_ms", "p99_ms", "p99.9_ms", "max_ms"));
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            all.add(endpoint.total);
+            allFailed += endpoint.totalFailed;
+            summaryLine(table, entry.getKey(), endpoint.total, endpoint.totalFailed, elapsedSeconds);
+            writeDistribution(directory.resolve(entry.getKey() + ".hgrm"), endpoint.total);
+        }
+        summaryLine(table, ALL, all, allFailed, elapsedSeconds);
+        writeDistribution(directory.resolve(ALL + ".hgrm"), all);
+
+        Files.writeString(directory.resolve("summary.txt"), table);
+        out.print(table);
+    }
+
+    private static void writeCurveLine(PrintWriter curve, double elapsedSeconds, double intervalSeconds,
+            int activeUsers, String endpoint, Histogram histogram, long failed) {
+        long count = histogram.getTotalCount();
+        curve.printf(Locale.ROOT, "%.1f,%d,%s,%d,%.1f,%d,%.2f,%.2f,%.2f,%.2f%n", elapsedSeconds, activeUsers,
+                endpoint, count, count / intervalSeconds, failed,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), maxMillis(histogram));
+    }
+
+    private static void summaryLine(StringBuilder table, String endpoint, Histogram histogram, long failed,
+            double elapsedSeconds) {
+        long count = histogram.getTotalCount();
+        table.append(String.format(Locale.ROOT, "%-20s %9d %8.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, count, elapsedSeconds > 0 ? count / elapsedSeconds : 0, failed,
+                count > 0 ? histogram.getMean() / 1000.0 : 0, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), maxMillis(histogram)));
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            if (histogram.getTotalCount() > 0) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() > 0 ? histogram.getValueAtPercentile(percentile) / 1000.0 : 0;
+    }
+
+    private static double maxMillis(Histogram histogram) {
+        return histogram.getTotalCount() > 0 ? histogram.getMaxValue() / 1000.0 : 0;
+    }
+
+    private static final class Endpoint {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder failed = new LongAdder();
+        Histogram interval;
+        long totalFailed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.vehiclemanagement.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * A weighted mix of actions, written as {@code browse=40,check=30,book=20}.
+ * Every iteration of a virtual user draws one action in proportion to its
+ * weight.
+ */
+final class Scenario {
+
+    enum Action {
+        // Employees
+        BROWSE("browse"),
+        VEHICLE_API("api"),
+        CHECK("check"),
+        BOOK("book"),
+        MY_BOOKINGS("mine"),
+        // Fleet managers
+        PENDING("pending"),
+        APPROVE("approve"),
+        STATS("stats");
+
+        private final String key;
+
+        Action(String key) {
+            this.key = key;
+        }
+
+        static Action of(String key) {
+            for (Action action : values()) {
+                if (action.key.equals(key.trim().toLowerCase(Locale.ROOT))) {
+                    return action;
+                }
+            }
+            throw new IllegalArgumentException("Unknown action: " + key);
+        }
+    }
+
+    static final String EMPLOYEE_DEFAULT = "browse=30,api=15,check=30,book=15,mine=10";
+    static final String MANAGER_DEFAULT = "pending=35,approve=50,stats=15";
+
+    private final List<Action> actions = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final int totalWeight;
+
+    private Scenario(String spec) {
+        int total = 0;
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected action=weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            total += weight;
+            actions.add(Action.of(parts[0]));
+            cumulativeWeights.add(total);
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Scenario has no actions: " + spec);
+        }
+        totalWeight = total;
+    }
+
+    static Scenario parse(String spec) {
+        return new Scenario(spec);
+    }
+
+    Action next(RandomGenerator random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int i = 0; i < actions.size(); i++) {
+            if (ticket < cumulativeWeights.get(i)) {
+                return actions.get(i);
+            }
+        }
+        return actions.get(actions.size() - 1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.company.vehiclemanagement.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * One browser: its own cookies and CSRF token on top of the shared HTTP
+ * client. Redirects are not followed so that a form post is timed on its own
+ * and its outcome can be read from the Location header, as the application
+ * answers every form with a redirect.
+ */
+final class Session {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]*)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    record Response(int status, String location, String body) {
+
+        boolean redirectsToLogin() {
+            return status == 302 && location != null && location.contains("/login");
+        }
+    }
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Metrics metrics;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private String csrfToken;
+
+    Session(HttpClient client, URI baseUrl, Metrics metrics) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Form login. Spring Security issues a new CSRF token with the
+     * authenticated session, so the login page is fetched once more afterwards.
+     */
+    boolean login(String username, String password) {
+        cookies.clear();
+        if (!refreshCsrfToken()) {
+            return false;
+        }
+        Expectation loggedIn = r -> r.status() == 302 && r.location() != null && !r.location().contains("error");
+        Response response = post("login", "/login", Map.of("username", username, "password", password), loggedIn);
+        return loggedIn.isMet(response) && refreshCsrfToken();
+    }
+
+    Response get(String endpoint, String path, Map<String, String> query, Expectation expectation) {
+        String uri = query.isEmpty() ? path : path + "?" + encode(query);
+        return send(endpoint, HttpRequest.newBuilder(resolve(uri)).GET(), expectation);
+    }
+
+    Response post(String endpoint, String path, Map<String, String> form, Expectation expectation) {
+        Map<String, String> body = new LinkedHashMap<>(form);
+        if (csrfToken != null) {
+            body.put("_csrf", csrfToken);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(body)));
+        return send(endpoint, request, expectation);
+    }
+
+    private boolean refreshCsrfToken() {
+        Response page = get("login-page", "/login", Map.of(), r -> r.status() == 200);
+        Matcher matcher = CSRF.matcher(page.body());
+        csrfToken = matcher.find() ? matcher.group(1) : null;
+        return csrfToken != null;
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request, Expectation expectation) {
+        request.timeout(TIMEOUT);
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies.entrySet().stream()
+                    .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        long started = System.nanoTime();
+        Response response;
+        try {
+            HttpResponse<String> httpResponse = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            storeCookies(httpResponse.headers().allValues("Set-Cookie"));
+            response = new Response(httpResponse.statusCode(),
+                    httpResponse.headers().firstValue("Location").orElse(null), httpResponse.body());
+        } catch (IOException e) {
+            response = new Response(0, null, "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, null, "");
+        }
+        metrics.record(endpoint, started, expectation.isMet(response));
+        return response;
+    }
+
+    private void storeCookies(List<String> headers) {
+        for (String header : headers) {
+            String pair = header.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String name = pair.substring(0, separator).trim();
+            String value = pair.substring(separator + 1).trim();
+            if (value.isEmpty() || header.toLowerCase(Locale.ROOT).contains("max-age=0")) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, value);
+            }
+        }
+    }
+
+    // Relative to the base URL so that a context path is kept
+    private URI resolve(String path) {
+        return baseUrl.resolve(path.startsWith("/") ? path.substring(1) : path);
+    }
+
+    private static String encode(Map<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    /** Whether a response counts as a success for its endpoint. */
+    @FunctionalInterface
+    interface Expectation {
+        boolean isMet(Response response);
+    }
+}
@@ -0,0 +1,205 @@
+package com.company.vehiclemanagement.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated person. Logs in, then draws actions from its scenario with
+ * an exponentially distributed think time in between until the run ends. A
+ * session that expired is logged in again on the next iteration.
+ */
+final class VirtualUser implements Runnable {
+
+    private static final Pattern ID = Pattern.compile("\\{\"id\":(\\d+)");
+    private static final DateTimeFormatter FORM_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    private static final Session.Expectation OK = r -> r.status() == 200;
+    // Both outcomes of the booking and approval forms redirect; a rejected booking re-renders the form instead
+    private static final Session.Expectation BOOKED = r -> r.status() == 302 && r.location() != null
+            && r.location().endsWith("/bookings");
+    private static final Session.Expectation REDIRECTED = r -> r.status() == 302 && !r.redirectsToLogin();
+
+    private final Account account;
+    private final Session session;
+    private final Scenario scenario;
+    private final RandomGenerator random;
+    private final LoadTest.Options options;
+    private final long startDelayNanos;
+    private final long deadlineNanos;
+    private final AtomicInteger activeUsers;
+
+    private boolean loggedIn;
+    private List<Long> vehicleIds = List.of();
+    private final List<Long> pendingIds = new ArrayList<>();
+
+    VirtualUser(Account account, Session session, Scenario scenario, RandomGenerator random,
+            LoadTest.Options options, long startDelayNanos, long deadlineNanos, AtomicInteger activeUsers) {
+        this.account = account;
+        this.session = session;
+        this.scenario = scenario;
+        this.random = random;
+        this.options = options;
+        this.startDelayNanos = startDelayNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.activeUsers = activeUsers;
+    }
+
+    @Override
+    public void run() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(startDelayNanos);
+            activeUsers.incrementAndGet();
+            try {
+                while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                    iterate();
+                    think();
+                }
+            } finally {
+                activeUsers.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void iterate() {
+        if (!loggedIn) {
+            loggedIn = session.login(account.username(), account.password());
+            if (!loggedIn) {
+                return;
+            }
+        }
+        Session.Response response = switch (scenario.next(random)) {
+            case BROWSE -> session.get("vehicles", "/vehicles", Map.of(), OK);
+            case VEHICLE_API -> loadVehicleIds();
+            case CHECK -> {
+                LocalDateTime start = slotStart();
+                yield checkAvailability(vehicle(), start, start.plusHours(duration()));
+            }
+            case BOOK -> book();
+            case MY_BOOKINGS -> session.get("my-bookings", "/bookings", Map.of(), OK);
+            case PENDING -> loadPendingIds();
+            case APPROVE -> approve();
+            case STATS -> session.get("admin-stats", "/admin/api/stats", Map.of(), OK);
+        };
+        if (response != null && response.redirectsToLogin()) {
+            loggedIn = false;
+        }
+    }
+
+    private Session.Response loadVehicleIds() {
+        Session.Response response = session.get("api-vehicles", "/api/v1/vehicles", Map.of("fields", "id"), OK);
+        if (response.status() == 200) {
+            vehicleIds = ids(response.body());
+        }
+        return response;
+    }
+
+    private Session.Response checkAvailability(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        if (vehicleId == null) {
+            return null;
+        }
+        return session.get("check-availability", "/bookings/api/check-availability", Map.of(
+                "vehicleId", vehicleId.toString(),
+                "startDateTime", start.toString(),
+                "endDateTime", end.toString()), OK);
+    }
+
+    /** Checks a slot the way the booking form does and submits it only when it is free. */
+    private Session.Response book() {
+        Long vehicleId = vehicle();
+        if (vehicleId == null) {
+            return null;
+        }
+        LocalDateTime start = slotStart();
+        LocalDateTime end = start.plusHours(duration());
+        Session.Response check = checkAvailability(vehicleId, start, end);
+        if (check == null || check.status() != 200 || !check.body().contains("\"available\":true")) {
+            return check;
+        }
+        Map<String, String> form = new LinkedHashMap<>();
+        // Any existing user id satisfies validation; the controller replaces it with the caller
+        form.put("user", "1");
+        form.put("vehicle", vehicleId.toString());
+        form.put("startDateTime", FORM_DATE.format(start));
+        form.put("endDateTime", FORM_DATE.format(end));
+        form.put("destination", "Load test site " + (1 + random.nextInt(20)));
+        form.put("purpose", "Load test");
+        return session.post("create-booking", "/bookings", form, BOOKED);
+    }
+
+    private Session.Response loadPendingIds() {
+        Session.Response response = session.get("pending-bookings", "/admin/api/bookings/pending",
+                Map.of("limit", "50"), OK);
+        if (response.status() == 200) {
+            pendingIds.clear();
+            pendingIds.addAll(ids(response.body()));
+        }
+        return response;
+    }
+
+    private Session.Response approve() {
+        if (pendingIds.isEmpty()) {
+            Session.Response response = loadPendingIds();
+            if (pendingIds.isEmpty()) {
+                return response;
+            }
+        }
+        Long bookingId = pendingIds.remove(random.nextInt(pendingIds.size()));
+        return session.post("approve-booking", "/admin/bookings/" + bookingId + "/approve",
+                Map.of("notes", "Approved by load test"), REDIRECTED);
+    }
+
+    private Long vehicle() {
+        if (vehicleIds.isEmpty()) {
+            loadVehicleIds();
+            if (vehicleIds.isEmpty()) {
+                return null;
+            }
+        }
+        return vehicleIds.get(random.nextInt(vehicleIds.size()));
+    }
+
+    /** A whole hour during office hours within the booking horizon. */
+    private LocalDateTime slotStart() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .plusDays(1 + random.nextInt(options.horizonDays()))
+                .plusHours(7 + random.nextInt(10));
+    }
+
+    private int duration() {
+        return 1 + random.nextInt(8);
+    }
+
+    private void think() throws InterruptedException {
+        long mean = options.thinkTime().toNanos();
+        if (mean <= 0) {
+            return;
+        }
+        long pause = (long) (-Math.log(1.0 - random.nextDouble()) * mean);
+        long remaining = deadlineNanos - System.nanoTime();
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(pause, Math.min(remaining, 10 * mean))));
+    }
+
+    private static List<Long> ids(String json) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(Long.valueOf(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    record Account(String username, String password) {
+    }
+}
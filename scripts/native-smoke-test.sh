@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+# Boots the native binary against in-memory H2 and runs the booking flow:
+# employee requests a vehicle, admin approves it, the slot then shows as taken.
+#
+#   mvn -Pnative native:compile && scripts/native-smoke-test.sh
+#
+# Any other launch command can be passed instead of the binary, e.g.
+#   scripts/native-smoke-test.sh java -jar target/vehicle-management-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+
+PORT=${PORT:-18090}
+# Generous enough for the JVM fallback on a small machine; the native binary is ready in well under a second
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-180}
+BASE=http://localhost:$PORT
+WORK=$(mktemp -d)
+trap 'kill $APP_PID 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+if [ $# -eq 0 ]; then
+    set -- "$(dirname "$0")/../target/vehicle-management"
+fi
+
+fail() {
+    echo "FAIL: $*" >&2
+    tail -n 40 "$WORK/app.log" >&2
+    exit 1
+}
+
+"$@" --server.port=$PORT --app.audit.dir="$WORK/audit" --spring.h2.console.enabled=false >"$WORK/app.log" 2>&1 &
+APP_PID=$!
+
+for _ in $(seq 1 $((STARTUP_TIMEOUT * 10))); do
+    grep -q "Started VehicleManagementApplication" "$WORK/app.log" && break
+    kill -0 $APP_PID 2>/dev/null || fail "application exited during startup"
+    sleep 0.1
+done
+grep -q "Started VehicleManagementApplication" "$WORK/app.log" || fail "application did not start"
+grep -o "Started VehicleManagementApplication in .*" "$WORK/app.log"
+echo "RSS after startup: $(awk '/VmRSS/ {print $2 " " $3}' /proc/$APP_PID/status)"
+
+csrf() {
+    curl -s -b "$1" -c "$1" "$BASE/login" | grep -o 'name="_csrf" value="[^"]*"' | sed 's/.*value="//;s/"$//'
+}
+
+login() {
+    local jar="$WORK/$1.cookies"
+    local status
+    status=$(curl -s -o /dev/null -w '%{redirect_url}' -b "$jar" -c "$jar" \
+        -d "username=$1&password=$2&_csrf=$(csrf "$jar")" "$BASE/login")
+    case "$status" in *error*) fail "login as $1 rejected" ;; esac
+}
+
+START=$(date -d 'tomorrow 09:00' +%Y-%m-%dT%H:%M)
+END=$(date -d 'tomorrow 17:00' +%Y-%m-%dT%H:%M)
+
+available() {
+    curl -s -b "$1" "$BASE/bookings/api/check-availability?vehicleId=$2&startDateTime=$START&endDateTime=$END"
+}
+
+login employee employee123
+EMPLOYEE="$WORK/employee.cookies"
+# Booking.user is validated before the controller replaces it with the logged-in user, so send the caller's own id
+USER_ID=$(curl -s -b "$EMPLOYEE" "$BASE/calendar/links" | grep -o '/feeds/users/[0-9]*' | grep -o '[0-9]*$')
+[ -n "$USER_ID" ] || fail "could not look up the employee's user id"
+VEHICLE_ID=
+for id in $(curl -s -b "$EMPLOYEE" "$BASE/api/v1/vehicles?status=AVAILABLE&fields=id" | grep -o '"id":[0-9]*' | grep -o '[0-9]*'); do
+    if grep -Eq '"available": ?true' <<<"$(available "$EMPLOYEE" "$id")"; then
+        VEHICLE_ID=$id
+        break
+    fi
+done
+[ -n "$VEHICLE_ID" ] || fail "no vehicle is free from $START to $END"
+
+location=$(curl -s -o /dev/null -w '%{redirect_url}' -b "$EMPLOYEE" -c "$EMPLOYEE" \
+    --data-urlencode "user=$USER_ID" --data-urlencode "vehicle=$VEHICLE_ID" --data-urlencode "startDateTime=$START" --data-urlencode "endDateTime=$END" \
+    --data-urlencode "destination=Head office" --data-urlencode "purpose=Smoke test" \
+    --data-urlencode "_csrf=$(csrf "$EMPLOYEE")" "$BASE/bookings")
+[[ "$location" == */bookings ]] || fail "booking was not created (redirect: $location)"
+echo "Booking created for vehicle $VEHICLE_ID"
+
+login admin admin123
+ADMIN="$WORK/admin.cookies"
+BOOKING_ID=$(curl -s -b "$ADMIN" "$BASE/admin/api/bookings/pending?limit=500" | grep -o '{"id":[0-9]*[^}]*}' \
+    | grep "\"vehicleId\":$VEHICLE_ID," | grep "\"startDateTime\":\"$START" | grep -o '^{"id":[0-9]*' | grep -o '[0-9]*$' | head -n 1)
+[ -n "$BOOKING_ID" ] || fail "the new booking is not in the pending list"
+location=$(curl -s -o /dev/null -w '%{redirect_url}' -b "$ADMIN" -c "$ADMIN" \
+    --data-urlencode "notes=Approved by smoke test" --data-urlencode "_csrf=$(csrf "$ADMIN")" \
+    "$BASE/admin/bookings/$BOOKING_ID/approve")
+[[ "$location" == */admin/bookings/$BOOKING_ID ]] || fail "approval failed (redirect: $location)"
+echo "Booking $BOOKING_ID approved"
+
+availability=$(available "$ADMIN" "$VEHICLE_ID")
+grep -Eq '"available": ?false' <<<"$availability" || fail "approved slot still available: $availability"
+echo "Approved slot is blocked"
+
+echo "RSS after booking flow: $(awk '/VmRSS/ {print $2 " " $3}' /proc/$APP_PID/status)"
+echo "PASS"
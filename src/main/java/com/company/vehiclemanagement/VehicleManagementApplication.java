@@ -1,13 +1,22 @@
 package com.company.vehiclemanagement;
 
+import com.company.vehiclemanagement.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class VehicleManagementApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(VehicleManagementApplication.class, args);
+        SpringApplication application = new SpringApplication(VehicleManagementApplication.class);
+        // Keeps startup steps for /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.company.vehiclemanagement.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal of a logged-in user. Carries the user's home site, so requests
+ * scoped to it need no user lookup; a site change applies from the next login.
+ */
+public class AppUserDetails extends User {
+
+    private final String siteCode;
+
+    public AppUserDetails(String username, String password, boolean enabled,
+            Collection<? extends GrantedAuthority> authorities, String siteCode) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.siteCode = siteCode;
+    }
+
+    public String getSiteCode() {
+        return siteCode;
+    }
+}
@@ -35,14 +35,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(Collections.singletonList(authority))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.isActive())
-                .build();
+        return new AppUserDetails(user.getUsername(), user.getPassword(), user.isActive(),
+                Collections.singletonList(authority), user.getSiteCode());
     }
 }
\ No newline at end of file
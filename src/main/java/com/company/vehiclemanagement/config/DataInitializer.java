@@ -4,10 +4,14 @@ import com.company.vehiclemanagement.model.*;
 import com.company.vehiclemanagement.repository.UserRepository;
 import com.company.vehiclemanagement.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
 import java.time.LocalDateTime;
 
 @Component
@@ -22,32 +26,60 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SyntheticDataGenerator syntheticDataGenerator;
+
+    // "runtime" builds the demo data entity by entity, "snapshot" loads db/seed-snapshot.sql,
+    // "synthetic" generates a production-sized dataset instead (SyntheticDataGenerator)
+    @Value("${app.startup.seed-mode:runtime}")
+    private String seedMode;
+
     @Override
     public void run(String... args) throws Exception {
-        // Create demo users if they don't exist
-        createUserIfNotExists("admin", "admin123", "Admin", "User", "admin@company.com", "1001", "IT", Role.ADMIN);
+        if ("snapshot".equals(seedMode)) {
+            loadSnapshot();
+            return;
+        }
+        if ("synthetic".equals(seedMode)) {
+            syntheticDataGenerator.generate();
+            return;
+        }
+
+        // Create demo users if they don't exist; admin and manager have no site and see the whole fleet
+        createUserIfNotExists("admin", "admin123", "Admin", "User", "admin@company.com", "1001", "IT", Role.ADMIN, null);
         createUserIfNotExists("manager", "manager123", "Fleet", "Manager", "manager@company.com", "2001", "Operations",
-                Role.FLEET_MANAGER);
+                Role.FLEET_MANAGER, null);
         createUserIfNotExists("employee", "employee123", "John", "Doe", "john.doe@company.com", "3001", "Sales",
-                Role.EMPLOYEE);
+                Role.EMPLOYEE, "HQ");
         createUserIfNotExists("jane.smith", "password123", "Jane", "Smith", "jane.smith@company.com", "3002",
-                "Marketing", Role.EMPLOYEE);
+                "Marketing", Role.EMPLOYEE, "HQ");
         createUserIfNotExists("mike.wilson", "password123", "Mike", "Wilson", "mike.wilson@company.com", "3003",
-                "Finance", Role.EMPLOYEE);
+                "Finance", Role.EMPLOYEE, "NORTH");
 
         // Create demo vehicles if they don't exist
-        createVehicleIfNotExists("Toyota", "Camry", 2023, "ABC-123", VehicleType.SEDAN, 5);
-        createVehicleIfNotExists("Honda", "CR-V", 2022, "DEF-456", VehicleType.SUV, 5);
-        createVehicleIfNotExists("Ford", "Transit", 2023, "GHI-789", VehicleType.VAN, 8);
-        createVehicleIfNotExists("BMW", "X5", 2023, "JKL-012", VehicleType.SUV, 7);
-        createVehicleIfNotExists("Mercedes", "Sprinter", 2022, "MNO-345", VehicleType.VAN, 12);
-        createVehicleIfNotExists("Audi", "A4", 2023, "PQR-678", VehicleType.SEDAN, 5);
-        createVehicleIfNotExists("Volkswagen", "Tiguan", 2022, "STU-901", VehicleType.SUV, 5);
-        createVehicleIfNotExists("Nissan", "Altima", 2023, "VWX-234", VehicleType.SEDAN, 5);
+        createVehicleIfNotExists("Toyota", "Camry", 2023, "ABC-123", VehicleType.SEDAN, 5, "HQ");
+        createVehicleIfNotExists("Honda", "CR-V", 2022, "DEF-456", VehicleType.SUV, 5, "HQ");
+        createVehicleIfNotExists("Ford", "Transit", 2023, "GHI-789", VehicleType.VAN, 8, "HQ");
+        createVehicleIfNotExists("BMW", "X5", 2023, "JKL-012", VehicleType.SUV, 7, "NORTH");
+        createVehicleIfNotExists("Mercedes", "Sprinter", 2022, "MNO-345", VehicleType.VAN, 12, "HQ");
+        createVehicleIfNotExists("Audi", "A4", 2023, "PQR-678", VehicleType.SEDAN, 5, "NORTH");
+        createVehicleIfNotExists("Volkswagen", "Tiguan", 2022, "STU-901", VehicleType.SUV, 5, "NORTH");
+        createVehicleIfNotExists("Nissan", "Altima", 2023, "VWX-234", VehicleType.SEDAN, 5, "HQ");
+    }
+
+    private void loadSnapshot() {
+        // One existence check and one script instead of per-row lookups and BCrypt encodes
+        if (userRepository.count() > 0) {
+            return;
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("db/seed-snapshot.sql")).execute(dataSource);
     }
 
     private void createUserIfNotExists(String username, String password, String firstName, String lastName,
-            String email, String employeeId, String department, Role role) {
+            String email, String employeeId, String department, Role role, String siteCode) {
         if (!userRepository.findByUsername(username).isPresent()) {
             User user = new User();
             user.setUsername(username);
@@ -57,6 +89,7 @@ public class DataInitializer implements CommandLineRunner {
             user.setEmail(email);
             user.setEmployeeId(employeeId);
             user.setDepartment(department);
+            user.setSiteCode(siteCode);
             user.setRole(role);
             user.setActive(true);
             user.setPhoneNumber("555-0" + employeeId.substring(1));
@@ -65,7 +98,7 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private void createVehicleIfNotExists(String make, String model, int year, String licensePlate,
-            VehicleType type, int capacity) {
+            VehicleType type, int capacity, String siteCode) {
         if (vehicleRepository.findByLicensePlate(licensePlate) == null) {
             Vehicle vehicle = new Vehicle();
             vehicle.setMake(make);
@@ -74,6 +107,7 @@ public class DataInitializer implements CommandLineRunner {
             vehicle.setLicensePlate(licensePlate);
             vehicle.setType(type);
             vehicle.setSeatingCapacity(capacity);
+            vehicle.setSiteCode(siteCode);
             vehicle.setStatus(VehicleStatus.AVAILABLE);
             vehicle.setMileage(Math.random() * 50000); // Random mileage
             vehicle.setFuelType(FuelType.PETROL);
@@ -0,0 +1,290 @@
+package com.company.vehiclemanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the
+ * primary. Enabled with app.datasource.replica.enabled=true; the replica
+ * connection settings live under app.datasource.replica.* with the same keys
+ * as spring.datasource.*.
+ *
+ * The routing DataSource sits behind a LazyConnectionDataSourceProxy so the
+ * physical connection is only fetched at the first statement, after Spring
+ * has marked the transaction read-only. The route is only decided when a
+ * connection is fetched, so the replica profile turns open-in-view off: an
+ * EntityManager held for the whole request would keep the connection of its
+ * first (read-only) transaction for the writes that follow. The replica
+ * should be reached with a user that may only read, so a write that does get
+ * there fails instead of landing on the wrong database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryProperties, Environment environment,
+            ReadYourWritesGuard readYourWritesGuard) {
+        DataSourceProperties replicaProperties = Binder.get(environment)
+                .bind("app.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("app.datasource.replica.url is required"));
+
+        primaryPool = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        primaryPool.setPoolName("primary");
+        replicaPool = replicaProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        replicaPool.setPoolName("replica");
+        // A hint only; H2 ignores it, so the replica user's rights are what actually stop writes
+        replicaPool.setReadOnly(true);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(readYourWritesGuard);
+        routing.setTargetDataSources(Map.of(Route.PRIMARY, primaryPool, Route.REPLICA, replicaPool));
+        routing.setDefaultTargetDataSource(primaryPool);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Takes the routing DataSource only so the pools exist before this runs
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.local-copy-ms")
+    public LocalReplicaCopier localReplicaCopier(DataSource dataSource) {
+        if (primaryPool.getJdbcUrl().equals(replicaPool.getJdbcUrl())) {
+            throw new IllegalStateException("app.datasource.replica.local-copy-ms needs a replica url "
+                    + "different from the primary's");
+        }
+        // The replica pool's user may only read, so the copy connects with the primary's credentials. Only an
+        // admin may set DB_CLOSE_DELAY, which keeps an in-memory replica alive between copies
+        String writerUrl = replicaPool.getJdbcUrl().contains("DB_CLOSE_DELAY") ? replicaPool.getJdbcUrl()
+                : replicaPool.getJdbcUrl() + ";DB_CLOSE_DELAY=-1";
+        DriverManagerDataSource writer = new DriverManagerDataSource(writerUrl,
+                primaryPool.getUsername(), primaryPool.getPassword());
+        LocalReplicaCopier copier = new LocalReplicaCopier(primaryPool, writer);
+        copier.createReader(replicaPool.getUsername(), replicaPool.getPassword());
+        return copier;
+    }
+
+    // The pools are not beans themselves, so the context would not close them
+    @PreDestroy
+    public void closePools() {
+        if (replicaPool != null) {
+            replicaPool.close();
+        }
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+
+    static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+        private final ReadYourWritesGuard readYourWritesGuard;
+
+        ReadWriteRoutingDataSource(ReadYourWritesGuard readYourWritesGuard) {
+            this.readYourWritesGuard = readYourWritesGuard;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    && !readYourWritesGuard.mustReadFromPrimary()) {
+                return Route.REPLICA;
+            }
+            return Route.PRIMARY;
+        }
+    }
+
+    /**
+     * Stand-in for replication when the replica is a separate local H2
+     * database: every app.datasource.replica.local-copy-ms the primary's
+     * tables are copied over in one transaction, so the replica lags the
+     * primary by up to that interval, as a real one would. The whole database
+     * is copied each time; meant for the demo data set, not synthetic loads.
+     */
+    static class LocalReplicaCopier {
+
+        private static final Logger log = LoggerFactory.getLogger(LocalReplicaCopier.class);
+        private static final String TABLES_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME";
+        private static final int BATCH_SIZE = 1000;
+
+        private final DataSource primary;
+        private final DataSource replica;
+        private String reader;
+        private String readerPassword;
+
+        LocalReplicaCopier(DataSource primary, DataSource replica) {
+            this.primary = primary;
+            this.replica = replica;
+        }
+
+        /**
+         * Creates the user the replica pool reads with, allowed to SELECT only,
+         * like the read-only account of a real replica.
+         */
+        void createReader(String username, String password) {
+            try (Connection target = replica.getConnection(); Statement statement = target.createStatement()) {
+                String user = target.getMetaData().getUserName();
+                if (username == null || username.equalsIgnoreCase(user)) {
+                    log.warn("The local replica is read as {}, who may also write to it", user);
+                    return;
+                }
+                // H2 stores unquoted names in upper case; CREATE USER takes no parameters
+                reader = '"' + username.toUpperCase(Locale.ROOT).replace("\"", "\"\"") + '"';
+                readerPassword = "'" + (password != null ? password : "").replace("'", "''") + "'";
+                grantRead(statement);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not create the local replica's read-only user", e);
+            }
+        }
+
+        // DROP ALL OBJECTS drops the user too, so this runs again after every schema copy
+        private void grantRead(Statement statement) throws SQLException {
+            if (reader != null) {
+                statement.execute("CREATE USER IF NOT EXISTS " + reader + " PASSWORD " + readerPassword);
+                statement.execute("GRANT SELECT ON SCHEMA PUBLIC TO " + reader);
+            }
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.replica.local-copy-ms}")
+        public void copy() {
+            try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+                List<String> tables = tables(source);
+                if (!tables.equals(tables(target))) {
+                    copySchema(source, target);
+                }
+                // Constraints are not enforced, the copy is consistent as a whole. Not kept across restarts
+                // of a file replica, so set on every copy
+                try (Statement statement = target.createStatement()) {
+                    statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                }
+                target.setAutoCommit(false);
+                try {
+                    for (String table : tables) {
+                        copyRows(source, target, table);
+                    }
+                    target.commit();
+                } catch (SQLException e) {
+                    target.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                log.warn("Copying the primary to the local replica failed; it keeps the previous copy", e);
+            }
+        }
+
+        private static List<String> tables(Connection connection) throws SQLException {
+            List<String> tables = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(TABLES_SQL)) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+            return tables;
+        }
+
+        // Replays the primary's DDL
+        private void copySchema(Connection source, Connection target) throws SQLException {
+            List<String> ddl = new ArrayList<>();
+            try (Statement statement = source.createStatement();
+                    ResultSet rs = statement.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+                while (rs.next()) {
+                    String sql = rs.getString(1);
+                    if (!sql.startsWith("CREATE USER")) {
+                        ddl.add(sql);
+                    }
+                }
+            }
+            try (Statement statement = target.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : ddl) {
+                    statement.execute(sql);
+                }
+                grantRead(statement);
+            }
+            log.info("Local replica schema copied from the primary ({} statements)", ddl.size());
+        }
+
+        private static void copyRows(Connection source, Connection target, String table) throws SQLException {
+            String quoted = '"' + table + '"';
+            try (Statement delete = target.createStatement()) {
+                delete.executeUpdate("DELETE FROM " + quoted);
+            }
+            try (Statement select = source.createStatement();
+                    ResultSet rs = select.executeQuery("SELECT * FROM " + quoted)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                StringBuilder names = new StringBuilder();
+                StringBuilder placeholders = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    names.append(i > 1 ? ", " : "").append('"').append(meta.getColumnName(i)).append('"');
+                    placeholders.append(i > 1 ? ", ?" : "?");
+                }
+                try (PreparedStatement insert = target.prepareStatement(
+                        "INSERT INTO " + quoted + " (" + names + ") VALUES (" + placeholders + ")")) {
+                    int pending = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, detach(rs.getObject(i)));
+                        }
+                        insert.addBatch();
+                        if (++pending == BATCH_SIZE) {
+                            insert.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+        }
+
+        // LOB handles belong to the source session
+        private static Object detach(Object value) throws SQLException {
+            if (value instanceof Clob clob) {
+                return clob.getSubString(1, (int) clob.length());
+            }
+            if (value instanceof Blob blob) {
+                return blob.getBytes(1, (int) blob.length());
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latency (with p50/p95/p99 and a Prometheus histogram) and error
+ * counts for the public service and query service methods and the
+ * booking/vehicle repository methods.
+ *
+ * Meters: app.service.calls / app.repository.calls (timers) and
+ * app.service.errors / app.repository.errors (counters tagged with the
+ * exception class), all tagged with class and method.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.company.vehiclemanagement.service.BookingService.*(..)) || "
+            + "execution(public * com.company.vehiclemanagement.service.VehicleService.*(..)) || "
+            + "execution(public * com.company.vehiclemanagement.service.UserService.*(..)) || "
+            + "execution(public * com.company.vehiclemanagement.service.*QueryService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        return timed("app.service", className, joinPoint);
+    }
+
+    @Around("target(com.company.vehiclemanagement.repository.BookingRepository) || "
+            + "target(com.company.vehiclemanagement.repository.VehicleRepository)")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Repository beans are JDK proxies, so name them after the interface
+        String className = joinPoint.getTarget() instanceof BookingRepository
+                ? "BookingRepository" : "VehicleRepository";
+        return timed("app.repository", className, joinPoint);
+    }
+
+    private Object timed(String prefix, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        String methodName = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            Counter.builder(prefix + ".errors")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            timer(prefix, className, methodName).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String prefix, String className, String methodName) {
+        return timers.computeIfAbsent(prefix + ':' + className + '.' + methodName,
+                key -> Timer.builder(prefix + ".calls")
+                        .tag("class", className)
+                        .tag("method", methodName)
+                        .publishPercentiles(PERCENTILES)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,61 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.VehicleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.LongSupplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Each gauge runs its COUNT query at most once per TTL, however often it is scraped
+    @Bean
+    public MeterBinder fleetGauges(BookingRepository bookingRepository, VehicleRepository vehicleRepository,
+            @Value("${app.metrics.gauge-ttl-ms:15000}") long ttlMs) {
+        return registry -> {
+            Gauge.builder("app.bookings.pending",
+                    new CachedCount(() -> bookingRepository.countByStatus(BookingStatus.PENDING), ttlMs),
+                    CachedCount::get)
+                    .strongReference(true)
+                    .description("Bookings waiting for approval")
+                    .register(registry);
+            Gauge.builder("app.vehicles.available",
+                    new CachedCount(() -> vehicleRepository.countByStatus(VehicleStatus.AVAILABLE), ttlMs),
+                    CachedCount::get)
+                    .strongReference(true)
+                    .description("Vehicles with status AVAILABLE")
+                    .register(registry);
+        };
+    }
+
+    static final class CachedCount {
+
+        private final LongSupplier query;
+        private final long ttlNanos;
+        private long value;
+        private long expiresAt;
+        private boolean loaded;
+
+        CachedCount(LongSupplier query, long ttlMs) {
+            this.query = query;
+            this.ttlNanos = ttlMs * 1_000_000;
+        }
+
+        synchronized double get() {
+            long now = System.nanoTime();
+            if (!loaded || now - expiresAt >= 0) {
+                value = query.getAsLong();
+                expiresAt = now + ttlNanos;
+                loaded = true;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.model.AuditEvent;
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingArchive;
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.FuelType;
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.User;
+import com.company.vehiclemanagement.model.UserView;
+import com.company.vehiclemanagement.model.Vehicle;
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.model.VehicleView;
+import com.company.vehiclemanagement.service.QueryProfiler;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Reflection, resource and proxy hints for the native image (mvn -Pnative
+ * native:compile). Spring AOT covers bean wiring, repositories and the JPA
+ * metamodel; this adds what is only reached reflectively at runtime.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Read through Thymeleaf/SpEL property access and constructed by JPQL "select new"
+    private static final Class<?>[] MODEL_TYPES = {
+            Vehicle.class, Booking.class, User.class, BookingArchive.class,
+            VehicleView.class, BookingView.class, UserView.class, BookingInterval.class,
+            VehicleType.class, VehicleStatus.class, FuelType.class, BookingStatus.class, Role.class };
+
+    // Principal and authorities read by the sec: dialect in templates
+    private static final Class<?>[] SECURITY_TYPES = {
+            UsernamePasswordAuthenticationToken.class, SimpleGrantedAuthority.class, WebAuthenticationDetails.class,
+            org.springframework.security.core.userdetails.User.class };
+
+    // Serialized by Jackson from Map/List return values that AOT cannot see through
+    private static final Class<?>[] JSON_TYPES = {
+            AuditEvent.class, QueryProfiler.OriginStats.class, QueryProfiler.SlowQuery.class };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("templates/*.html")
+                .registerPattern("templates/**/*.html")
+                .registerPattern("db/seed-snapshot.sql");
+
+        for (Class<?> type : MODEL_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> type : SECURITY_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+
+        // JDK proxies created by datasource-proxy for the profiling DataSource
+        for (Class<?> jdbcType : new Class<?>[] { DataSource.class, Connection.class, Statement.class,
+                PreparedStatement.class, CallableStatement.class, ResultSet.class }) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.service.QueryProfiler;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that reports every
+ * statement to {@link QueryProfiler}, and tags statements with the repository
+ * method that issued them. Replaces spring.jpa.show-sql for production use.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryProfilingConfig {
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<QueryProfiler> queryProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(queryProfiler.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryOriginAspect queryOriginAspect(QueryProfiler queryProfiler) {
+        return new QueryOriginAspect(queryProfiler);
+    }
+
+    @Aspect
+    public static class QueryOriginAspect {
+
+        private final QueryProfiler queryProfiler;
+
+        QueryOriginAspect(QueryProfiler queryProfiler) {
+            this.queryProfiler = queryProfiler;
+        }
+
+        @Around("this(org.springframework.data.repository.Repository)")
+        public Object trackOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+            String previous = queryProfiler.enter(repositoryName(joinPoint.getThis()) + "."
+                    + joinPoint.getSignature().getName());
+            try {
+                return joinPoint.proceed();
+            } finally {
+                queryProfiler.exit(previous);
+            }
+        }
+
+        private static String repositoryName(Object repository) {
+            for (Class<?> type : repository.getClass().getInterfaces()) {
+                if (type.getName().startsWith("com.company.vehiclemanagement.")) {
+                    return type.getSimpleName();
+                }
+            }
+            return repository.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.vehiclemanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they wrote,
+ * so a booking created a moment ago is not missing from their booking list
+ * just because the replica has not caught up yet.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long windowMs;
+
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public void markWrite() {
+        String username = currentUsername();
+        if (username != null) {
+            primaryUntil.put(username, System.currentTimeMillis() + windowMs);
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            primaryUntil.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    // Users who wrote once and never read again would otherwise stay in the map
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-ms:5000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        primaryUntil.values().removeIf(until -> until < now);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
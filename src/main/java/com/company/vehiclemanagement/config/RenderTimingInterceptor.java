@@ -0,0 +1,64 @@
+package com.company.vehiclemanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times page requests from handler start until the view has been written, as
+ * app.page.render tagged with the view name and whether the template and
+ * fragment caches were on, so cached and uncached rendering can be compared
+ * per page. Requests without a view (redirects, @ResponseBody) are skipped.
+ */
+public class RenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry meterRegistry;
+    private final String templateCache;
+    private final String fragmentCache;
+
+    public RenderTimingInterceptor(MeterRegistry meterRegistry, boolean templateCache, boolean fragmentCache) {
+        this.meterRegistry = meterRegistry;
+        this.templateCache = templateCache ? "on" : "off";
+        this.fragmentCache = fragmentCache ? "on" : "off";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_ATTRIBUTE, modelAndView.getViewName());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object view = request.getAttribute(VIEW_ATTRIBUTE);
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (view == null || start == null) {
+            return;
+        }
+        Timer.builder("app.page.render")
+                .tag("view", (String) view)
+                .tag("templateCache", templateCache)
+                .tag("fragmentCache", fragmentCache)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+    }
+}
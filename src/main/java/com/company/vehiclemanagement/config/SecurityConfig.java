@@ -1,13 +1,31 @@
 package com.company.vehiclemanagement.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -19,14 +37,71 @@ public class SecurityConfig {
                 return new BCryptPasswordEncoder();
         }
 
+        // Vehicle trackers: API key per request, no session, no CSRF (not a browser client)
+        @Bean
+        @Order(1)
+        public SecurityFilterChain telemetryFilterChain(HttpSecurity http,
+                        @Value("${app.telemetry.api-keys:}") String[] apiKeys) throws Exception {
+                http
+                                .securityMatcher(antMatcher("/api/telemetry/**"))
+                                .authorizeHttpRequests(authz -> authz.anyRequest().hasRole("TRACKER"))
+                                .addFilterBefore(new TelemetryApiKeyFilter(apiKeys),
+                                                UsernamePasswordAuthenticationFilter.class)
+                                .csrf(csrf -> csrf.disable())
+                                .requestCache(cache -> cache.disable())
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+                return http.build();
+        }
+
+        // Prometheus: HTTP Basic for the scraper account only; with no password configured every scrape is rejected
+        @Bean
+        @Order(2)
+        public SecurityFilterChain metricsFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+                        @Value("${app.metrics.scrape-username:prometheus}") String username,
+                        @Value("${app.metrics.scrape-password:}") String password) throws Exception {
+                InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+                if (!password.isBlank()) {
+                        scrapers.createUser(org.springframework.security.core.userdetails.User.withUsername(username)
+                                        .password(passwordEncoder.encode(password))
+                                        .roles("METRICS")
+                                        .build());
+                }
+                DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+                provider.setUserDetailsService(scrapers);
+                http
+                                .securityMatcher(antMatcher("/actuator/prometheus"))
+                                .authorizeHttpRequests(authz -> authz.anyRequest().hasRole("METRICS"))
+                                .authenticationManager(new ProviderManager(provider))
+                                .httpBasic(basic -> basic.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                                .csrf(csrf -> csrf.disable())
+                                .requestCache(cache -> cache.disable())
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+                return http.build();
+        }
+
+        // UserService is a UserDetailsService as well, so the one used for login has to be named.
+        // Patterns are explicit ant matchers: with the H2 console there is more than one servlet,
+        // and Spring Security rejects plain string patterns as ambiguous
         @Bean
-        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain filterChain(HttpSecurity http, SessionRegistry sessionRegistry,
+                        CustomUserDetailsService userDetailsService) throws Exception {
                 http
+                                .userDetailsService(userDetailsService)
                                 .authorizeHttpRequests(authz -> authz
-                                                .requestMatchers("/login", "/css/**", "/js/**", "/images/**",
-                                                                "/webjars/**")
+                                                .requestMatchers(antMatcher("/login"), antMatcher("/css/**"),
+                                                                antMatcher("/js/**"), antMatcher("/images/**"),
+                                                                antMatcher("/webjars/**"))
                                                 .permitAll()
-                                                .requestMatchers("/admin/**").hasAnyRole("ADMIN", "FLEET_MANAGER")
+                                                .requestMatchers(antMatcher("/actuator/health")).permitAll()
+                                                // Calendar feeds are authorized by the token in their URL
+                                                .requestMatchers(antMatcher(HttpMethod.GET, "/calendar/feeds/**")).permitAll()
+                                                .requestMatchers(antMatcher("/actuator/**")).hasRole("ADMIN")
+                                                .requestMatchers(antMatcher("/admin/**"))
+                                                .hasAnyRole("ADMIN", "FLEET_MANAGER")
                                                 .anyRequest().authenticated())
                                 .formLogin(form -> form
                                                 .loginPage("/login")
@@ -41,12 +116,31 @@ public class SecurityConfig {
                                                 .permitAll())
                                 .rememberMe(remember -> remember
                                                 .key("uniqueAndSecret")
+                                                .userDetailsService(userDetailsService)
                                                 .tokenValiditySeconds(86400) // 24 hours
                                 )
                                 .sessionManagement(session -> session
                                                 .maximumSessions(1)
+                                                .sessionRegistry(sessionRegistry)
                                                 .maxSessionsPreventsLogin(false));
 
                 return http.build();
         }
-}
\ No newline at end of file
+
+        /**
+         * With the JDBC session store (cluster profile) sessions are looked up by
+         * principal in the shared store, so maximumSessions(1) holds across nodes.
+         * Otherwise the in-memory registry of this node is used.
+         */
+        @Bean
+        public SessionRegistry sessionRegistry(
+                        ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepository) {
+                FindByIndexNameSessionRepository<? extends Session> repository = sessionRepository.getIfAvailable();
+                return repository != null ? sharedSessionRegistry(repository) : new SessionRegistryImpl();
+        }
+
+        private static <S extends Session> SessionRegistry sharedSessionRegistry(
+                        FindByIndexNameSessionRepository<S> repository) {
+                return new SpringSessionBackedSessionRegistry<>(repository);
+        }
+}
@@ -0,0 +1,81 @@
+package com.company.vehiclemanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures how long it takes from JVM start until the first HTTP request has
+ * been served, which is what matters when instances are scaled out.
+ *
+ * The value is published as the app.startup.time-to-first-request gauge and
+ * as an "app.first-request" step in the ApplicationStartup timeline
+ * (/actuator/startup), next to the context refresh steps.
+ *
+ * With app.startup.exit-after-ready=true the application shuts down as soon
+ * as it is ready; the appcds Maven profile uses this for its training run.
+ */
+@Component
+public class StartupMonitor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupMonitor.class);
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.startup.exit-after-ready:false}")
+    private boolean exitAfterReady;
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile long readyMs = -1;
+    private volatile long firstRequestMs = -1;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("app.startup.ready", this, TimeUnit.MILLISECONDS, monitor -> monitor.readyMs)
+                .description("Time from JVM start until the application was ready")
+                .register(registry);
+        TimeGauge.builder("app.startup.time-to-first-request", this, TimeUnit.MILLISECONDS,
+                monitor -> monitor.firstRequestMs)
+                .description("Time from JVM start until the first HTTP request completed")
+                .register(registry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        readyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Application ready {} ms after JVM start", readyMs);
+        if (exitAfterReady) {
+            log.info("Exiting after startup (app.startup.exit-after-ready=true)");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (firstRequestSeen.get() || !firstRequestSeen.compareAndSet(false, true)) {
+            return;
+        }
+        firstRequestMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        StartupStep step = applicationContext.getApplicationStartup().start("app.first-request");
+        step.tag("url", event.getRequestUrl());
+        step.tag("timeSinceJvmStartMs", String.valueOf(firstRequestMs));
+        step.end();
+        log.info("First request ({}) completed {} ms after JVM start", event.getRequestUrl(), firstRequestMs);
+    }
+}
@@ -0,0 +1,614 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.FuelType;
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Generates a large, realistic dataset for app.startup.seed-mode=synthetic
+ * (see application-synthetic.properties): users spread over sites and
+ * weighted departments, a fleet with a configurable type and fuel mix, and
+ * bookings over app.synthetic.history-days of history plus the coming
+ * app.synthetic.horizon-days.
+ *
+ * Bookings are laid out day by day. Each day gets its share of the total
+ * (weekends and far-future days get less), every booking picks an employee
+ * (frequent travellers book far more than the rest) and a free vehicle
+ * at the employee's site, so one vehicle's approved bookings never overlap.
+ * Durations are log-normal and lead times exponential; the status follows the
+ * past or future mix. Closed bookings older than app.archive.age-days go
+ * straight to bookings_archive, where the archive job would have moved them.
+ *
+ * Everything is written with JDBC batch inserts, bypassing JPA, and the same
+ * seed and anchor date always produce the same rows. Accounts are named
+ * emp00001.., mgr001.. and adm01.. and share app.synthetic.password.
+ */
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, email, password, first_name, "
+            + "last_name, phone_number, employee_id, department, site_code, role, is_active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?)";
+
+    private static final String INSERT_VEHICLE_SQL = "INSERT INTO vehicles (make, model, model_year, license_plate, "
+            + "type, fuel_type, seating_capacity, mileage, color, status, insurance_expiry, last_service_date, "
+            + "next_service_date, site_code, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BOOKING_SQL = "INSERT INTO bookings (id, user_id, vehicle_id, auto_assign, "
+            + "requested_type, start_date_time, end_date_time, destination, purpose, status, approval_notes, "
+            + "approved_by, approved_at, trip_distance_km, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ARCHIVE_SQL = "INSERT INTO bookings_archive (id, user_id, vehicle_id, "
+            + "start_date_time, end_date_time, destination, purpose, status, approval_notes, approved_by, "
+            + "approved_at, trip_distance_km, requested_type, created_at, updated_at, archived_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Set<BookingStatus> CLOSED_STATUSES =
+            EnumSet.of(BookingStatus.COMPLETED, BookingStatus.REJECTED, BookingStatus.CANCELLED);
+
+    private static final Set<VehicleType> HEAVY_TYPES = EnumSet.of(VehicleType.TRUCK, VehicleType.MINIBUS,
+            VehicleType.BUS);
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Carlos", "Karen", "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sandra",
+            "Mark", "Ashley", "Priya", "Emily", "Wei", "Fatima", "Ahmed", "Yuki", "Olga", "Mateo"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris",
+            "Sanchez", "Clark", "Lewis", "Robinson", "Walker", "Patel", "Chen", "Kim", "Nguyen", "Novak", "Silva"};
+    private static final String[] COLORS = {"White", "Black", "Silver", "Grey", "Blue", "Red", "Green"};
+    private static final String[] DESTINATIONS = {"Client site", "Airport", "Regional office", "Warehouse",
+            "Trade fair", "Training centre", "Supplier visit", "City centre", "Data centre", "Head office"};
+    private static final String[] PURPOSES = {"Customer meeting", "Site inspection", "Delivery", "Training",
+            "Conference", "Team offsite", "Equipment pickup", "Sales visit", "Audit", "Recruiting event"};
+    private static final String[] REJECTION_NOTES = {"Vehicle needed for a priority trip",
+            "Please use public transport for this route", "Duration exceeds the trip policy"};
+
+    private static final Map<VehicleType, String[][]> MODELS = new HashMap<>();
+
+    static {
+        MODELS.put(VehicleType.SEDAN, new String[][] {{"Toyota", "Camry"}, {"Honda", "Accord"},
+                {"Volkswagen", "Passat"}, {"Audi", "A4"}, {"Nissan", "Altima"}, {"Skoda", "Octavia"}});
+        MODELS.put(VehicleType.SUV, new String[][] {{"Honda", "CR-V"}, {"Toyota", "RAV4"}, {"BMW", "X5"},
+                {"Volkswagen", "Tiguan"}, {"Hyundai", "Tucson"}});
+        MODELS.put(VehicleType.HATCHBACK, new String[][] {{"Volkswagen", "Golf"}, {"Ford", "Focus"},
+                {"Toyota", "Yaris"}, {"Renault", "Clio"}});
+        MODELS.put(VehicleType.TRUCK, new String[][] {{"Ford", "F-150"}, {"Toyota", "Hilux"}, {"Isuzu", "D-Max"}});
+        MODELS.put(VehicleType.VAN, new String[][] {{"Ford", "Transit"}, {"Mercedes", "Sprinter"},
+                {"Renault", "Trafic"}});
+        MODELS.put(VehicleType.COUPE, new String[][] {{"BMW", "4 Series"}, {"Audi", "A5"}});
+        MODELS.put(VehicleType.CONVERTIBLE, new String[][] {{"Mazda", "MX-5"}, {"Mini", "Convertible"}});
+        MODELS.put(VehicleType.MINIBUS, new String[][] {{"Mercedes", "Sprinter 519"}, {"Ford", "Transit Bus"}});
+        MODELS.put(VehicleType.BUS, new String[][] {{"MAN", "Lion's Coach"}, {"Volvo", "9700"}});
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    // yyyy-MM-dd; empty means today, so history always ends now
+    @Value("${app.synthetic.anchor-date:}")
+    private String anchorDate;
+
+    @Value("${app.synthetic.users:15000}")
+    private int userCount;
+
+    @Value("${app.synthetic.fleet-managers:60}")
+    private int managerCount;
+
+    @Value("${app.synthetic.admins:3}")
+    private int adminCount;
+
+    @Value("${app.synthetic.vehicles:4000}")
+    private int vehicleCount;
+
+    @Value("${app.synthetic.bookings:2000000}")
+    private int bookingCount;
+
+    @Value("${app.synthetic.password:loadtest}")
+    private String password;
+
+    @Value("${app.synthetic.history-days:730}")
+    private int historyDays;
+
+    @Value("${app.synthetic.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${app.synthetic.sites:HQ:40,NORTH:25,SOUTH:20,EAST:15}")
+    private String siteMix;
+
+    @Value("${app.synthetic.departments:Sales:22,Operations:18,Engineering:16,Customer Service:12,Marketing:8,"
+            + "IT:6,Finance:6,Facilities:6,HR:4,Legal:2}")
+    private String departmentMix;
+
+    @Value("${app.synthetic.vehicle-types:SEDAN:35,SUV:22,HATCHBACK:15,VAN:12,TRUCK:6,MINIBUS:4,BUS:3,COUPE:2,"
+            + "CONVERTIBLE:1}")
+    private String vehicleTypeMix;
+
+    @Value("${app.synthetic.fuel-types:PETROL:50,DIESEL:25,HYBRID:15,ELECTRIC:10}")
+    private String fuelTypeMix;
+
+    @Value("${app.synthetic.vehicle-statuses:AVAILABLE:95,MAINTENANCE:4,OUT_OF_SERVICE:1}")
+    private String vehicleStatusMix;
+
+    @Value("${app.synthetic.past-statuses:COMPLETED:80,CANCELLED:11,REJECTED:9}")
+    private String pastStatusMix;
+
+    @Value("${app.synthetic.future-statuses:APPROVED:65,PENDING:30,CANCELLED:5}")
+    private String futureStatusMix;
+
+    @Value("${app.synthetic.median-duration-hours:3}")
+    private double medianDurationHours;
+
+    @Value("${app.synthetic.mean-lead-time-hours:72}")
+    private double meanLeadTimeHours;
+
+    @Value("${app.synthetic.auto-assign-share:0.1}")
+    private double autoAssignShare;
+
+    @Value("${app.synthetic.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.archive.age-days:180}")
+    private int archiveAgeDays;
+
+    private record Site(String code, List<Long> employees, List<Long> vehicles) {
+    }
+
+    private record FleetVehicle(long id, VehicleType type, FuelType fuelType) {
+    }
+
+    private record GeneratedBooking(long id, long userId, FleetVehicle vehicle, boolean autoAssign,
+            LocalDateTime start, LocalDateTime end, String destination, String purpose, BookingStatus status,
+            String approvalNotes, Long approvedBy, LocalDateTime approvedAt, Double tripDistanceKm,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        Object[] hotRow() {
+            return new Object[] {id, userId, vehicle.id(), autoAssign, requestedType(), Timestamp.valueOf(start),
+                    Timestamp.valueOf(end), destination, purpose, status.name(), approvalNotes, approvedBy,
+                    timestamp(approvedAt), tripDistanceKm, Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt)};
+        }
+
+        Object[] archiveRow(Timestamp archivedAt) {
+            return new Object[] {id, userId, vehicle.id(), Timestamp.valueOf(start), Timestamp.valueOf(end),
+                    destination, purpose, status.name(), approvalNotes, approvedBy, timestamp(approvedAt),
+                    tripDistanceKm, requestedType(), Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt),
+                    archivedAt};
+        }
+
+        private String requestedType() {
+            return autoAssign ? vehicle.type().name() : null;
+        }
+
+        private static Timestamp timestamp(LocalDateTime value) {
+            return value != null ? Timestamp.valueOf(value) : null;
+        }
+    }
+
+    /** Fills an empty database; does nothing when there are users already. */
+    public void generate() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic data skipped: the database already has {} users", existing);
+            return;
+        }
+        long started = System.nanoTime();
+        LocalDateTime reference = (anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate))
+                .atStartOfDay();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        Map<String, Site> sites = new HashMap<>();
+        Weighted<String> siteWeights = Weighted.parse(siteMix, Function.identity());
+        for (String code : siteWeights.values) {
+            sites.put(code, new Site(code, new ArrayList<>(), new ArrayList<>()));
+        }
+        List<Long> managers = insertUsers(random.split(), reference, siteWeights, sites);
+        Map<Long, FleetVehicle> fleet = insertVehicles(random.split(), reference, siteWeights, sites);
+        long users = System.nanoTime();
+
+        List<Site> bookable = sites.values().stream()
+                .filter(site -> !site.employees().isEmpty() && !site.vehicles().isEmpty())
+                .sorted((a, b) -> a.code().compareTo(b.code()))
+                .toList();
+        int[] bookings = bookable.isEmpty() ? new int[2]
+                : insertBookings(random.split(), reference, bookable, fleet, managers);
+
+        logger.info("Synthetic data: {} users, {} vehicles, {} bookings ({} archived) in {} ms "
+                        + "(users and vehicles {} ms, bookings {} ms)",
+                userCount, vehicleCount, bookings[0], bookings[1], (System.nanoTime() - started) / 1_000_000,
+                (users - started) / 1_000_000, (System.nanoTime() - users) / 1_000_000);
+    }
+
+    private List<Long> insertUsers(SplittableRandom random, LocalDateTime reference, Weighted<String> siteWeights,
+            Map<String, Site> sites) {
+        Weighted<String> departments = Weighted.parse(departmentMix, Function.identity());
+        // One hash for every account: BCrypt per row would dominate the whole run
+        String passwordHash = passwordEncoder.encode(password);
+        int employees = Math.max(0, userCount - managerCount - adminCount);
+
+        List<Object[]> rows = new ArrayList<>(userCount);
+        for (int i = 1; i <= adminCount; i++) {
+            rows.add(userRow(random, String.format(Locale.ROOT, "adm%02d", i), passwordHash, "A" + i, "IT", null,
+                    Role.ADMIN, reference));
+        }
+        // Fleet managers see the whole fleet, like the demo manager
+        for (int i = 1; i <= managerCount; i++) {
+            rows.add(userRow(random, String.format(Locale.ROOT, "mgr%03d", i), passwordHash, "M" + i,
+                    "Operations", null, Role.FLEET_MANAGER, reference));
+        }
+        for (int i = 1; i <= employees; i++) {
+            rows.add(userRow(random, String.format(Locale.ROOT, "emp%05d", i), passwordHash, "E" + i,
+                    departments.pick(random), siteWeights.pick(random), Role.EMPLOYEE, reference));
+        }
+        inTransaction(() -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, batchSize,
+                (ps, row) -> setAll(ps, row)));
+
+        List<Long> managers = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, role, site_code FROM users ORDER BY id", rs -> {
+            Role role = Role.valueOf(rs.getString("role"));
+            if (role == Role.FLEET_MANAGER) {
+                managers.add(rs.getLong("id"));
+            } else if (role == Role.EMPLOYEE && rs.getString("site_code") != null) {
+                sites.get(rs.getString("site_code")).employees().add(rs.getLong("id"));
+            }
+        });
+        return managers;
+    }
+
+    private Object[] userRow(SplittableRandom random, String username, String passwordHash, String employeeId,
+            String department, String siteCode, Role role, LocalDateTime reference) {
+        Timestamp created = Timestamp.valueOf(reference.minusDays(historyDays + random.nextInt(1, 1500)));
+        return new Object[] {username, username + "@company.com", passwordHash,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                String.format(Locale.ROOT, "555-%04d", random.nextInt(10_000)), employeeId, department, siteCode,
+                role.name(), created, created};
+    }
+
+    private Map<Long, FleetVehicle> insertVehicles(SplittableRandom random, LocalDateTime reference,
+            Weighted<String> siteWeights, Map<String, Site> sites) {
+        Weighted<VehicleType> types = Weighted.parse(vehicleTypeMix, VehicleType::valueOf);
+        Weighted<FuelType> fuels = Weighted.parse(fuelTypeMix, FuelType::valueOf);
+        Weighted<VehicleStatus> statuses = Weighted.parse(vehicleStatusMix, VehicleStatus::valueOf);
+
+        List<Object[]> rows = new ArrayList<>(vehicleCount);
+        for (int i = 0; i < vehicleCount; i++) {
+            VehicleType type = types.pick(random);
+            String[] model = MODELS.get(type)[random.nextInt(MODELS.get(type).length)];
+            // Heavy vehicles run on diesel whatever the mix says
+            FuelType fuel = HEAVY_TYPES.contains(type) ? FuelType.DIESEL : fuels.pick(random);
+            int year = reference.getYear() - random.nextInt(0, 9);
+            double mileage = Math.round((reference.getYear() - year + random.nextDouble()) * 18_000);
+            LocalDateTime lastService = reference.minusDays(random.nextInt(1, 180));
+            Timestamp created = Timestamp.valueOf(reference.minusDays(historyDays + random.nextInt(1, 365)));
+            rows.add(new Object[] {model[0], model[1], year, plate(i), type.name(), fuel.name(), capacity(type, random),
+                    mileage, COLORS[random.nextInt(COLORS.length)], statuses.pick(random).name(),
+                    Timestamp.valueOf(reference.plusDays(random.nextInt(1, 365))), Timestamp.valueOf(lastService),
+                    Timestamp.valueOf(lastService.plusMonths(6)), siteWeights.pick(random), created, created});
+        }
+        inTransaction(() -> jdbcTemplate.batchUpdate(INSERT_VEHICLE_SQL, rows, batchSize,
+                (ps, row) -> setAll(ps, row)));
+
+        Map<Long, FleetVehicle> fleet = new HashMap<>();
+        jdbcTemplate.query("SELECT id, type, fuel_type, site_code, status FROM vehicles ORDER BY id", rs -> {
+            long id = rs.getLong("id");
+            fleet.put(id, new FleetVehicle(id, VehicleType.valueOf(rs.getString("type")),
+                    FuelType.valueOf(rs.getString("fuel_type"))));
+            if (VehicleStatus.valueOf(rs.getString("status")) == VehicleStatus.AVAILABLE) {
+                sites.get(rs.getString("site_code")).vehicles().add(id);
+            }
+        });
+        return fleet;
+    }
+
+    /**
+     * Writes the bookings with ids in start order. Closed bookings older than
+     * the archive age go straight to bookings_archive, keeping their id as the
+     * archive job does; the identity of bookings is moved past the last id.
+     * Returns the number of bookings and how many of them were archived.
+     */
+    private int[] insertBookings(SplittableRandom random, LocalDateTime reference, List<Site> sites,
+            Map<Long, FleetVehicle> fleet, List<Long> managers) {
+        Weighted<BookingStatus> pastStatuses = Weighted.parse(pastStatusMix, BookingStatus::valueOf);
+        Weighted<BookingStatus> futureStatuses = Weighted.parse(futureStatusMix, BookingStatus::valueOf);
+        Weighted<Site> siteByEmployees = new Weighted<>(sites, sites.stream()
+                .mapToDouble(site -> site.employees().size()).toArray());
+        int[] perDay = bookingsPerDay(reference);
+        LocalDate firstDay = reference.toLocalDate().minusDays(historyDays);
+        Map<Long, LocalDateTime> busyUntil = new HashMap<>();
+        Set<Long> inUse = new HashSet<>();
+        LocalDateTime archiveCutoff = reference.minusDays(archiveAgeDays);
+        Timestamp archivedAt = Timestamp.valueOf(reference);
+
+        List<Object[]> hot = new ArrayList<>(batchSize * 10);
+        List<Object[]> archive = new ArrayList<>(batchSize * 10);
+        int total = 0;
+        int archived = 0;
+        for (int d = 0; d < perDay.length; d++) {
+            LocalDateTime day = firstDay.plusDays(d).atStartOfDay();
+            // Start times first, in order, so a vehicle is only ever handed out after its last trip
+            long[] startMinutes = new long[perDay[d]];
+            for (int i = 0; i < startMinutes.length; i++) {
+                startMinutes[i] = startMinute(random);
+            }
+            Arrays.sort(startMinutes);
+            for (long minute : startMinutes) {
+                LocalDateTime start = day.plusMinutes(minute);
+                LocalDateTime end = start.plusMinutes(durationMinutes(random));
+                Site site = siteByEmployees.pick(random);
+                Long vehicleId = freeVehicle(random, site, start, busyUntil);
+                if (vehicleId == null) {
+                    continue;
+                }
+                busyUntil.put(vehicleId, end);
+                long userId = traveller(random, site.employees());
+                boolean ongoing = !start.isAfter(reference) && end.isAfter(reference);
+                BookingStatus status = ongoing ? BookingStatus.APPROVED
+                        : (start.isAfter(reference) ? futureStatuses : pastStatuses).pick(random);
+                if (ongoing) {
+                    inUse.add(vehicleId);
+                }
+                GeneratedBooking booking = generateBooking(random, ++total, reference, userId,
+                        fleet.get(vehicleId), start, end, status, managers);
+                if (CLOSED_STATUSES.contains(status) && booking.updatedAt().isBefore(archiveCutoff)) {
+                    archive.add(booking.archiveRow(archivedAt));
+                    archived++;
+                } else {
+                    hot.add(booking.hotRow());
+                }
+            }
+            if (hot.size() + archive.size() >= batchSize * 10 || d == perDay.length - 1) {
+                flush(INSERT_BOOKING_SQL, hot);
+                flush(INSERT_ARCHIVE_SQL, archive);
+            }
+        }
+        restartBookingIds(total + 1L);
+        // Generated users never change department, so the booking's snapshot is the user's department
+        inTransaction(() -> {
+            jdbcTemplate.update("UPDATE bookings SET department = "
+                    + "(SELECT u.department FROM users u WHERE u.id = bookings.user_id)");
+            jdbcTemplate.update("UPDATE bookings_archive SET department = "
+                    + "(SELECT u.department FROM users u WHERE u.id = bookings_archive.user_id)");
+        });
+        if (!inUse.isEmpty()) {
+            List<Object[]> rows = inUse.stream().sorted().map(id -> new Object[] {id}).toList();
+            inTransaction(() -> jdbcTemplate.batchUpdate("UPDATE vehicles SET status = 'IN_USE' WHERE id = ?", rows));
+        }
+        return new int[] {total, archived};
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            inTransaction(() -> jdbcTemplate.batchUpdate(sql, rows, batchSize, (ps, row) -> setAll(ps, row)));
+            rows.clear();
+        }
+    }
+
+    // Explicit ids do not advance the identity column, and its syntax differs between H2 and MySQL
+    private void restartBookingIds(long next) {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        jdbcTemplate.execute("MySQL".equalsIgnoreCase(product)
+                ? "ALTER TABLE bookings AUTO_INCREMENT = " + next
+                : "ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    private GeneratedBooking generateBooking(SplittableRandom random, long id, LocalDateTime reference, long userId,
+            FleetVehicle vehicle, LocalDateTime start, LocalDateTime end, BookingStatus status, List<Long> managers) {
+        LocalDateTime created = start.minusMinutes(Math.max(60,
+                (long) (-Math.log(1 - random.nextDouble()) * meanLeadTimeHours * 60)));
+        if (!created.isBefore(reference)) {
+            created = reference.minusMinutes(random.nextInt(1, 24 * 60));
+        }
+        LocalDateTime decided = min(created.plusMinutes(random.nextInt(5, 8 * 60)), min(start, reference));
+        boolean decidedByManager = status == BookingStatus.APPROVED || status == BookingStatus.COMPLETED
+                || status == BookingStatus.REJECTED;
+        Long approvedBy = decidedByManager && !managers.isEmpty() ? managers.get(random.nextInt(managers.size()))
+                : null;
+        LocalDateTime updated = switch (status) {
+            case COMPLETED -> min(end.plusMinutes(random.nextInt(0, 24 * 60)), reference);
+            case CANCELLED -> min(created.plusMinutes(random.nextInt(10, 72 * 60)), min(start, reference));
+            case PENDING -> created;
+            default -> decided;
+        };
+        Double distance = status == BookingStatus.COMPLETED
+                ? Math.round(hours(start, end) * random.nextDouble(8, 40) * 10) / 10.0 : null;
+        boolean autoAssign = random.nextDouble() < autoAssignShare;
+        return new GeneratedBooking(id, userId, vehicle, autoAssign, start, end,
+                DESTINATIONS[random.nextInt(DESTINATIONS.length)], PURPOSES[random.nextInt(PURPOSES.length)], status,
+                status == BookingStatus.REJECTED ? REJECTION_NOTES[random.nextInt(REJECTION_NOTES.length)] : null,
+                approvedBy, approvedBy != null ? decided : null, distance, created, updated);
+    }
+
+    /**
+     * Splits the booking total over the days: weekends get a fifth of a
+     * weekday, and future days only the share booked that far ahead.
+     */
+    private int[] bookingsPerDay(LocalDateTime reference) {
+        int days = historyDays + horizonDays;
+        LocalDate firstDay = reference.toLocalDate().minusDays(historyDays);
+        double[] weights = new double[days];
+        double sum = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate day = firstDay.plusDays(d);
+            double weight = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY
+                    ? 0.2 : 1.0;
+            if (d >= historyDays) {
+                weight *= Math.exp(-(d - historyDays) * 24.0 / meanLeadTimeHours);
+            }
+            weights[d] = weight;
+            sum += weight;
+        }
+        int[] counts = new int[days];
+        double carried = 0;
+        for (int d = 0; d < days; d++) {
+            double exact = bookingCount * weights[d] / sum + carried;
+            counts[d] = (int) Math.floor(exact);
+            carried = exact - counts[d];
+        }
+        counts[days - 1] += (int) Math.round(carried);
+        return counts;
+    }
+
+    private Long freeVehicle(SplittableRandom random, Site site, LocalDateTime start,
+            Map<Long, LocalDateTime> busyUntil) {
+        List<Long> vehicles = site.vehicles();
+        for (int attempt = 0; attempt < 16; attempt++) {
+            Long id = vehicles.get(random.nextInt(vehicles.size()));
+            LocalDateTime busy = busyUntil.get(id);
+            if (busy == null || !busy.isAfter(start)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /** A fifth of the employees, the frequent travellers, make three fifths of the trips. */
+    private static long traveller(SplittableRandom random, List<Long> employees) {
+        int frequent = Math.max(1, employees.size() / 5);
+        return random.nextDouble() < 0.6 || frequent == employees.size()
+                ? employees.get(random.nextInt(frequent))
+                : employees.get(random.nextInt(frequent, employees.size()));
+    }
+
+    /** Minutes after midnight: mostly the morning peak, the rest spread over the working day. */
+    private static long startMinute(SplittableRandom random) {
+        int slot = random.nextDouble() < 0.45 ? random.nextInt(14, 20) : random.nextInt(12, 38);
+        return slot * 30L;
+    }
+
+    /** Log-normal around the median, in half hours between 30 minutes and three days. */
+    private long durationMinutes(SplittableRandom random) {
+        double hours = medianDurationHours * Math.exp(0.9 * gaussian(random));
+        return Math.max(1, Math.min(144, Math.round(hours * 2))) * 30L;
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private static void setAll(PreparedStatement ps, Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            ps.setObject(i + 1, row[i]);
+        }
+    }
+
+    private static String plate(int index) {
+        int letters = index / 1000;
+        return String.format(Locale.ROOT, "%c%c%c-%03d", 'A' + letters / 676 % 26, 'A' + letters / 26 % 26,
+                'A' + letters % 26, index % 1000);
+    }
+
+    private static int capacity(VehicleType type, SplittableRandom random) {
+        return switch (type) {
+            case SUV -> random.nextBoolean() ? 5 : 7;
+            case TRUCK -> 3;
+            case VAN -> random.nextBoolean() ? 8 : 12;
+            case COUPE, CONVERTIBLE -> 4;
+            case MINIBUS -> 16;
+            case BUS -> 45;
+            default -> 5;
+        };
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on 17
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double hours(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMinutes() / 60.0;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /** A value list parsed from "A:3,B:1" and picked in proportion to the weights. */
+    private static final class Weighted<T> {
+
+        private final List<T> values;
+        private final double[] cumulative;
+
+        Weighted(List<T> values, double[] weights) {
+            this.values = values;
+            this.cumulative = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+            if (values.isEmpty() || sum <= 0) {
+                throw new IllegalStateException("Synthetic data mix has no positive weights: " + values);
+            }
+        }
+
+        static <T> Weighted<T> parse(String spec, Function<String, T> parser) {
+            List<T> values = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            for (String entry : spec.split(",")) {
+                int separator = entry.lastIndexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalStateException("Expected value:weight in synthetic data mix but got " + entry);
+                }
+                values.add(parser.apply(entry.substring(0, separator).trim()));
+                weights.add(Double.valueOf(entry.substring(separator + 1).trim()));
+            }
+            return new Weighted<>(values, weights.stream().mapToDouble(Double::doubleValue).toArray());
+        }
+
+        T pick(SplittableRandom random) {
+            double ticket = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (ticket < cumulative[i]) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.vehiclemanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Authenticates vehicle trackers by the X-Api-Key header. Keys come from
+ * app.telemetry.api-keys; with no keys configured every request is rejected.
+ */
+class TelemetryApiKeyFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Api-Key";
+
+    private final List<byte[]> keys;
+
+    TelemetryApiKeyFilter(String[] keys) {
+        this.keys = Arrays.stream(keys)
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key == null || !isValid(key.getBytes(StandardCharsets.UTF_8))) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Missing or invalid " + HEADER + "\"}");
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "tracker", null, AuthorityUtils.createAuthorityList("ROLE_TRACKER")));
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isValid(byte[] candidate) {
+        boolean valid = false;
+        for (byte[] key : keys) {
+            // Constant-time comparison so response timing does not leak key prefixes
+            valid |= MessageDigest.isEqual(key, candidate);
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.vehiclemanagement.config;
+
+import com.company.vehiclemanagement.service.FragmentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @Value("${spring.thymeleaf.cache:true}")
+    private boolean templateCache;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor(meterRegistry, templateCache, fragmentCache.isEnabled()));
+    }
+}
@@ -1,10 +1,21 @@
 package com.company.vehiclemanagement.controller;
 
+import com.company.vehiclemanagement.model.AuditEvent;
 import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.ChargebackLine;
 import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.service.AuditJournal;
+import com.company.vehiclemanagement.service.BookingQueryService;
+import com.company.vehiclemanagement.service.CachedFragments;
+import com.company.vehiclemanagement.service.ChargebackService;
 import com.company.vehiclemanagement.service.BookingService;
+import com.company.vehiclemanagement.service.QueryProfiler;
+import com.company.vehiclemanagement.service.TelemetryStore;
+import com.company.vehiclemanagement.service.UserQueryService;
 import com.company.vehiclemanagement.service.UserService;
+import com.company.vehiclemanagement.service.VehicleQueryService;
 import com.company.vehiclemanagement.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,6 +25,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -30,25 +47,45 @@ public class AdminController {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Autowired
+    private UserQueryService userQueryService;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Autowired
+    private CachedFragments cachedFragments;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private QueryProfiler queryProfiler;
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private ChargebackService chargebackService;
+
     @GetMapping("/dashboard")
     public String adminDashboard(Model model) {
-        model.addAttribute("pendingBookings", bookingService.findPendingBookings());
-        model.addAttribute("totalUsers", userService.getTotalUserCount());
-        model.addAttribute("activeUsers", userService.getActiveUserCount());
-        model.addAttribute("totalVehicles", vehicleService.getTotalVehicleCount());
-        model.addAttribute("availableVehicles", vehicleService.getAvailableVehicleCount());
-        model.addAttribute("totalBookings", bookingService.getTotalBookingCount());
-        model.addAttribute("pendingBookingsCount", bookingService.getBookingCountByStatus(BookingStatus.PENDING));
+        model.addAttribute("pendingBookings", bookingQueryService.findPendingBookings());
+        // Pre-rendered statistic cards; the counts are only queried when the cached block is stale
+        model.addAttribute("adminStats", cachedFragments.adminStats());
         return "admin/dashboard";
     }
 
     @GetMapping("/bookings")
     public String manageBookings(@RequestParam(required = false) BookingStatus status, Model model) {
         if (status != null) {
-            model.addAttribute("bookings", bookingService.findBookingsByStatus(status));
+            model.addAttribute("bookings", bookingQueryService.findBookingsByStatus(status));
             model.addAttribute("selectedStatus", status);
         } else {
-            model.addAttribute("bookings", bookingService.findAllBookings());
+            model.addAttribute("bookings", bookingQueryService.findAllBookings());
         }
         model.addAttribute("bookingStatuses", BookingStatus.values());
         return "admin/bookings";
@@ -108,10 +145,10 @@ public class AdminController {
     @GetMapping("/users")
     public String manageUsers(@RequestParam(required = false) Role role, Model model) {
         if (role != null) {
-            model.addAttribute("users", userService.findUsersByRole(role));
+            model.addAttribute("users", userQueryService.findUsersByRole(role));
             model.addAttribute("selectedRole", role);
         } else {
-            model.addAttribute("users", userService.findAllActiveUsers());
+            model.addAttribute("users", userQueryService.findAllActiveUsers());
         }
         model.addAttribute("roles", Role.values());
         return "admin/users";
@@ -154,9 +191,9 @@ public class AdminController {
 
     @GetMapping("/vehicles")
     public String manageVehicles(Model model) {
-        model.addAttribute("vehicles", vehicleService.findAllVehicles());
-        model.addAttribute("needingService", vehicleService.findVehiclesNeedingService());
-        model.addAttribute("expiringInsurance", vehicleService.findVehiclesWithExpiringInsurance(30));
+        model.addAttribute("vehicles", vehicleQueryService.findAllVehicles());
+        model.addAttribute("needingService", vehicleQueryService.findVehiclesNeedingService());
+        model.addAttribute("expiringInsurance", vehicleQueryService.findVehiclesWithExpiringInsurance(30));
         return "admin/vehicles";
     }
 
@@ -180,28 +217,115 @@ public class AdminController {
     public Object completeBooking(@PathVariable Long id) {
         try {
             bookingService.completeBooking(id);
-            return "{\"success\": true, \"message\": \"Booking completed successfully\"}";
+            return Map.of("success", true, "message", "Booking completed successfully");
         } catch (RuntimeException e) {
-            return "{\"success\": false, \"message\": \"" + e.getMessage() + "\"}";
+            return Map.of("success", false, "message", String.valueOf(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/bookings/pending")
+    @ResponseBody
+    public List<BookingView> pendingBookings(@RequestParam(defaultValue = "50") int limit) {
+        return bookingQueryService.findPendingBookings(Math.max(1, Math.min(limit, 500)));
+    }
+
+    // Booking history across the hot and archive tiers, one slice at a time
+    @GetMapping("/api/users/{id}/bookings")
+    @ResponseBody
+    public Object userBookingHistory(@PathVariable Long id, @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return bookingService.findUserHistory(id, before, Math.min(Math.max(size, 1), 100));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
         }
     }
 
+    @GetMapping("/api/users/{id}/bookings/counts")
+    @ResponseBody
+    public Map<BookingStatus, Long> userBookingCounts(@PathVariable Long id) {
+        return bookingService.countUserHistoryByStatus(id);
+    }
+
+    @GetMapping("/api/vehicles/{id}/bookings")
+    @ResponseBody
+    public Object vehicleBookingHistory(@PathVariable Long id, @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return bookingService.findVehicleHistory(id, before, Math.min(Math.max(size, 1), 100));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        }
+    }
+
+    @GetMapping("/api/vehicles/{id}/bookings/counts")
+    @ResponseBody
+    public Map<BookingStatus, Long> vehicleBookingCounts(@PathVariable Long id) {
+        return bookingService.countVehicleHistoryByStatus(id);
+    }
+
     @GetMapping("/api/stats")
     @ResponseBody
     public Object getStats() {
-        return String.format("{" +
-                "\"totalBookings\": %d," +
-                "\"pendingBookings\": %d," +
-                "\"totalVehicles\": %d," +
-                "\"availableVehicles\": %d," +
-                "\"totalUsers\": %d," +
-                "\"activeUsers\": %d" +
-                "}",
-                bookingService.getTotalBookingCount(),
-                bookingService.getBookingCountByStatus(BookingStatus.PENDING),
-                vehicleService.getTotalVehicleCount(),
-                vehicleService.getAvailableVehicleCount(),
-                userService.getTotalUserCount(),
-                userService.getActiveUserCount());
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("totalBookings", bookingService.getTotalBookingCount());
+        stats.put("pendingBookings", bookingService.getBookingCountByStatus(BookingStatus.PENDING));
+        stats.put("totalVehicles", vehicleService.getTotalVehicleCount());
+        stats.put("availableVehicles", vehicleService.getAvailableVehicleCount());
+        stats.put("totalUsers", userService.getTotalUserCount());
+        stats.put("activeUsers", userService.getActiveUserCount());
+        return stats;
+    }
+
+    @GetMapping("/api/audit")
+    @ResponseBody
+    public List<AuditEvent> queryAuditJournal(@RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "100") int limit) {
+        ZoneId zone = ZoneId.systemDefault();
+        return auditJournal.query(entityType, entityId,
+                from != null ? LocalDateTime.parse(from).atZone(zone).toInstant() : null,
+                to != null ? LocalDateTime.parse(to).atZone(zone).toInstant() : null,
+                Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @GetMapping("/api/chargeback/{month}")
+    @ResponseBody
+    public List<ChargebackLine> chargeback(@PathVariable YearMonth month) {
+        return chargebackService.findLines(month);
+    }
+
+    // Replaces the month's lines; safe to repeat
+    @PostMapping("/api/chargeback/{month}/run")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ChargebackLine> runChargeback(@PathVariable YearMonth month) {
+        return chargebackService.run(month);
+    }
+
+    @GetMapping("/api/telemetry/stats")
+    @ResponseBody
+    public TelemetryStore.Stats telemetryStoreStats() {
+        return telemetryStore.stats();
+    }
+
+    @GetMapping("/api/queries/top")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> topQueries(@RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("byOrigin", queryProfiler.topOrigins(limit));
+        result.put("slowest", queryProfiler.slowestQueries(limit));
+        return result;
+    }
+
+    @PostMapping("/api/queries/reset")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public Object resetQueryProfile() {
+        queryProfiler.reset();
+        return "{\"success\": true}";
     }
 }
\ No newline at end of file
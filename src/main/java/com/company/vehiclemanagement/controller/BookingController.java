@@ -4,10 +4,14 @@ import com.company.vehiclemanagement.model.Booking;
 import com.company.vehiclemanagement.model.BookingStatus;
 import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Vehicle;
+import com.company.vehiclemanagement.service.AvailabilityCoalescer;
+import com.company.vehiclemanagement.service.FleetIndex;
 import com.company.vehiclemanagement.service.BookingService;
 import com.company.vehiclemanagement.service.UserService;
 import com.company.vehiclemanagement.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,6 +21,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -32,12 +37,24 @@ public class BookingController {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private AvailabilityCoalescer availabilityCoalescer;
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
     @GetMapping
-    public String listUserBookings(Model model, Authentication authentication) {
+    public String listUserBookings(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Model model, Authentication authentication) {
         if (authentication != null && authentication.isAuthenticated()) {
             Optional<User> user = userService.findByUsername(authentication.getName());
             if (user.isPresent()) {
-                model.addAttribute("bookings", bookingService.findBookingsByUser(user.get()));
+                // History spans the live bookings table and the archive tier
+                Page<Booking> bookings = bookingService.findBookingHistoryByUser(user.get(),
+                        PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
+                model.addAttribute("bookings", bookings.getContent());
+                model.addAttribute("bookingsPage", bookings);
                 model.addAttribute("user", user.get());
                 return "bookings/list";
             }
@@ -68,7 +85,7 @@ public class BookingController {
         }
 
         model.addAttribute("booking", booking);
-        model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+        model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
         return "bookings/form";
     }
 
@@ -90,7 +107,7 @@ public class BookingController {
         booking.setUser(user.get());
 
         if (bindingResult.hasErrors()) {
-            model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+            model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
             return "bookings/form";
         }
 
@@ -101,7 +118,7 @@ public class BookingController {
             return "redirect:/bookings";
         } catch (RuntimeException e) {
             model.addAttribute("error", e.getMessage());
-            model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+            model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
             return "bookings/form";
         }
     }
@@ -151,7 +168,7 @@ public class BookingController {
         }
 
         model.addAttribute("booking", booking.get());
-        model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+        model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
         return "bookings/form";
     }
 
@@ -175,7 +192,7 @@ public class BookingController {
         booking.setUser(user.get());
 
         if (bindingResult.hasErrors()) {
-            model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+            model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
             return "bookings/form";
         }
 
@@ -185,7 +202,7 @@ public class BookingController {
             return "redirect:/bookings/" + id;
         } catch (RuntimeException e) {
             model.addAttribute("error", e.getMessage());
-            model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+            model.addAttribute("vehicles", fleetIndex.availableVehicles(user.get().getSiteCode()));
             return "bookings/form";
         }
     }
@@ -214,6 +231,22 @@ public class BookingController {
     }
 
     // AJAX endpoints
+    @GetMapping("/api/history")
+    @ResponseBody
+    public Object bookingHistory(@RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        Optional<User> user = userService.findByUsername(authentication.getName());
+        if (user.isEmpty()) {
+            return Map.of("success", false, "message", "User not found");
+        }
+        try {
+            return bookingService.findUserHistory(user.get().getId(), before, Math.min(Math.max(size, 1), 100));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        }
+    }
+
     @GetMapping("/api/check-availability")
     @ResponseBody
     public Object checkVehicleAvailability(@RequestParam Long vehicleId,
@@ -224,12 +257,11 @@ public class BookingController {
             LocalDateTime start = LocalDateTime.parse(startDateTime);
             LocalDateTime end = LocalDateTime.parse(endDateTime);
 
-            Optional<Vehicle> vehicle = vehicleService.findById(vehicleId);
-            if (!vehicle.isPresent()) {
-                return "{\"available\": false, \"message\": \"Vehicle not found\"}";
+            if (!availabilityCoalescer.vehicleExists(vehicleId, start, end)) {
+                return Map.of("available", false, "message", "Vehicle not found");
             }
 
-            boolean hasConflicts = bookingService.hasConflictingBookings(vehicle.get(), start, end);
+            boolean hasConflicts = availabilityCoalescer.hasConflictingBookings(vehicleId, start, end);
 
             // If checking for update, exclude current booking from conflicts
             if (bookingId != null) {
@@ -237,10 +269,10 @@ public class BookingController {
                 // For now, we'll keep it simple
             }
 
-            return "{\"available\": " + !hasConflicts + ", \"message\": \"" +
-                    (hasConflicts ? "Vehicle is already booked for this time period" : "Vehicle is available") + "\"}";
+            return Map.of("available", !hasConflicts, "message",
+                    hasConflicts ? "Vehicle is already booked for this time period" : "Vehicle is available");
         } catch (Exception e) {
-            return "{\"available\": false, \"message\": \"Invalid date format\"}";
+            return Map.of("available", false, "message", "Invalid date format");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.model.User;
+import com.company.vehiclemanagement.service.CalendarFeed;
+import com.company.vehiclemanagement.service.CalendarFeedService;
+import com.company.vehiclemanagement.service.UserService;
+import com.company.vehiclemanagement.service.VehicleQueryService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * iCalendar subscription feeds. Feed URLs are authenticated by their token, so
+ * calendar clients can poll them without a session; {@code /calendar/links}
+ * hands the URLs to logged-in users. Vehicle feed URLs are for fleet managers
+ * and admins only.
+ */
+@Controller
+@RequestMapping("/calendar")
+public class CalendarController {
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @GetMapping("/feeds/users/{userId}.ics")
+    public void userFeed(@PathVariable Long userId, @RequestParam(required = false) String token,
+            ServletWebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(CalendarFeed.user(userId), token, request, response);
+    }
+
+    @GetMapping("/feeds/vehicles/{vehicleId}.ics")
+    public void vehicleFeed(@PathVariable Long vehicleId, @RequestParam(required = false) String token,
+            ServletWebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(CalendarFeed.vehicle(vehicleId), token, request, response);
+    }
+
+    @GetMapping("/feeds/departments/{department}.ics")
+    public void departmentFeed(@PathVariable String department, @RequestParam(required = false) String token,
+            ServletWebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(CalendarFeed.department(department), token, request, response);
+    }
+
+    @GetMapping("/links")
+    @ResponseBody
+    public Map<String, String> links(@RequestParam(required = false) Long vehicleId,
+            Authentication authentication) {
+        User user = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Map<String, String> links = new LinkedHashMap<>();
+        links.put("user", feedUrl(CalendarFeed.user(user.getId()), "users", user));
+        if (user.getDepartment() != null && !user.getDepartment().isBlank()) {
+            links.put("department", feedUrl(CalendarFeed.department(user.getDepartment()), "departments", user));
+        }
+        if (vehicleId != null) {
+            if (!calendarFeedService.canSeeVehicleFeeds(user)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Vehicle feeds are for fleet managers");
+            }
+            if (vehicleQueryService.findById(vehicleId).isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle not found");
+            }
+            links.put("vehicle", feedUrl(CalendarFeed.vehicle(vehicleId), "vehicles", user));
+        }
+        return links;
+    }
+
+    // Every link handed out so far stops working; the answer holds the new ones
+    @PostMapping("/links/revoke")
+    @ResponseBody
+    public Map<String, String> revokeLinks(Authentication authentication) {
+        User user = userService.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        userService.revokeCalendarLinks(user.getId());
+        return links(null, authentication);
+    }
+
+    private void writeFeed(CalendarFeed feed, String token, ServletWebRequest request,
+            HttpServletResponse response) throws IOException {
+        // An unknown token looks the same as an unknown feed. Set directly, because
+        // an error dispatch would be redirected to the login page
+        if (!calendarFeedService.isValidToken(feed, token)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // Answered from the cached ETag while the feed has not changed
+        if (request.checkNotModified(calendarFeedService.etag(feed))) {
+            return;
+        }
+        response.setContentType("text/calendar;charset=UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        calendarFeedService.write(feed, response.getWriter());
+    }
+
+    private String feedUrl(CalendarFeed feed, String path, User user) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .pathSegment("calendar", "feeds", path, feed.id() + ".ics")
+                .queryParam("token", calendarFeedService.token(feed, user))
+                .build()
+                .toUriString();
+    }
+}
@@ -3,6 +3,8 @@ package com.company.vehiclemanagement.controller;
 import com.company.vehiclemanagement.service.UserService;
 import com.company.vehiclemanagement.service.VehicleService;
 import com.company.vehiclemanagement.service.BookingService;
+import com.company.vehiclemanagement.service.BookingQueryService;
+import com.company.vehiclemanagement.service.CachedFragments;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -21,6 +23,12 @@ public class HomeController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Autowired
+    private CachedFragments cachedFragments;
+
     @GetMapping("/")
     public String home(Model model) {
         model.addAttribute("title", "Vehicle Management System");
@@ -36,16 +44,18 @@ public class HomeController {
             var user = userService.findByUsername(authentication.getName());
             if (user.isPresent()) {
                 model.addAttribute("user", user.get());
-                model.addAttribute("userBookings", bookingService.findBookingsByUser(user.get()));
+                model.addAttribute("userBookings", bookingQueryService.findBookingsByUserId(user.get().getId()));
                 model.addAttribute("totalVehicles", vehicleService.getTotalVehicleCount());
                 model.addAttribute("availableVehicles", vehicleService.getAvailableVehicleCount());
                 model.addAttribute("userBookingCount", bookingService.getUserBookingCount(user.get()));
+                model.addAttribute("fleetStatusWidget", cachedFragments.fleetStatus());
 
                 // Admin-specific data
                 if (user.get().getRole().name().equals("ADMIN")
                         || user.get().getRole().name().equals("FLEET_MANAGER")) {
-                    model.addAttribute("pendingBookings", bookingService.findPendingBookings());
+                    model.addAttribute("pendingBookings", bookingQueryService.findPendingBookings());
                     model.addAttribute("totalUsers", userService.getTotalUserCount());
+                    model.addAttribute("adminStats", cachedFragments.adminStats());
                     return "admin/dashboard";
                 }
 
@@ -57,7 +67,7 @@ public class HomeController {
 
     @GetMapping("/login")
     public String login() {
-        return "auth/login";
+        return "login";
     }
 
     @GetMapping("/register")
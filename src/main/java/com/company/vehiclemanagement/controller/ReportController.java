@@ -0,0 +1,79 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.model.ReportJob;
+import com.company.vehiclemanagement.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Background report exports: submit a job, poll it by id and download the
+ * file once it is DONE.
+ */
+@RestController
+@RequestMapping("/admin/reports/jobs")
+@PreAuthorize("hasRole('ADMIN') or hasRole('FLEET_MANAGER')")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    // from and to are dates; the period runs from the start of from to the end of to
+    @PostMapping
+    public ResponseEntity<ReportJob> submit(@RequestParam ReportJob.Type type,
+            @RequestParam(defaultValue = "CSV") ReportJob.Format format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        try {
+            ReportJob job = reportService.submit(type, format,
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public List<ReportJob> jobs() {
+        return reportService.findJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ReportJob job(@PathVariable String id) {
+        return findJob(id);
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ReportJob job = findJob(id);
+        if (job.getStatus() != ReportJob.Status.DONE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Report is " + job.getStatus());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                .body(new FileSystemResource(reportService.file(job)));
+    }
+
+    private ReportJob findJob(String id) {
+        return reportService.findJob(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Report not found"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.config.AppUserDetails;
+import com.company.vehiclemanagement.service.FleetIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves the site a catalog request is scoped to: the {@code site} request
+ * parameter when given ({@code site=all} for the whole fleet), otherwise the
+ * home site of the logged-in user as recorded at login. Null means the whole
+ * fleet. A requested site must be one of the fleet's sites (400 otherwise), so
+ * arbitrary values cannot create per-site cache entries.
+ */
+@Component
+class SiteResolver {
+
+    static final String ALL_SITES = "all";
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    String resolve(String requested, Authentication authentication) {
+        if (requested != null && !requested.isBlank()) {
+            if (ALL_SITES.equalsIgnoreCase(requested.trim())) {
+                return null;
+            }
+            return fleetIndex.sites().stream()
+                    .filter(site -> site.equalsIgnoreCase(requested.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Unknown site: " + requested.trim()));
+        }
+        // From the session's principal, so the home site costs no query
+        if (authentication != null && authentication.getPrincipal() instanceof AppUserDetails user) {
+            return user.getSiteCode();
+        }
+        return null;
+    }
+}
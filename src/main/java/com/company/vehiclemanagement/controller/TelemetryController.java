@@ -0,0 +1,54 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.model.TelemetryReading;
+import com.company.vehiclemanagement.service.TelemetryIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingestion endpoint for vehicle trackers, authenticated with an API key
+ * (see SecurityConfig). Readings are only validated and queued here; storing
+ * them happens on the telemetry writer thread.
+ */
+@RestController
+@RequestMapping("/api/telemetry")
+public class TelemetryController {
+
+    @Autowired
+    private TelemetryIngestService telemetryIngestService;
+
+    @Value("${app.telemetry.max-request-readings:5000}")
+    private int maxRequestReadings;
+
+    @PostMapping("/readings")
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody List<TelemetryReading> readings) {
+        if (readings.size() > maxRequestReadings) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", "At most " + maxRequestReadings + " readings per request"));
+        }
+        for (int i = 0; i < readings.size(); i++) {
+            String problem = readings.get(i) != null ? readings.get(i).validate() : "reading is null";
+            if (problem == null && !telemetryIngestService.isKnownVehicle(readings.get(i).vehicleId())) {
+                problem = "unknown vehicle " + readings.get(i).vehicleId();
+            }
+            if (problem != null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Reading " + i + ": " + problem));
+            }
+        }
+
+        if (!telemetryIngestService.offer(readings)) {
+            // Buffer full: nothing from this batch was stored, the tracker should resend it
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Telemetry buffer is full, retry later"));
+        }
+        return ResponseEntity.accepted().body(Map.of("accepted", readings.size()));
+    }
+}
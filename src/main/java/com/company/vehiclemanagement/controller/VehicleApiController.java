@@ -0,0 +1,219 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.model.TelemetryAggregate;
+import com.company.vehiclemanagement.model.TelemetryField;
+import com.company.vehiclemanagement.model.TelemetryReading;
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleTimeline;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.model.VehicleView;
+import com.company.vehiclemanagement.service.AvailabilityCoalescer;
+import com.company.vehiclemanagement.service.TelemetryStore;
+import com.company.vehiclemanagement.service.VehicleQueryService;
+import com.company.vehiclemanagement.service.VehicleTimelineService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Versioned JSON API for the vehicle catalog, aimed at mobile clients.
+ *
+ * Vehicles are exposed as flat {@link VehicleView} objects (no booking graph)
+ * and every endpoint accepts a sparse fieldset, e.g. {@code ?fields=id,make,model}.
+ * Lists are streamed: rows come from a database cursor and are written by a
+ * JsonGenerator straight to the response, so the catalog is never held in
+ * memory as a whole. Lists cover the caller's home site unless
+ * {@code ?site=<code>} or {@code ?site=all} asks for another scope.
+ */
+@RestController
+@RequestMapping("/api/v1/vehicles")
+public class VehicleApiController {
+
+    private static final int DEFAULT_TIMELINE_DAYS = 14;
+    private static final int MAX_TIMELINE_DAYS = 92;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Autowired
+    private AvailabilityCoalescer availabilityCoalescer;
+
+    @Autowired
+    private SiteResolver siteResolver;
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private VehicleTimelineService vehicleTimelineService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.telemetry.max-range-readings:10000}")
+    private int maxRangeReadings;
+
+    @GetMapping
+    public void listVehicles(@RequestParam(required = false) VehicleType type,
+            @RequestParam(required = false) VehicleStatus status,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) String site,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        VehicleJsonWriter writer = VehicleJsonWriter.forFields(fields);
+        String siteCode = siteResolver.resolve(site, authentication);
+        try (JsonGenerator generator = startArray(response)) {
+            vehicleQueryService.forEachVehicle(type, status, minCapacity, siteCode, vehicle -> {
+                try {
+                    writer.write(generator, vehicle);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    @GetMapping("/available")
+    public void listAvailableVehicles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDateTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDateTime,
+            @RequestParam(required = false) String site,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        VehicleJsonWriter writer = VehicleJsonWriter.forFields(fields);
+        String siteCode = siteResolver.resolve(site, authentication);
+        try (JsonGenerator generator = startArray(response)) {
+            for (VehicleView vehicle : availabilityCoalescer.findAvailableVehiclesBetween(siteCode, startDateTime,
+                    endDateTime)) {
+                writer.write(generator, vehicle);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public void getVehicle(@PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) throws IOException {
+        VehicleJsonWriter writer = VehicleJsonWriter.forFields(fields);
+        VehicleView vehicle = vehicleQueryService.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle not found: " + id));
+        try (JsonGenerator generator = createGenerator(response)) {
+            writer.write(generator, vehicle);
+        }
+    }
+
+    @GetMapping("/{id}/availability")
+    public Availability checkAvailability(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDateTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDateTime) {
+        if (!availabilityCoalescer.vehicleExists(id, startDateTime, endDateTime)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle not found: " + id);
+        }
+        boolean hasConflicts = availabilityCoalescer.hasConflictingBookings(id, startDateTime, endDateTime);
+        return new Availability(id, !hasConflicts,
+                hasConflicts ? "Vehicle is already booked for this time period" : "Vehicle is available");
+    }
+
+    /**
+     * Merged busy/tentative ranges and free gaps; defaults to the next 14 days.
+     */
+    @GetMapping("/{id}/timeline")
+    public VehicleTimeline timeline(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_TIMELINE_DAYS);
+        if (!end.isAfter(start) || end.isAfter(start.plusDays(MAX_TIMELINE_DAYS))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "to must be after from and at most " + MAX_TIMELINE_DAYS + " days later");
+        }
+        return vehicleTimelineService.timeline(id, start, end)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle not found: " + id));
+    }
+
+    /**
+     * Raw readings, oldest first and at most {@code limit} of them (default and
+     * maximum app.telemetry.max-range-readings). A full page continues with
+     * {@code from} just after the last reading's recordedAt.
+     */
+    @GetMapping("/{id}/telemetry")
+    public List<TelemetryReading> telemetry(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        if (limit != null && (limit < 1 || limit > maxRangeReadings)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + maxRangeReadings);
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return telemetryStore.range(id, from != null ? from : end.minusHours(24), end,
+                limit != null ? limit : maxRangeReadings);
+    }
+
+    @GetMapping("/{id}/telemetry/last")
+    public TelemetryReading lastTelemetry(@PathVariable Long id) {
+        return telemetryStore.last(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No telemetry for vehicle " + id));
+    }
+
+    /**
+     * Downsampled series, e.g. {@code ?field=ENERGY_LEVEL&interval=PT1H} for hourly min/max/avg.
+     */
+    @GetMapping("/{id}/telemetry/aggregate")
+    public List<TelemetryAggregate> aggregateTelemetry(@PathVariable Long id,
+            @RequestParam TelemetryField field,
+            @RequestParam(defaultValue = "PT1H") Duration interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (interval.isNegative() || interval.toSeconds() < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "interval must be at least one second");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return telemetryStore.downsample(id, field, from != null ? from : end.minusHours(24), end, interval);
+    }
+
+    @GetMapping("/{id}/telemetry/distance")
+    public Distance distance(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return new Distance(id, from, to, telemetryStore.tripDistanceKm(id, from, to));
+    }
+
+    public record Distance(Long vehicleId, LocalDateTime from, LocalDateTime to, Double distanceKm) {
+    }
+
+    public record Availability(Long vehicleId, boolean available, String message) {
+    }
+
+    private JsonGenerator startArray(HttpServletResponse response) throws IOException {
+        JsonGenerator generator = createGenerator(response);
+        generator.writeStartArray();
+        return generator;
+    }
+
+    private JsonGenerator createGenerator(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        return objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+}
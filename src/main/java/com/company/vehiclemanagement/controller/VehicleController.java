@@ -1,10 +1,19 @@
 package com.company.vehiclemanagement.controller;
 
+import com.company.vehiclemanagement.model.TelemetryField;
 import com.company.vehiclemanagement.model.Vehicle;
 import com.company.vehiclemanagement.model.VehicleType;
 import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleView;
+import com.company.vehiclemanagement.service.AvailabilityCoalescer;
+import com.company.vehiclemanagement.service.CachedFragments;
+import com.company.vehiclemanagement.service.FleetIndex;
+import com.company.vehiclemanagement.service.TelemetryStore;
 import com.company.vehiclemanagement.service.VehicleService;
+import com.company.vehiclemanagement.service.VehicleTimelineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -12,7 +21,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -22,6 +34,24 @@ public class VehicleController {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @Autowired
+    private SiteResolver siteResolver;
+
+    @Autowired
+    private CachedFragments cachedFragments;
+
+    @Autowired
+    private AvailabilityCoalescer availabilityCoalescer;
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private VehicleTimelineService vehicleTimelineService;
+
     @GetMapping
     public String listVehicles(
             @RequestParam(required = false) VehicleType type,
@@ -29,32 +59,48 @@ public class VehicleController {
             @RequestParam(required = false) Integer minCapacity,
             @RequestParam(required = false) String startDateTime,
             @RequestParam(required = false) String endDateTime,
-            Model model) {
+            @RequestParam(required = false) String site,
+            Model model, Authentication authentication) {
 
+        // Only the user's own depot unless another site (or site=all) is asked for
+        String siteCode = siteResolver.resolve(site, authentication);
+        String variantPrefix = siteCode != null ? "site=" + siteCode + "&" : "";
+        List<VehicleView> vehicles;
+        // Date-range results depend on bookings as well, so their cards are not cached
+        String cardsVariant = null;
         try {
             if (startDateTime != null && endDateTime != null && !startDateTime.isEmpty() && !endDateTime.isEmpty()) {
                 LocalDateTime start = LocalDateTime.parse(startDateTime);
                 LocalDateTime end = LocalDateTime.parse(endDateTime);
-                model.addAttribute("vehicles", vehicleService.findAvailableVehiclesBetween(start, end));
+                vehicles = availabilityCoalescer.findAvailableVehiclesBetween(siteCode, start, end);
                 model.addAttribute("filtered", true);
             } else if (type != null) {
-                model.addAttribute("vehicles", vehicleService.findVehiclesByType(type));
+                vehicles = fleetIndex.vehiclesByType(siteCode, type);
+                cardsVariant = variantPrefix + "type=" + type;
                 model.addAttribute("filtered", true);
             } else if (status != null) {
-                model.addAttribute("vehicles", vehicleService.findVehiclesByStatus(status));
+                vehicles = fleetIndex.vehiclesByStatus(siteCode, status);
+                cardsVariant = variantPrefix + "status=" + status;
                 model.addAttribute("filtered", true);
             } else if (minCapacity != null) {
-                model.addAttribute("vehicles", vehicleService.findVehiclesByCapacity(minCapacity));
+                vehicles = fleetIndex.vehiclesByCapacity(siteCode, minCapacity);
+                cardsVariant = variantPrefix + "minCapacity=" + minCapacity;
                 model.addAttribute("filtered", true);
             } else {
-                model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+                vehicles = fleetIndex.availableVehicles(siteCode);
+                cardsVariant = variantPrefix + "available";
                 model.addAttribute("filtered", false);
             }
         } catch (Exception e) {
-            model.addAttribute("vehicles", vehicleService.findAvailableVehicles());
+            vehicles = fleetIndex.availableVehicles(siteCode);
+            cardsVariant = variantPrefix + "available";
             model.addAttribute("error", "Invalid filter parameters");
         }
 
+        List<VehicleView> selectedVehicles = vehicles;
+        model.addAttribute("vehicles", vehicles);
+        model.addAttribute("vehicleCards", cachedFragments.vehicleCards(cardsVariant, () -> selectedVehicles));
+
         model.addAttribute("vehicleTypes", VehicleType.values());
         model.addAttribute("vehicleStatuses", VehicleStatus.values());
         model.addAttribute("selectedType", type);
@@ -62,6 +108,8 @@ public class VehicleController {
         model.addAttribute("selectedCapacity", minCapacity);
         model.addAttribute("selectedStartDateTime", startDateTime);
         model.addAttribute("selectedEndDateTime", endDateTime);
+        model.addAttribute("sites", fleetIndex.sites());
+        model.addAttribute("selectedSite", siteCode != null ? siteCode : SiteResolver.ALL_SITES);
 
         return "vehicles/list";
     }
@@ -71,6 +119,12 @@ public class VehicleController {
         Optional<Vehicle> vehicle = vehicleService.findById(id);
         if (vehicle.isPresent()) {
             model.addAttribute("vehicle", vehicle.get());
+            LocalDateTime now = LocalDateTime.now();
+            model.addAttribute("lastTelemetry", telemetryStore.last(id).orElse(null));
+            model.addAttribute("energyLevels", telemetryStore.downsample(id, TelemetryField.ENERGY_LEVEL,
+                    now.minusHours(24), now, Duration.ofHours(1)));
+            model.addAttribute("distanceLast7Days", telemetryStore.tripDistanceKm(id, now.minusDays(7), now));
+            model.addAttribute("timeline", vehicleTimelineService.timeline(id, now, now.plusDays(14)).orElse(null));
             return "vehicles/detail";
         } else {
             return "redirect:/vehicles?error=Vehicle not found";
@@ -174,13 +228,16 @@ public class VehicleController {
     @GetMapping("/api/available")
     @ResponseBody
     public Object getAvailableVehicles(@RequestParam String startDateTime,
-            @RequestParam String endDateTime) {
+            @RequestParam String endDateTime,
+            @RequestParam(required = false) String site,
+            Authentication authentication) {
         try {
             LocalDateTime start = LocalDateTime.parse(startDateTime);
             LocalDateTime end = LocalDateTime.parse(endDateTime);
-            return vehicleService.findAvailableVehiclesBetween(start, end);
+            return availabilityCoalescer.findAvailableVehiclesBetween(
+                    siteResolver.resolve(site, authentication), start, end);
         } catch (Exception e) {
-            return "{\"error\": \"Invalid date format\"}";
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date format"));
         }
     }
 
@@ -194,6 +251,6 @@ public class VehicleController {
         } else {
             available = vehicleService.isLicensePlateAvailable(licensePlate);
         }
-        return "{\"available\": " + available + "}";
+        return Map.of("available", available);
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.company.vehiclemanagement.controller;
+
+import com.company.vehiclemanagement.model.VehicleView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link VehicleView}s field by field to a JsonGenerator, limited to a
+ * sparse fieldset such as {@code fields=id,make,model}.
+ */
+final class VehicleJsonWriter {
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(JsonGenerator generator, VehicleView vehicle) throws IOException;
+    }
+
+    private static final Map<String, FieldWriter> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", (g, v) -> g.writeNumberField("id", v.id()));
+        FIELDS.put("make", (g, v) -> g.writeStringField("make", v.make()));
+        FIELDS.put("model", (g, v) -> g.writeStringField("model", v.model()));
+        FIELDS.put("year", (g, v) -> writeNumber(g, "year", v.year()));
+        FIELDS.put("displayName", (g, v) -> g.writeStringField("displayName", v.displayName()));
+        FIELDS.put("licensePlate", (g, v) -> g.writeStringField("licensePlate", v.licensePlate()));
+        FIELDS.put("type", (g, v) -> writeEnum(g, "type", v.type()));
+        FIELDS.put("fuelType", (g, v) -> writeEnum(g, "fuelType", v.fuelType()));
+        FIELDS.put("seatingCapacity", (g, v) -> writeNumber(g, "seatingCapacity", v.seatingCapacity()));
+        FIELDS.put("mileage", (g, v) -> {
+            if (v.mileage() != null) {
+                g.writeNumberField("mileage", v.mileage());
+            } else {
+                g.writeNullField("mileage");
+            }
+        });
+        FIELDS.put("color", (g, v) -> g.writeStringField("color", v.color()));
+        FIELDS.put("status", (g, v) -> writeEnum(g, "status", v.status()));
+        FIELDS.put("available", (g, v) -> g.writeBooleanField("available", v.isAvailable()));
+        FIELDS.put("insuranceExpiry", (g, v) -> writeString(g, "insuranceExpiry", v.insuranceExpiry()));
+        FIELDS.put("nextServiceDate", (g, v) -> writeString(g, "nextServiceDate", v.nextServiceDate()));
+        FIELDS.put("siteCode", (g, v) -> g.writeStringField("siteCode", v.siteCode()));
+    }
+
+    private final List<FieldWriter> selected;
+
+    private VehicleJsonWriter(List<FieldWriter> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * @param fields comma-separated field names; null or blank selects all fields
+     * @throws ResponseStatusException 400 for unknown field names
+     */
+    static VehicleJsonWriter forFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new VehicleJsonWriter(List.copyOf(FIELDS.values()));
+        }
+        List<FieldWriter> selected = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            FieldWriter writer = FIELDS.get(name.trim());
+            if (writer == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + name.trim() + "', expected any of " + FIELDS.keySet());
+            }
+            if (!selected.contains(writer)) {
+                selected.add(writer);
+            }
+        }
+        return new VehicleJsonWriter(selected);
+    }
+
+    void write(JsonGenerator generator, VehicleView vehicle) throws IOException {
+        generator.writeStartObject();
+        for (FieldWriter writer : selected) {
+            writer.write(generator, vehicle);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        } else {
+            generator.writeNullField(name);
+        }
+    }
+
+    private static void writeEnum(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        generator.writeStringField(name, value != null ? value.name() : null);
+    }
+
+    // LocalDateTime.toString() is ISO-8601, the same format the rest of the API uses
+    private static void writeString(JsonGenerator generator, String name, Object value) throws IOException {
+        generator.writeStringField(name, value != null ? value.toString() : null);
+    }
+}
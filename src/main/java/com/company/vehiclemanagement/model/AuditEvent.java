@@ -0,0 +1,17 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of the append-only audit journal: who changed which entity, and
+ * the value before and after the change.
+ */
+public record AuditEvent(
+        Instant occurredAt,
+        String entityType,
+        long entityId,
+        String action,
+        String actor,
+        String oldValue,
+        String newValue) {
+}
@@ -1,6 +1,7 @@
 package com.company.vehiclemanagement.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Future;
@@ -8,7 +9,13 @@ import jakarta.validation.constraints.Future;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_updated", columnList = "status, updated_at"),
+        @Index(name = "idx_bookings_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_bookings_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_bookings_user_start", columnList = "user_id, start_date_time"),
+        @Index(name = "idx_bookings_vehicle_start", columnList = "vehicle_id, start_date_time")
+})
 public class Booking {
 
     @Id
@@ -20,11 +27,21 @@ public class Booking {
     @NotNull(message = "User is required")
     private User user;
 
+    // Null while an "assign for me" request is waiting for the assignment solver
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "vehicle_id", nullable = false)
-    @NotNull(message = "Vehicle is required")
+    @JoinColumn(name = "vehicle_id")
     private Vehicle vehicle;
 
+    @Column(name = "auto_assign")
+    private boolean autoAssign = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "requested_type")
+    private VehicleType requestedType;
+
+    @Column(name = "required_capacity")
+    private Integer requiredCapacity;
+
     @Column(name = "start_date_time", nullable = false)
     @NotNull(message = "Start date and time is required")
     @Future(message = "Start date and time must be in the future")
@@ -54,6 +71,14 @@ public class Booking {
     @Column(name = "approved_at")
     private LocalDateTime approvedAt;
 
+    // Odometer distance reported by the vehicle tracker, set when the booking is completed
+    @Column(name = "trip_distance_km")
+    private Double tripDistanceKm;
+
+    // The user's department when the booking was made and approved; chargeback bills this one
+    @Column(name = "department")
+    private String department;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -75,6 +100,9 @@ public class Booking {
 
     @PrePersist
     protected void onCreate() {
+        if (department == null && user != null) {
+            department = user.getDepartment();
+        }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
@@ -109,6 +137,30 @@ public class Booking {
         this.vehicle = vehicle;
     }
 
+    public boolean isAutoAssign() {
+        return autoAssign;
+    }
+
+    public void setAutoAssign(boolean autoAssign) {
+        this.autoAssign = autoAssign;
+    }
+
+    public VehicleType getRequestedType() {
+        return requestedType;
+    }
+
+    public void setRequestedType(VehicleType requestedType) {
+        this.requestedType = requestedType;
+    }
+
+    public Integer getRequiredCapacity() {
+        return requiredCapacity;
+    }
+
+    public void setRequiredCapacity(Integer requiredCapacity) {
+        this.requiredCapacity = requiredCapacity;
+    }
+
     public LocalDateTime getStartDateTime() {
         return startDateTime;
     }
@@ -173,6 +225,22 @@ public class Booking {
         this.approvedAt = approvedAt;
     }
 
+    public Double getTripDistanceKm() {
+        return tripDistanceKm;
+    }
+
+    public void setTripDistanceKm(Double tripDistanceKm) {
+        this.tripDistanceKm = tripDistanceKm;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -205,11 +273,20 @@ public class Booking {
         return status == BookingStatus.COMPLETED;
     }
 
+    // Replaces @NotNull on vehicle: only an "assign for me" request may leave it to the solver
+    @AssertTrue(message = "Vehicle is required unless a vehicle type is requested for automatic assignment")
+    public boolean isVehicleOrRequestedTypeGiven() {
+        return vehicle != null || (autoAssign && requestedType != null);
+    }
+
     public void approve(User approver, String notes) {
         this.status = BookingStatus.APPROVED;
         this.approvedBy = approver;
         this.approvedAt = LocalDateTime.now();
         this.approvalNotes = notes;
+        if (user != null) {
+            this.department = user.getDepartment();
+        }
     }
 
     public void reject(User approver, String notes) {
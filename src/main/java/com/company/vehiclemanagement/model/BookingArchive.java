@@ -0,0 +1,214 @@
+package com.company.vehiclemanagement.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold-tier copy of a closed booking. Rows keep the id of the original booking
+ * and reference users and vehicles by id only, so archived history never pulls
+ * entity graphs into the persistence context.
+ */
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_bookings_archive_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_bookings_archive_user_start", columnList = "user_id, start_date_time"),
+        @Index(name = "idx_bookings_archive_vehicle_start", columnList = "vehicle_id, start_date_time")
+})
+public class BookingArchive implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+
+    @Column(name = "start_date_time", nullable = false)
+    private LocalDateTime startDateTime;
+
+    @Column(name = "end_date_time", nullable = false)
+    private LocalDateTime endDateTime;
+
+    private String destination;
+
+    @Column(name = "purpose", length = 500)
+    private String purpose;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "approval_notes", length = 500)
+    private String approvalNotes;
+
+    @Column(name = "approved_by")
+    private Long approvedById;
+
+    @Column(name = "approved_at")
+    private LocalDateTime approvedAt;
+
+    @Column(name = "trip_distance_km")
+    private Double tripDistanceKm;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "requested_type")
+    private VehicleType requestedType;
+
+    @Column(name = "department")
+    private String department;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Archive rows are only ever inserted once, so skip the merge lookup on save
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public BookingArchive() {
+    }
+
+    public static BookingArchive from(Booking booking) {
+        BookingArchive archive = new BookingArchive();
+        archive.id = booking.getId();
+        archive.userId = booking.getUser().getId();
+        archive.vehicleId = booking.getVehicle() != null ? booking.getVehicle().getId() : null;
+        archive.startDateTime = booking.getStartDateTime();
+        archive.endDateTime = booking.getEndDateTime();
+        archive.destination = booking.getDestination();
+        archive.purpose = booking.getPurpose();
+        archive.status = booking.getStatus();
+        archive.approvalNotes = booking.getApprovalNotes();
+        archive.approvedById = booking.getApprovedBy() != null ? booking.getApprovedBy().getId() : null;
+        archive.approvedAt = booking.getApprovedAt();
+        archive.tripDistanceKm = booking.getTripDistanceKm();
+        archive.requestedType = booking.getRequestedType();
+        archive.department = booking.getDepartment();
+        archive.createdAt = booking.getCreatedAt();
+        archive.updatedAt = booking.getUpdatedAt();
+        archive.archivedAt = LocalDateTime.now();
+        return archive;
+    }
+
+    /**
+     * Rebuilds a detached, read-only Booking so history views can render
+     * archived rows with the same templates as live ones.
+     */
+    public Booking toBooking(User user, Vehicle vehicle, User approvedBy) {
+        Booking booking = new Booking(user, vehicle, startDateTime, endDateTime, destination);
+        booking.setId(id);
+        booking.setPurpose(purpose);
+        booking.setStatus(status);
+        booking.setApprovalNotes(approvalNotes);
+        booking.setApprovedBy(approvedBy);
+        booking.setApprovedAt(approvedAt);
+        booking.setTripDistanceKm(tripDistanceKm);
+        booking.setRequestedType(requestedType);
+        booking.setDepartment(department);
+        booking.setCreatedAt(createdAt);
+        booking.setUpdatedAt(updatedAt);
+        return booking;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public LocalDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public String getApprovalNotes() {
+        return approvalNotes;
+    }
+
+    public Long getApprovedById() {
+        return approvedById;
+    }
+
+    public LocalDateTime getApprovedAt() {
+        return approvedAt;
+    }
+
+    public Double getTripDistanceKm() {
+        return tripDistanceKm;
+    }
+
+    public VehicleType getRequestedType() {
+        return requestedType;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingArchive{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", vehicleId=" + vehicleId +
+                ", startDateTime=" + startDateTime +
+                ", status=" + status +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
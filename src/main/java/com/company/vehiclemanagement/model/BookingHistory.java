@@ -0,0 +1,45 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * One slice of a vehicle's or user's booking history across the hot and
+ * archive tiers, newest start first. {@code next} is the cursor for the
+ * following slice, or null when this is the last one.
+ */
+public record BookingHistory(List<BookingView> bookings, String next) {
+
+    /** Position in the history: everything strictly before this start and id. */
+    public record Cursor(LocalDateTime startDateTime, Long id) {
+
+        public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+        public static Cursor after(BookingView booking) {
+            return new Cursor(booking.startDateTime(), booking.id());
+        }
+
+        /** Parses {@code 2026-03-01T08:00_1234}; a missing cursor starts from the newest booking. */
+        public static Cursor parse(String value) {
+            if (value == null || value.isBlank()) {
+                return FIRST;
+            }
+            int separator = value.lastIndexOf('_');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid history cursor: " + value);
+            }
+            try {
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.valueOf(value.substring(separator + 1)));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return startDateTime + "_" + id;
+        }
+    }
+}
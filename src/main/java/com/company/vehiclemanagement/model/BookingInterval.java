@@ -0,0 +1,20 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time range a booking occupies a vehicle, used for availability checks and
+ * timelines that are answered in memory.
+ */
+public record BookingInterval(
+        Long bookingId,
+        Long vehicleId,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        BookingStatus status) {
+
+    // Same overlap rule as BookingRepository.findConflictingBookings
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return !startDateTime.isAfter(end) && !endDateTime.isBefore(start);
+    }
+}
@@ -0,0 +1,33 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * What an open booking counts against its user's and department's quotas.
+ * The type is the vehicle's, or the requested type while an "assign for me"
+ * request has no vehicle yet.
+ */
+public record BookingLoad(
+        Long bookingId,
+        Long userId,
+        String department,
+        VehicleType type,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        BookingStatus status) {
+
+    public boolean isOpen(LocalDateTime now) {
+        return (status == BookingStatus.PENDING || status == BookingStatus.APPROVED) && endDateTime.isAfter(now);
+    }
+
+    // Same overlap rule as BookingRepository.findConflictingBookings
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return !startDateTime.isAfter(end) && !endDateTime.isBefore(start);
+    }
+
+    public static BookingLoad of(Booking booking) {
+        VehicleType type = booking.getVehicle() != null ? booking.getVehicle().getType() : booking.getRequestedType();
+        return new BookingLoad(booking.getId(), booking.getUser().getId(), booking.getUser().getDepartment(), type,
+                booking.getStartDateTime(), booking.getEndDateTime(), booking.getStatus());
+    }
+}
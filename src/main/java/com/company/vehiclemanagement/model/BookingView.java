@@ -0,0 +1,37 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read model of a booking for list pages. Built directly by JPQL
+ * constructor expressions, so no entity is loaded, snapshotted or
+ * dirty-checked.
+ */
+public record BookingView(
+        Long id,
+        Long userId,
+        String username,
+        String userFullName,
+        Long vehicleId,
+        String vehicleDisplayName,
+        String licensePlate,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        String destination,
+        BookingStatus status,
+        VehicleType requestedType,
+        LocalDateTime createdAt) {
+
+    public BookingView(Long id, Long userId, String username, String firstName, String lastName,
+            Long vehicleId, Integer vehicleYear, String vehicleMake, String vehicleModel, String licensePlate,
+            LocalDateTime startDateTime, LocalDateTime endDateTime, String destination, BookingStatus status,
+            VehicleType requestedType, LocalDateTime createdAt) {
+        this(id, userId, username, firstName + " " + lastName, vehicleId,
+                vehicleId != null ? VehicleView.displayName(vehicleYear, vehicleMake, vehicleModel) : null,
+                licensePlate, startDateTime, endDateTime, destination, status, requestedType, createdAt);
+    }
+
+    public boolean isPending() {
+        return status == BookingStatus.PENDING;
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.vehiclemanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change record of the cluster invalidation bus. Rows are written in the same
+ * transaction as the change they describe and polled by the other nodes, which
+ * replay them as local change events. Mapped only so the table is part of the
+ * generated schema; reads and writes go through JDBC.
+ */
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created", columnList = "created_at")
+})
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // BOOKING, VEHICLE or USER
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+
+    @Column(name = "status", length = 32)
+    private String status;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,127 @@
+package com.company.vehiclemanagement.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly chargeback of one department for one vehicle type and fuel type.
+ * The rates used are stored with the line so a statement can be explained
+ * after the rate card changes. A month's lines are replaced as a whole when
+ * the month is run again.
+ */
+@Entity
+@Table(name = "chargeback_lines", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chargeback_lines_key",
+                columnNames = { "period", "department", "vehicle_type", "fuel_type" })
+})
+public class ChargebackLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // yyyy-MM
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "department", nullable = false, length = 100)
+    private String department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type", length = 20)
+    private VehicleType vehicleType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fuel_type", length = 20)
+    private FuelType fuelType;
+
+    @Column(name = "booking_count", nullable = false)
+    private int bookingCount;
+
+    @Column(name = "booked_hours", nullable = false)
+    private double bookedHours;
+
+    @Column(name = "distance_km", nullable = false)
+    private double distanceKm;
+
+    @Column(name = "hourly_rate", nullable = false, precision = 10, scale = 2)
+    private BigDecimal hourlyRate;
+
+    @Column(name = "km_rate", nullable = false, precision = 10, scale = 4)
+    private BigDecimal kmRate;
+
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    protected ChargebackLine() {
+    }
+
+    public ChargebackLine(String period, String department, VehicleType vehicleType, FuelType fuelType,
+            int bookingCount, double bookedHours, double distanceKm, BigDecimal hourlyRate, BigDecimal kmRate,
+            BigDecimal amount, LocalDateTime computedAt) {
+        this.period = period;
+        this.department = department;
+        this.vehicleType = vehicleType;
+        this.fuelType = fuelType;
+        this.bookingCount = bookingCount;
+        this.bookedHours = bookedHours;
+        this.distanceKm = distanceKm;
+        this.hourlyRate = hourlyRate;
+        this.kmRate = kmRate;
+        this.amount = amount;
+        this.computedAt = computedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public FuelType getFuelType() {
+        return fuelType;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public double getBookedHours() {
+        return bookedHours;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public BigDecimal getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public BigDecimal getKmRate() {
+        return kmRate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One approved or completed booking as the chargeback run sees it: who it is
+ * billed to, what kind of vehicle it used and for how long and how far.
+ */
+public record ChargebackUsage(
+        Long vehicleId,
+        String department,
+        VehicleType vehicleType,
+        FuelType fuelType,
+        LocalDateTime startDateTime,
+        LocalDateTime endDateTime,
+        Double tripDistanceKm) {
+}
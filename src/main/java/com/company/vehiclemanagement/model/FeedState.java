@@ -0,0 +1,16 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of the rows behind a calendar feed: which bookings are in it and
+ * when they, their users and their vehicles last changed. Equal states on
+ * any node mean equal feed bodies.
+ */
+public record FeedState(
+        Long bookings,
+        Long bookingIdSum,
+        LocalDateTime bookingsUpdatedAt,
+        LocalDateTime usersUpdatedAt,
+        LocalDateTime vehiclesUpdatedAt) {
+}
@@ -0,0 +1,168 @@
+package com.company.vehiclemanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submitted report and its progress. Stored in the database so that any
+ * node can report on and serve a job run by another; the output file is
+ * {@link #getFileName()} in the shared report directory.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_submitted", columnList = "submitted_at")
+})
+public class ReportJob {
+
+    public enum Type {
+        BOOKINGS, UTILIZATION, MAINTENANCE
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+        PDF("application/pdf", "pdf");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 10)
+    private Format format;
+
+    @Column(name = "period_from")
+    private LocalDateTime from;
+
+    @Column(name = "period_to")
+    private LocalDateTime to;
+
+    @Column(name = "submitted_by", length = 50)
+    private String submittedBy;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt = LocalDateTime.now();
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status = Status.QUEUED;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "row_count")
+    private long rows;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    protected ReportJob() {
+    }
+
+    public ReportJob(String id, Type type, Format format, LocalDateTime from, LocalDateTime to, String submittedBy) {
+        this.id = id;
+        this.type = type;
+        this.format = format;
+        this.from = from;
+        this.to = to;
+        this.submittedBy = submittedBy;
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void done(long rows) {
+        this.rows = rows;
+        finishedAt = LocalDateTime.now();
+        status = Status.DONE;
+    }
+
+    public void failed(String error) {
+        this.error = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public String getSubmittedBy() {
+        return submittedBy;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getFileName() {
+        return type.name().toLowerCase() + "-" + id + "." + format.getExtension();
+    }
+}
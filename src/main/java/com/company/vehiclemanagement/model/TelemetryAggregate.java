@@ -0,0 +1,15 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Min/max/average of one telemetry field over a downsampling interval.
+ * Intervals without a value for the field are not returned.
+ */
+public record TelemetryAggregate(
+        LocalDateTime intervalStart,
+        long count,
+        double min,
+        double max,
+        double avg) {
+}
@@ -0,0 +1,20 @@
+package com.company.vehiclemanagement.model;
+
+/**
+ * Measurement columns of the telemetry store, in storage order.
+ */
+public enum TelemetryField {
+    ODOMETER_KM,
+    LATITUDE,
+    LONGITUDE,
+    ENERGY_LEVEL;
+
+    public Double of(TelemetryReading reading) {
+        return switch (this) {
+            case ODOMETER_KM -> reading.odometerKm();
+            case LATITUDE -> reading.latitude();
+            case LONGITUDE -> reading.longitude();
+            case ENERGY_LEVEL -> reading.energyLevel();
+        };
+    }
+}
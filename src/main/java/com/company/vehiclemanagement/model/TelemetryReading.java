@@ -0,0 +1,44 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reading pushed by a vehicle tracker. Every measurement is optional;
+ * a tracker sends whatever its sensors produced for that instant.
+ *
+ * @param odometerKm  total distance driven as reported by the vehicle
+ * @param energyLevel fuel or battery charge level in percent
+ */
+public record TelemetryReading(
+        Long vehicleId,
+        LocalDateTime recordedAt,
+        Double odometerKm,
+        Double latitude,
+        Double longitude,
+        Double energyLevel) {
+
+    /**
+     * Returns why the reading cannot be stored, or null when it is valid.
+     */
+    public String validate() {
+        if (vehicleId == null) {
+            return "vehicleId is required";
+        }
+        if (recordedAt == null) {
+            return "recordedAt is required";
+        }
+        if ((latitude == null) != (longitude == null)) {
+            return "latitude and longitude must be sent together";
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            return "position out of range";
+        }
+        if (odometerKm != null && odometerKm < 0) {
+            return "odometerKm must not be negative";
+        }
+        if (energyLevel != null && (energyLevel < 0 || energyLevel > 100)) {
+            return "energyLevel must be between 0 and 100";
+        }
+        return null;
+    }
+}
@@ -6,8 +6,6 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @Table(name = "users")
@@ -46,21 +44,26 @@ public class User {
     @Column(name = "department")
     private String department;
 
+    // Home depot; users without a site see the whole fleet
+    @Column(name = "site_code", length = 32)
+    private String siteCode;
+
     @Enumerated(EnumType.STRING)
     private Role role = Role.EMPLOYEE;
 
     @Column(name = "is_active")
     private boolean isActive = true;
 
+    // Part of the user's calendar feed tokens; incrementing it revokes every link handed out so far
+    @Column(name = "calendar_token_version")
+    private Integer calendarTokenVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<Booking> bookings = new HashSet<>();
-
     // Constructors
     public User() {
     }
@@ -157,6 +160,14 @@ public class User {
         this.department = department;
     }
 
+    public String getSiteCode() {
+        return siteCode;
+    }
+
+    public void setSiteCode(String siteCode) {
+        this.siteCode = siteCode;
+    }
+
     public Role getRole() {
         return role;
     }
@@ -189,12 +200,12 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
-    public Set<Booking> getBookings() {
-        return bookings;
+    public int getCalendarTokenVersion() {
+        return calendarTokenVersion != null ? calendarTokenVersion : 0;
     }
 
-    public void setBookings(Set<Booking> bookings) {
-        this.bookings = bookings;
+    public void setCalendarTokenVersion(int calendarTokenVersion) {
+        this.calendarTokenVersion = calendarTokenVersion;
     }
 
     public String getFullName() {
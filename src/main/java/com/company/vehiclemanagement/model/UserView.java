@@ -0,0 +1,23 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read model of a user for the admin user list.
+ */
+public record UserView(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        String employeeId,
+        String department,
+        Role role,
+        boolean active,
+        LocalDateTime createdAt) {
+
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
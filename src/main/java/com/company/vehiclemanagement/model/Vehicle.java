@@ -6,11 +6,11 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_site_status", columnList = "site_code, status")
+})
 public class Vehicle {
 
     @Id
@@ -62,15 +62,16 @@ public class Vehicle {
     @Column(name = "description", length = 500)
     private String description;
 
+    // Depot the vehicle is based at; null for vehicles not assigned to a site
+    @Column(name = "site_code", length = 32)
+    private String siteCode;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @OneToMany(mappedBy = "vehicle", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<Booking> bookings = new HashSet<>();
-
     // Constructors
     public Vehicle() {
     }
@@ -215,6 +216,14 @@ public class Vehicle {
         this.description = description;
     }
 
+    public String getSiteCode() {
+        return siteCode;
+    }
+
+    public void setSiteCode(String siteCode) {
+        this.siteCode = siteCode;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -231,14 +240,6 @@ public class Vehicle {
         this.updatedAt = updatedAt;
     }
 
-    public Set<Booking> getBookings() {
-        return bookings;
-    }
-
-    public void setBookings(Set<Booking> bookings) {
-        this.bookings = bookings;
-    }
-
     public String getDisplayName() {
         return year != null ? year + " " + make + " " + model : make + " " + model;
     }
@@ -0,0 +1,28 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Free/busy view of one vehicle over a window, clipped to the window.
+ *
+ * @param bookable  whether the vehicle takes new bookings at all; without it there are no free gaps
+ * @param busy      merged ranges covered by approved bookings; new bookings overlapping them are refused
+ * @param tentative merged ranges covered by pending bookings, which may still be approved
+ * @param free      gaps of the window covered by neither
+ */
+public record VehicleTimeline(
+        Long vehicleId,
+        boolean bookable,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<Interval> busy,
+        List<Interval> tentative,
+        List<Interval> free) {
+
+    /**
+     * @param bookings number of bookings merged into the range (0 for free gaps)
+     */
+    public record Interval(LocalDateTime start, LocalDateTime end, int bookings) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.vehiclemanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read model of a vehicle for catalog and fleet list pages.
+ */
+public record VehicleView(
+        Long id,
+        String make,
+        String model,
+        Integer year,
+        String licensePlate,
+        VehicleType type,
+        FuelType fuelType,
+        Integer seatingCapacity,
+        Double mileage,
+        String color,
+        VehicleStatus status,
+        LocalDateTime insuranceExpiry,
+        LocalDateTime nextServiceDate,
+        String siteCode) {
+
+    public String displayName() {
+        return displayName(year, make, model);
+    }
+
+    public boolean isAvailable() {
+        return status == VehicleStatus.AVAILABLE;
+    }
+
+    // Same format as Vehicle.getDisplayName()
+    static String displayName(Integer year, String make, String model) {
+        return year != null ? year + " " + make + " " + model : make + " " + model;
+    }
+}
@@ -0,0 +1,87 @@
+package com.company.vehiclemanagement.repository;
+
+import com.company.vehiclemanagement.model.BookingArchive;
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.ChargebackUsage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface BookingArchiveRepository extends JpaRepository<BookingArchive, Long> {
+
+    List<BookingArchive> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    long countByStatus(BookingStatus status);
+
+    // Same as BookingRepository.streamUsageBetween, for months that are partly archived
+    @Query("SELECT new com.company.vehiclemanagement.model.ChargebackUsage(v.id, " +
+            "COALESCE(a.department, u.department), v.type, " +
+            "v.fuelType, a.startDateTime, a.endDateTime, a.tripDistanceKm) " +
+            "FROM BookingArchive a JOIN User u ON u.id = a.userId JOIN Vehicle v ON v.id = a.vehicleId " +
+            "WHERE a.status IN :statuses AND a.startDateTime < :to AND a.endDateTime > :from")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<ChargebackUsage> streamUsageBetween(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    String ARCHIVE_VIEW = "SELECT new com.company.vehiclemanagement.model.BookingView(" +
+            "a.id, u.id, u.username, u.firstName, u.lastName, " +
+            "v.id, v.year, v.make, v.model, v.licensePlate, " +
+            "a.startDateTime, a.endDateTime, a.destination, a.status, a.requestedType, a.createdAt) " +
+            "FROM BookingArchive a JOIN User u ON u.id = a.userId LEFT JOIN Vehicle v ON v.id = a.vehicleId ";
+
+    // History slices, same as the BookingRepository methods of the same name
+    String HISTORY_BEFORE = "(a.startDateTime < :beforeStart OR " +
+            "(a.startDateTime = :beforeStart AND a.id < :beforeId)) ORDER BY a.startDateTime DESC, a.id DESC";
+
+    @Query(ARCHIVE_VIEW + "WHERE a.vehicleId = :vehicleId AND " + HISTORY_BEFORE)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findVehicleHistory(@Param("vehicleId") Long vehicleId,
+            @Param("beforeStart") LocalDateTime beforeStart, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(ARCHIVE_VIEW + "WHERE a.userId = :userId AND " + HISTORY_BEFORE)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findUserHistory(@Param("userId") Long userId,
+            @Param("beforeStart") LocalDateTime beforeStart, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT a.status, COUNT(a) FROM BookingArchive a WHERE a.vehicleId = :vehicleId GROUP BY a.status")
+    List<Object[]> countByVehicleIdGroupByStatus(@Param("vehicleId") Long vehicleId);
+
+    @Query("SELECT a.status, COUNT(a) FROM BookingArchive a WHERE a.userId = :userId GROUP BY a.status")
+    List<Object[]> countByUserIdGroupByStatus(@Param("userId") Long userId);
+
+    // Report jobs, same as the BookingRepository methods of the same name
+    @Query(ARCHIVE_VIEW + "WHERE a.startDateTime < :to AND a.endDateTime > :from ORDER BY a.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<BookingView> streamViewsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.company.vehiclemanagement.model.BookingInterval(" +
+            "a.id, a.vehicleId, a.startDateTime, a.endDateTime, a.status) FROM BookingArchive a " +
+            "WHERE a.vehicleId IS NOT NULL AND a.status IN :statuses AND " +
+            "a.startDateTime < :to AND a.endDateTime > :from")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<BookingInterval> streamIntervalsBetween(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
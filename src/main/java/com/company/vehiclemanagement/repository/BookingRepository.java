@@ -1,36 +1,80 @@
 package com.company.vehiclemanagement.repository;
 
 import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingLoad;
 import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.ChargebackUsage;
+import com.company.vehiclemanagement.model.FeedState;
 import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByUser(User user);
-
-    List<Booking> findByVehicle(Vehicle vehicle);
-
     List<Booking> findByStatus(BookingStatus status);
 
     List<Booking> findByUserOrderByCreatedAtDesc(User user);
 
+    List<Booking> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+
+    long countByUser(User user);
+
+    long countByStatus(BookingStatus status);
+
+    List<Booking> findByStatusInAndUpdatedAtBefore(Collection<BookingStatus> statuses, LocalDateTime cutoff,
+            Pageable pageable);
+
     List<Booking> findByStatusOrderByCreatedAtAsc(BookingStatus status);
 
+    // Read-only: the solver's changes are written with assignIfUnchanged, never by dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Booking> findByStatusAndAutoAssignTrueAndStartDateTimeAfterOrderByCreatedAtAsc(BookingStatus status,
+            LocalDateTime startAfter);
+
+    /**
+     * Sets the vehicle of a pending booking unless it changed since it was
+     * read at updatedAt; returns 0 when it was approved, rejected, cancelled
+     * or edited in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.vehicle = :vehicle, b.updatedAt = :now WHERE b.id = :id " +
+            "AND b.status = 'PENDING' AND b.updatedAt = :updatedAt")
+    int assignIfUnchanged(@Param("id") Long id, @Param("vehicle") Vehicle vehicle,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("now") LocalDateTime now);
+
     @Query("SELECT b FROM Booking b WHERE b.vehicle = :vehicle AND b.status = 'APPROVED' AND " +
             "((b.startDateTime <= :endDateTime) AND (b.endDateTime >= :startDateTime))")
     List<Booking> findConflictingBookings(@Param("vehicle") Vehicle vehicle,
             @Param("startDateTime") LocalDateTime startDateTime,
             @Param("endDateTime") LocalDateTime endDateTime);
 
+    @Query("SELECT b FROM Booking b WHERE b.status = 'APPROVED' AND b.vehicle IS NOT NULL AND " +
+            "((b.startDateTime <= :endDateTime) AND (b.endDateTime >= :startDateTime))")
+    List<Booking> findApprovedBookingsBetween(@Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT b FROM Booking b WHERE b.status = 'APPROVED' AND b.vehicle.siteCode = :siteCode AND " +
+            "b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime")
+    List<Booking> findApprovedBookingsAtSiteBetween(@Param("siteCode") String siteCode,
+            @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
     @Query("SELECT b FROM Booking b WHERE b.startDateTime BETWEEN :startDate AND :endDate")
     List<Booking> findBookingsBetweenDates(@Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
@@ -43,4 +87,185 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT b FROM Booking b WHERE b.endDateTime < :now AND b.status = 'APPROVED'")
     List<Booking> findCompletedBookings(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
+
+    // Read-side projections: no entities are loaded, so nothing is snapshotted or dirty-checked
+
+    String BOOKING_VIEW = "SELECT new com.company.vehiclemanagement.model.BookingView(" +
+            "b.id, u.id, u.username, u.firstName, u.lastName, " +
+            "v.id, v.year, v.make, v.model, v.licensePlate, " +
+            "b.startDateTime, b.endDateTime, b.destination, b.status, b.requestedType, b.createdAt) " +
+            "FROM Booking b JOIN b.user u LEFT JOIN b.vehicle v ";
+
+    @Query(BOOKING_VIEW + "ORDER BY b.createdAt DESC")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findAllViews();
+
+    @Query(BOOKING_VIEW + "WHERE b.status = :status ORDER BY b.createdAt DESC")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findViewsByStatus(@Param("status") BookingStatus status);
+
+    @Query(BOOKING_VIEW + "WHERE b.status = :status ORDER BY b.createdAt ASC")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findViewsByStatusOldestFirst(@Param("status") BookingStatus status);
+
+    // Approval queue API: only the first page is read, walking idx_bookings_status_created
+    @Query(BOOKING_VIEW + "WHERE b.status = :status ORDER BY b.createdAt ASC")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findViewsByStatusOldestFirst(@Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "WHERE u.id = :userId ORDER BY b.createdAt DESC")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findViewsByUserId(@Param("userId") Long userId);
+
+    // History slices, newest first; the cursor condition walks the (vehicle|user, start) indexes
+    String HISTORY_BEFORE = "(b.startDateTime < :beforeStart OR " +
+            "(b.startDateTime = :beforeStart AND b.id < :beforeId)) ORDER BY b.startDateTime DESC, b.id DESC";
+
+    @Query(BOOKING_VIEW + "WHERE b.vehicle.id = :vehicleId AND " + HISTORY_BEFORE)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findVehicleHistory(@Param("vehicleId") Long vehicleId,
+            @Param("beforeStart") LocalDateTime beforeStart, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "WHERE b.user.id = :userId AND " + HISTORY_BEFORE)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingView> findUserHistory(@Param("userId") Long userId,
+            @Param("beforeStart") LocalDateTime beforeStart, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.vehicle.id = :vehicleId GROUP BY b.status")
+    List<Object[]> countByVehicleIdGroupByStatus(@Param("vehicleId") Long vehicleId);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.user.id = :userId GROUP BY b.status")
+    List<Object[]> countByUserIdGroupByStatus(@Param("userId") Long userId);
+
+    String BOOKING_INTERVAL = "SELECT new com.company.vehiclemanagement.model.BookingInterval(" +
+            "b.id, b.vehicle.id, b.startDateTime, b.endDateTime, b.status) FROM Booking b ";
+
+    @Query(BOOKING_INTERVAL + "WHERE b.status = 'APPROVED' AND b.vehicle IS NOT NULL AND " +
+            "b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingInterval> findApprovedIntervalsBetween(@Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query(BOOKING_INTERVAL + "WHERE b.status = 'APPROVED' AND b.vehicle.siteCode = :siteCode AND " +
+            "b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingInterval> findApprovedIntervalsAtSiteBetween(@Param("siteCode") String siteCode,
+            @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query(BOOKING_INTERVAL + "WHERE b.status = 'APPROVED' AND b.vehicle.id = :vehicleId AND " +
+            "b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingInterval> findApprovedIntervalsOfVehicleBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query(BOOKING_INTERVAL + "WHERE b.vehicle.id = :vehicleId AND b.status IN :statuses AND " +
+            "b.endDateTime >= :since ORDER BY b.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<BookingInterval> findIntervalsByVehicleSince(@Param("vehicleId") Long vehicleId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("since") LocalDateTime since);
+
+    String BOOKING_LOAD = "SELECT new com.company.vehiclemanagement.model.BookingLoad(" +
+            "b.id, u.id, u.department, COALESCE(v.type, b.requestedType), b.startDateTime, b.endDateTime, " +
+            "b.status) FROM Booking b JOIN b.user u LEFT JOIN b.vehicle v ";
+
+    // Booking quotas: everything open is loaded at startup, single bookings when another node changes them
+    @Query(BOOKING_LOAD + "WHERE b.status IN :statuses AND b.endDateTime > :since")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256") })
+    List<BookingLoad> findLoadsSince(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("since") LocalDateTime since);
+
+    @Query(BOOKING_LOAD + "WHERE b.id = :id")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    Optional<BookingLoad> findLoadById(@Param("id") Long id);
+
+    // Chargeback: a month's billable bookings, fetched in chunks while they are aggregated. Billed to the
+    // department recorded on the booking; rows from before that column fall back to the user's current one
+    @Query("SELECT new com.company.vehiclemanagement.model.ChargebackUsage(v.id, " +
+            "COALESCE(b.department, u.department), v.type, " +
+            "v.fuelType, b.startDateTime, b.endDateTime, b.tripDistanceKm) " +
+            "FROM Booking b JOIN b.user u JOIN b.vehicle v " +
+            "WHERE b.status IN :statuses AND b.startDateTime < :to AND b.endDateTime > :from")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<ChargebackUsage> streamUsageBetween(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Report jobs: bookings overlapping a period, fetched in chunks while the report is written
+    @Query(BOOKING_VIEW + "WHERE b.startDateTime < :to AND b.endDateTime > :from ORDER BY b.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<BookingView> streamViewsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(BOOKING_INTERVAL + "WHERE b.vehicle IS NOT NULL AND b.status IN :statuses AND " +
+            "b.startDateTime < :to AND b.endDateTime > :from")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000") })
+    Stream<BookingInterval> streamIntervalsBetween(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    String FEED_STATE = "SELECT new com.company.vehiclemanagement.model.FeedState(" +
+            "COUNT(b), SUM(b.id), MAX(b.updatedAt), MAX(u.updatedAt), MAX(v.updatedAt)) " +
+            "FROM Booking b JOIN b.user u LEFT JOIN b.vehicle v ";
+
+    // Calendar feed ETags, from the same rows as the feeds below
+    @Query(FEED_STATE + "WHERE u.id = :userId AND b.status IN :statuses AND b.endDateTime >= :since")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    FeedState findFeedStateByUserId(@Param("userId") Long userId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+
+    @Query(FEED_STATE + "WHERE v.id = :vehicleId AND b.status IN :statuses AND b.endDateTime >= :since")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    FeedState findFeedStateByVehicleId(@Param("vehicleId") Long vehicleId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+
+    @Query(FEED_STATE + "WHERE u.department = :department AND b.status IN :statuses AND b.endDateTime >= :since")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    FeedState findFeedStateByDepartment(@Param("department") String department,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+
+    // Calendar feeds; rows are fetched in chunks while the feed is written
+    @Query(BOOKING_VIEW + "WHERE u.id = :userId AND b.status IN :statuses AND b.endDateTime >= :since " +
+            "ORDER BY b.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256") })
+    Stream<BookingView> streamViewsByUserId(@Param("userId") Long userId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+
+    @Query(BOOKING_VIEW + "WHERE v.id = :vehicleId AND b.status IN :statuses AND b.endDateTime >= :since " +
+            "ORDER BY b.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256") })
+    Stream<BookingView> streamViewsByVehicleId(@Param("vehicleId") Long vehicleId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+
+    @Query(BOOKING_VIEW + "WHERE u.department = :department AND b.status IN :statuses AND " +
+            "b.endDateTime >= :since ORDER BY b.startDateTime")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256") })
+    Stream<BookingView> streamViewsByDepartment(@Param("department") String department,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,20 @@
+package com.company.vehiclemanagement.repository;
+
+import com.company.vehiclemanagement.model.ChargebackLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChargebackLineRepository extends JpaRepository<ChargebackLine, Long> {
+
+    List<ChargebackLine> findByPeriodOrderByDepartmentAscVehicleTypeAscFuelTypeAsc(String period);
+
+    @Modifying
+    @Query("DELETE FROM ChargebackLine c WHERE c.period = :period")
+    int deleteByPeriod(@Param("period") String period);
+}
@@ -0,0 +1,16 @@
+package com.company.vehiclemanagement.repository;
+
+import com.company.vehiclemanagement.model.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    List<ReportJob> findAllByOrderBySubmittedAtDesc();
+
+    List<ReportJob> findBySubmittedAtBefore(LocalDateTime cutoff);
+}
@@ -2,7 +2,13 @@ package com.company.vehiclemanagement.repository;
 
 import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.UserView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,9 +25,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRole(Role role);
 
-    List<User> findByActiveTrue();
+    // The property is isActive; a derived findByActiveTrue does not resolve against it
+    List<User> findByIsActiveTrue();
 
-    long countByActiveTrue();
+    long countByIsActiveTrue();
 
     List<User> findByDepartment(String department);
 
@@ -30,4 +37,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByEmployeeId(String employeeId);
-}
\ No newline at end of file
+
+    // Read-side projections: no entities are loaded, so nothing is snapshotted or dirty-checked
+
+    String USER_VIEW = "SELECT new com.company.vehiclemanagement.model.UserView(" +
+            "u.id, u.username, u.email, u.firstName, u.lastName, u.employeeId, u.department, u.role, " +
+            "u.isActive, u.createdAt) FROM User u ";
+
+    @Query(USER_VIEW + "WHERE u.isActive = true ORDER BY u.lastName, u.firstName")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<UserView> findActiveViews();
+
+    @Query(USER_VIEW + "WHERE u.role = :role ORDER BY u.lastName, u.firstName")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<UserView> findViewsByRole(@Param("role") Role role);
+}
@@ -3,19 +3,32 @@ package com.company.vehiclemanagement.repository;
 import com.company.vehiclemanagement.model.Vehicle;
 import com.company.vehiclemanagement.model.VehicleStatus;
 import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.model.VehicleView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
     List<Vehicle> findByStatus(VehicleStatus status);
 
+    long countByStatus(VehicleStatus status);
+
+    @Query("SELECT v.type, COUNT(v) FROM Vehicle v WHERE v.status <> 'OUT_OF_SERVICE' GROUP BY v.type")
+    List<Object[]> countInServiceByType();
+
     List<Vehicle> findByType(VehicleType type);
 
     List<Vehicle> findBySeatingCapacityGreaterThanEqual(Integer capacity);
@@ -26,6 +39,11 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
     List<Vehicle> findByStatusOrderByMakeAscModelAsc(VehicleStatus status);
 
+    List<Vehicle> findByStatusAndSiteCode(VehicleStatus status, String siteCode);
+
+    @Query("SELECT DISTINCT v.siteCode FROM Vehicle v WHERE v.siteCode IS NOT NULL ORDER BY v.siteCode")
+    List<String> findSiteCodes();
+
     @Query("SELECT v FROM Vehicle v WHERE v.status = 'AVAILABLE' AND v.id NOT IN " +
             "(SELECT b.vehicle.id FROM Booking b WHERE b.status = 'APPROVED' AND " +
             "((b.startDateTime <= :endDateTime) AND (b.endDateTime >= :startDateTime)))")
@@ -39,4 +57,73 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findVehiclesNeedingService(@Param("date") LocalDateTime date);
 
     boolean existsByLicensePlate(String licensePlate);
-}
\ No newline at end of file
+
+    // Serializes approvals of the same vehicle until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
+
+    // Read-side projections: no entities are loaded, so nothing is snapshotted or dirty-checked
+
+    String VEHICLE_VIEW = "SELECT new com.company.vehiclemanagement.model.VehicleView(" +
+            "v.id, v.make, v.model, v.year, v.licensePlate, v.type, v.fuelType, v.seatingCapacity, " +
+            "v.mileage, v.color, v.status, v.insuranceExpiry, v.nextServiceDate, v.siteCode) FROM Vehicle v ";
+
+    @Query(VEHICLE_VIEW + "ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findAllViews();
+
+    @Query(VEHICLE_VIEW + "WHERE v.siteCode = :siteCode ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsBySiteCode(@Param("siteCode") String siteCode);
+
+    @Query(VEHICLE_VIEW + "WHERE v.status = :status ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsByStatus(@Param("status") VehicleStatus status);
+
+    @Query(VEHICLE_VIEW + "WHERE v.type = :type ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsByType(@Param("type") VehicleType type);
+
+    @Query(VEHICLE_VIEW + "WHERE v.seatingCapacity >= :capacity ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsByMinCapacity(@Param("capacity") Integer capacity);
+
+    @Query(VEHICLE_VIEW + "WHERE v.status = 'AVAILABLE' AND NOT EXISTS " +
+            "(SELECT 1 FROM Booking b WHERE b.vehicle = v AND b.status = 'APPROVED' AND " +
+            "b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime) ORDER BY v.make, v.model")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findAvailableViewsBetween(@Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query(VEHICLE_VIEW + "WHERE v.nextServiceDate < :date ORDER BY v.nextServiceDate")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsNeedingService(@Param("date") LocalDateTime date);
+
+    @Query(VEHICLE_VIEW + "WHERE v.insuranceExpiry < :date ORDER BY v.insuranceExpiry")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    List<VehicleView> findViewsWithInsuranceExpiringBefore(@Param("date") LocalDateTime date);
+
+    @Query(VEHICLE_VIEW + "WHERE v.id = :id")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    Optional<VehicleView> findViewById(@Param("id") Long id);
+
+    // Catalog export for the JSON API; rows are fetched in chunks while the response is written
+    @Query(VEHICLE_VIEW + "WHERE (:type IS NULL OR v.type = :type) AND (:status IS NULL OR v.status = :status) " +
+            "AND (:minCapacity IS NULL OR v.seatingCapacity >= :minCapacity) " +
+            "AND (:siteCode IS NULL OR v.siteCode = :siteCode) ORDER BY v.make, v.model, v.id")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256") })
+    Stream<VehicleView> streamViews(@Param("type") VehicleType type, @Param("status") VehicleStatus status,
+            @Param("minCapacity") Integer minCapacity, @Param("siteCode") String siteCode);
+}
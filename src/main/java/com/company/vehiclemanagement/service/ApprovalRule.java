@@ -0,0 +1,358 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * An auto-approval rule compiled from its condition text into a predicate
+ * tree. Conditions compare booking facts with literals and combine them with
+ * and, or, not and parentheses:
+ *
+ * <pre>
+ * role == EMPLOYEE and vehicleType in (SEDAN, HATCHBACK) and durationHours &lt;= 4
+ * </pre>
+ *
+ * Enum literals, fields and operators are checked when the rule is compiled,
+ * so a typo fails at startup instead of never matching.
+ */
+final class ApprovalRule {
+
+    /** What a rule can look at, computed once per booking. Strings are lower case. */
+    record Facts(Role role, String department, VehicleType vehicleType, String site,
+            double durationHours, double leadTimeHours) {
+    }
+
+    private final String name;
+    private final Node condition;
+
+    private ApprovalRule(String name, Node condition) {
+        this.name = name;
+        this.condition = condition;
+    }
+
+    static ApprovalRule compile(String name, String condition) {
+        try {
+            return new ApprovalRule(name, new Parser(condition).parse());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid auto-approval rule '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Evaluates the rule, appending every comparison that was evaluated and
+     * its result to {@code trace}. And/or short-circuit as usual.
+     */
+    boolean matches(Facts facts, StringBuilder trace) {
+        return condition.test(facts, trace);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + condition;
+    }
+
+    private enum Field {
+        ROLE("role", Facts::role, value -> Role.valueOf(value.toUpperCase(Locale.ROOT)), false),
+        DEPARTMENT("department", Facts::department, value -> value.toLowerCase(Locale.ROOT), false),
+        VEHICLE_TYPE("vehicleType", Facts::vehicleType,
+                value -> VehicleType.valueOf(value.toUpperCase(Locale.ROOT)), false),
+        SITE("site", Facts::site, value -> value.toLowerCase(Locale.ROOT), false),
+        DURATION_HOURS("durationHours", Facts::durationHours, Double::valueOf, true),
+        LEAD_TIME_HOURS("leadTimeHours", Facts::leadTimeHours, Double::valueOf, true);
+
+        private final String key;
+        private final Function<Facts, Object> getter;
+        private final Function<String, Object> literal;
+        private final boolean numeric;
+
+        Field(String key, Function<Facts, Object> getter, Function<String, Object> literal, boolean numeric) {
+            this.key = key;
+            this.getter = getter;
+            this.literal = literal;
+            this.numeric = numeric;
+        }
+
+        static Field of(String key) {
+            for (Field field : values()) {
+                if (field.key.equalsIgnoreCase(key)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("unknown field " + key);
+        }
+
+        Object parse(String value) {
+            try {
+                return literal.apply(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("invalid value " + value + " for " + key);
+            }
+        }
+    }
+
+    private enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        boolean isOrdering() {
+            return this != EQ && this != NE;
+        }
+    }
+
+    private interface Node {
+        boolean test(Facts facts, StringBuilder trace);
+    }
+
+    private record And(List<Node> children) implements Node {
+        @Override
+        public boolean test(Facts facts, StringBuilder trace) {
+            for (Node child : children) {
+                if (!child.test(facts, trace)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return children.stream().map(Node::toString).collect(Collectors.joining(" and ", "(", ")"));
+        }
+    }
+
+    private record Or(List<Node> children) implements Node {
+        @Override
+        public boolean test(Facts facts, StringBuilder trace) {
+            for (Node child : children) {
+                if (child.test(facts, trace)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return children.stream().map(Node::toString).collect(Collectors.joining(" or ", "(", ")"));
+        }
+    }
+
+    private record Not(Node child) implements Node {
+        @Override
+        public boolean test(Facts facts, StringBuilder trace) {
+            return !child.test(facts, trace);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + child;
+        }
+    }
+
+    private record Compare(Field field, Operator operator, Object value) implements Node {
+        @Override
+        public boolean test(Facts facts, StringBuilder trace) {
+            Object actual = field.getter.apply(facts);
+            boolean result;
+            if (actual == null) {
+                result = operator == Operator.NE;
+            } else if (field.numeric) {
+                int cmp = Double.compare((Double) actual, (Double) value);
+                result = switch (operator) {
+                    case EQ -> cmp == 0;
+                    case NE -> cmp != 0;
+                    case LT -> cmp < 0;
+                    case LE -> cmp <= 0;
+                    case GT -> cmp > 0;
+                    case GE -> cmp >= 0;
+                };
+            } else {
+                result = actual.equals(value) == (operator == Operator.EQ);
+            }
+            return traced(trace, this, actual, result);
+        }
+
+        @Override
+        public String toString() {
+            return field.key + " " + operator.symbol + " " + show(value);
+        }
+    }
+
+    private record In(Field field, Set<Object> values) implements Node {
+        @Override
+        public boolean test(Facts facts, StringBuilder trace) {
+            Object actual = field.getter.apply(facts);
+            return traced(trace, this, actual, actual != null && values.contains(actual));
+        }
+
+        @Override
+        public String toString() {
+            return field.key + " in " + values.stream().map(ApprovalRule::show)
+                    .collect(Collectors.joining(", ", "(", ")"));
+        }
+    }
+
+    private static boolean traced(StringBuilder trace, Node node, Object actual, boolean result) {
+        if (trace.length() > 0 && trace.charAt(trace.length() - 1) != ' ') {
+            trace.append(", ");
+        }
+        trace.append(node).append(" [").append(show(actual)).append("] ").append(result);
+        return result;
+    }
+
+    // Role and VehicleType print their display names; rules are written with the constant names
+    private static String show(Object value) {
+        return value instanceof Enum<?> constant ? constant.name() : String.valueOf(value);
+    }
+
+    /** Recursive descent: or binds looser than and, and looser than not. */
+    private static final class Parser {
+
+        private static final Pattern TOKEN = Pattern.compile(
+                "\\s*(==|!=|<=|>=|<|>|\\(|\\)|,|'[^']*'|[A-Za-z_][A-Za-z0-9_.-]*|-?\\d+(?:\\.\\d+)?)");
+
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Parser(String text) {
+            if (text == null || text.isBlank()) {
+                throw new IllegalArgumentException("empty condition");
+            }
+            Matcher matcher = TOKEN.matcher(text);
+            int end = 0;
+            while (end < text.length() && matcher.find(end) && matcher.start() == end) {
+                tokens.add(matcher.group(1));
+                end = matcher.end();
+            }
+            if (!text.substring(end).isBlank()) {
+                throw new IllegalArgumentException("unexpected input at " + text.substring(end).trim());
+            }
+        }
+
+        Node parse() {
+            Node node = or();
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("unexpected " + tokens.get(position));
+            }
+            return node;
+        }
+
+        private Node or() {
+            List<Node> children = new ArrayList<>();
+            children.add(and());
+            while (acceptKeyword("or")) {
+                children.add(and());
+            }
+            return children.size() == 1 ? children.get(0) : new Or(List.copyOf(children));
+        }
+
+        private Node and() {
+            List<Node> children = new ArrayList<>();
+            children.add(unary());
+            while (acceptKeyword("and")) {
+                children.add(unary());
+            }
+            return children.size() == 1 ? children.get(0) : new And(List.copyOf(children));
+        }
+
+        private Node unary() {
+            if (acceptKeyword("not")) {
+                return new Not(unary());
+            }
+            if (accept("(")) {
+                Node node = or();
+                expect(")");
+                return node;
+            }
+            return comparison();
+        }
+
+        private Node comparison() {
+            Field field = Field.of(next());
+            if (acceptKeyword("in")) {
+                expect("(");
+                Set<Object> values = new LinkedHashSet<>();
+                do {
+                    values.add(field.parse(literal()));
+                } while (accept(","));
+                expect(")");
+                return new In(field, Collections.unmodifiableSet(values));
+            }
+            String symbol = next();
+            Operator operator = Operator.of(symbol);
+            if (operator == null) {
+                throw new IllegalArgumentException("expected an operator after " + field.key + " but got " + symbol);
+            }
+            if (operator.isOrdering() && !field.numeric) {
+                throw new IllegalArgumentException(symbol + " is not supported for " + field.key);
+            }
+            return new Compare(field, operator, field.parse(literal()));
+        }
+
+        private String literal() {
+            String token = next();
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1);
+            }
+            return token;
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("unexpected end of condition");
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("expected " + token);
+            }
+        }
+    }
+}
@@ -0,0 +1,616 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit journal kept outside the OLTP database.
+ *
+ * Events are queued by the calling thread once its transaction commits and
+ * written by a single writer thread into memory-mapped segment files
+ * (audit-00000001.log, ...). The writer drains whatever has queued up and
+ * forces the segment once per batch (group commit), so durability costs one
+ * msync per batch rather than one per event. A new segment is started when
+ * the active one is full. A batch that fails to write is rolled back and
+ * retried with backoff; meanwhile the bounded queue blocks the callers, so
+ * events are delayed but never dropped.
+ *
+ * Record layout: [int length][long timestamp][long entityId][str entityType]
+ * [str action][str actor][str oldValue][str newValue], where str is a short
+ * byte length (-1 for null) followed by UTF-8 bytes. A zero length marks the
+ * end of the written part of a segment.
+ *
+ * Each segment has a sparse time index and an entity index (entity type and
+ * id to record offsets), kept in memory and rebuilt from the files on startup.
+ * Only the newest app.audit.indexed-segments segments keep their entity
+ * index, which bounds its memory; entity queries reaching further back scan
+ * the older segments instead.
+ *
+ * With app.audit.peers-dir set (the cluster profile), every node writes its
+ * own directory under that shared root and queries also read the segments
+ * the other nodes have written there, mapped read-only and indexed the same
+ * way, so any node answers with the events of the whole cluster.
+ */
+@Service
+public class AuditJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SPARSE_INDEX_INTERVAL = 256;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    @Value("${app.audit.dir:./data/audit}")
+    private String directory;
+
+    @Value("${app.audit.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.audit.max-batch:4096}")
+    private int maxBatch;
+
+    @Value("${app.audit.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${app.audit.indexed-segments:8}")
+    private int indexedSegments;
+
+    @Value("${app.audit.peers-dir:}")
+    private String peersDirectory;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    // Segments written by the other nodes, by node directory; caught up before each query
+    private final Map<Path, List<Segment>> peers = new HashMap<>();
+
+    private BlockingQueue<PendingEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private long lastTimestamp;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(dir)) {
+            existing = files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < existing.size(); i++) {
+            Path path = existing.get(i);
+            Segment segment = Segment.open(path, segmentNumber(path), segmentSizeBytes(),
+                    i >= existing.size() - indexedSegments());
+            segment.recover();
+            segments.add(segment);
+            lastTimestamp = Math.max(lastTimestamp, segment.maxTimestamp);
+        }
+        if (segments.isEmpty()) {
+            roll(1);
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            if (writer.isAlive()) {
+                logger.error("Audit journal writer did not finish within 10 s, {} queued events are not written",
+                        queue.size());
+            }
+        }
+    }
+
+    /**
+     * Records a change made by the current user. Inside a transaction the event
+     * is only queued once the transaction commits, so rolled-back changes never
+     * reach the journal.
+     */
+    public void record(String entityType, Long entityId, String action, Object oldValue, Object newValue) {
+        PendingEvent event = new PendingEvent(entityType, entityId, action, currentActor(),
+                oldValue != null ? oldValue.toString() : null,
+                newValue != null ? newValue.toString() : null);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Returns matching events, newest first. With an entity type and id the
+     * entity index is used; otherwise the segments overlapping the time range
+     * are scanned starting from the sparse time index.
+     */
+    public List<AuditEvent> query(String entityType, Long entityId, Instant from, Instant to, int limit) {
+        long fromMs = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMs = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<AuditEvent> result = query(segments, entityType, entityId, fromMs, toMs, limit);
+        List<List<Segment>> peerSegments = refreshPeers();
+        if (peerSegments.isEmpty()) {
+            return result;
+        }
+        // Each node's newest events, merged
+        for (List<Segment> peer : peerSegments) {
+            result.addAll(query(peer, entityType, entityId, fromMs, toMs, limit));
+        }
+        result.sort(Comparator.comparing(AuditEvent::occurredAt).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private List<AuditEvent> query(List<Segment> segments, String entityType, Long entityId, long fromMs, long toMs,
+            int limit) {
+        if (entityType != null && entityId != null) {
+            String key = indexKey(entityType, entityId);
+            List<AuditEvent> result = new ArrayList<>();
+            for (int s = segments.size() - 1; s >= 0 && result.size() < limit; s--) {
+                Segment segment = segments.get(s);
+                if (segment.records == 0 || segment.minTimestamp > toMs) {
+                    continue;
+                }
+                if (segment.maxTimestamp < fromMs) {
+                    break;
+                }
+                Map<String, OffsetList> index = segment.entityIndex;
+                if (index == null) {
+                    Deque<AuditEvent> matches = new ArrayDeque<>();
+                    scan(segment, fromMs, toMs, event -> entityType.equals(event.entityType())
+                            && entityId.equals(event.entityId()), matches, limit - result.size());
+                    matches.descendingIterator().forEachRemaining(result::add);
+                    continue;
+                }
+                OffsetList offsets = index.get(key);
+                int[] snapshot = offsets != null ? offsets.snapshot() : new int[0];
+                for (int i = snapshot.length - 1; i >= 0 && result.size() < limit; i--) {
+                    AuditEvent event = decode(segment.buffer.duplicate(), snapshot[i] + Integer.BYTES);
+                    long timestamp = event.occurredAt().toEpochMilli();
+                    if (timestamp < fromMs) {
+                        return result;
+                    }
+                    if (timestamp <= toMs) {
+                        result.add(event);
+                    }
+                }
+            }
+            return result;
+        }
+
+        Deque<AuditEvent> newest = new ArrayDeque<>();
+        for (Segment segment : segments) {
+            if (segment.records == 0 || segment.maxTimestamp < fromMs || segment.minTimestamp > toMs) {
+                continue;
+            }
+            scan(segment, fromMs, toMs, event -> entityType == null || entityType.equals(event.entityType()),
+                    newest, limit);
+        }
+        List<AuditEvent> result = new ArrayList<>(newest);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * The segments of the other nodes' directories, including records and
+     * segments written since the last call. Empty without app.audit.peers-dir.
+     */
+    private synchronized List<List<Segment>> refreshPeers() {
+        if (peersDirectory == null || peersDirectory.isBlank()) {
+            return List.of();
+        }
+        Path own = Paths.get(directory).toAbsolutePath().normalize();
+        List<List<Segment>> result = new ArrayList<>();
+        try (Stream<Path> nodes = Files.list(Paths.get(peersDirectory))) {
+            for (Path node : nodes.filter(Files::isDirectory).toList()) {
+                if (node.toAbsolutePath().normalize().equals(own)) {
+                    continue;
+                }
+                List<Segment> peer = peers.computeIfAbsent(node, n -> new ArrayList<>());
+                List<Path> files;
+                try (Stream<Path> list = Files.list(node)) {
+                    files = list.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                            .sorted()
+                            .toList();
+                }
+                for (int i = 0; i < files.size(); i++) {
+                    boolean indexed = i >= files.size() - indexedSegments();
+                    if (i < peer.size() && peer.get(i).buffer.capacity() >= Files.size(files.get(i))) {
+                        if (!indexed) {
+                            peer.get(i).entityIndex = null;
+                        }
+                    } else {
+                        // New, or grown since it was mapped
+                        Segment segment = Segment.openReadOnly(files.get(i), segmentNumber(files.get(i)), indexed);
+                        if (i < peer.size()) {
+                            peer.set(i, segment);
+                        } else {
+                            peer.add(segment);
+                        }
+                    }
+                    peer.get(i).recover();
+                }
+                result.add(List.copyOf(peer));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the matching events of one segment within the time range to
+     * {@code newest}, oldest first, keeping only the last {@code limit}.
+     */
+    private void scan(Segment segment, long fromMs, long toMs, Predicate<AuditEvent> filter,
+            Deque<AuditEvent> newest, int limit) {
+        // Strictly lower: records sharing the boundary timestamp may precede the indexed one
+        Map.Entry<Long, Integer> start = segment.sparseIndex.lowerEntry(fromMs);
+        int offset = start != null ? start.getValue() : 0;
+        int end = segment.writePosition;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        while (offset < end) {
+            int length = buffer.getInt(offset);
+            AuditEvent event = decode(buffer, offset + Integer.BYTES);
+            offset += Integer.BYTES + length;
+
+            long timestamp = event.occurredAt().toEpochMilli();
+            if (timestamp > toMs) {
+                break;
+            }
+            if (timestamp >= fromMs && filter.test(event)) {
+                newest.addLast(event);
+                if (newest.size() > limit) {
+                    newest.removeFirst();
+                }
+            }
+        }
+    }
+
+    private void enqueue(PendingEvent event) {
+        try {
+            // Blocks the caller when the writer falls behind instead of dropping audit records
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while queueing audit event {}", event);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatch);
+        int failures = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                }
+                writeBatch(batch);
+                batch.clear();
+                failures = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // The batch is kept and retried; the full queue holds back the callers in the meantime
+                long backoff = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(failures, 16));
+                failures++;
+                logger.error("Failed to write {} audit events (attempt {}), retrying in {} ms",
+                        batch.size(), failures, backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingEvent> batch) throws IOException {
+        Segment active = segments.get(segments.size() - 1);
+        Segment first = active;
+        int firstPosition = active.writePosition;
+        int segmentCount = segments.size();
+        Segment[] written = new Segment[batch.size()];
+        int[] offsets = new int[batch.size()];
+
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                PendingEvent event = batch.get(i);
+                long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+                lastTimestamp = timestamp;
+                byte[] payload = encode(timestamp, event);
+
+                if (!active.hasRoom(Integer.BYTES + payload.length)) {
+                    active.buffer.force();
+                    active = roll(active.number + 1);
+                }
+                written[i] = active;
+                offsets[i] = active.append(payload, timestamp);
+            }
+            // Group commit: one force for the whole batch
+            active.buffer.force();
+        } catch (IOException | RuntimeException e) {
+            // Undo the partial batch so that the retry does not write its first records twice
+            first.truncate(firstPosition);
+            while (segments.size() > segmentCount) {
+                segments.remove(segments.size() - 1).truncate(0);
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent event = batch.get(i);
+            written[i].index(indexKey(event.entityType(), event.entityId()), offsets[i]);
+        }
+    }
+
+    private Segment roll(int number) throws IOException {
+        Path path = Paths.get(directory, String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(path, number, segmentSizeBytes(), true);
+        segments.add(segment);
+        for (int i = 0; i < segments.size() - indexedSegments(); i++) {
+            segments.get(i).entityIndex = null;
+        }
+        return segment;
+    }
+
+    private static byte[] encode(long timestamp, PendingEvent event) {
+        byte[][] strings = {
+                utf8(event.entityType()), utf8(event.action()), utf8(event.actor()),
+                utf8(event.oldValue()), utf8(event.newValue())
+        };
+        int size = Long.BYTES * 2;
+        for (byte[] value : strings) {
+            size += Short.BYTES + (value != null ? value.length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(timestamp);
+        buffer.putLong(event.entityId() != null ? event.entityId() : 0L);
+        for (byte[] value : strings) {
+            if (value == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) value.length);
+                buffer.put(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static AuditEvent decode(ByteBuffer buffer, int offset) {
+        buffer.position(offset);
+        long timestamp = buffer.getLong();
+        long entityId = buffer.getLong();
+        return new AuditEvent(Instant.ofEpochMilli(timestamp), readString(buffer), entityId,
+                readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        // Cut before the character that straddles the limit: continuation bytes are 10xxxxxx
+        int end = MAX_STRING_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "system";
+    }
+
+    private static String indexKey(String entityType, Long entityId) {
+        return entityType + "#" + entityId;
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private int segmentSizeBytes() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    private int indexedSegments() {
+        // The active segment is always indexed
+        return Math.max(1, indexedSegments);
+    }
+
+    private record PendingEvent(String entityType, Long entityId, String action, String actor,
+            String oldValue, String newValue) {
+    }
+
+    private static final class Segment {
+
+        private final int number;
+        private final MappedByteBuffer buffer;
+        private final ConcurrentSkipListMap<Long, Integer> sparseIndex = new ConcurrentSkipListMap<>();
+        private volatile int writePosition;
+        private volatile long minTimestamp = Long.MAX_VALUE;
+        private volatile long maxTimestamp = Long.MIN_VALUE;
+        private volatile int records;
+        // Dropped once the segment falls out of the indexed window
+        private volatile Map<String, OffsetList> entityIndex;
+
+        private Segment(int number, MappedByteBuffer buffer, boolean indexed) {
+            this.number = number;
+            this.buffer = buffer;
+            this.entityIndex = indexed ? new ConcurrentHashMap<>() : null;
+        }
+
+        static Segment open(Path path, int number, int size, boolean indexed) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long mappedSize = Math.max(channel.size(), size);
+                // The mapping stays valid after the channel is closed
+                return new Segment(number, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize), indexed);
+            }
+        }
+
+        static Segment openReadOnly(Path path, int number, boolean indexed) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new Segment(number, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), indexed);
+            }
+        }
+
+        boolean hasRoom(int bytes) {
+            return writePosition + bytes + Integer.BYTES <= buffer.capacity();
+        }
+
+        int append(byte[] payload, long timestamp) {
+            int offset = writePosition;
+            buffer.put(offset + Integer.BYTES, payload);
+            // Length goes last so a torn write never looks like a complete record
+            buffer.putInt(offset, payload.length);
+            track(offset, timestamp);
+            writePosition = offset + Integer.BYTES + payload.length;
+            return offset;
+        }
+
+        void index(String key, int offset) {
+            Map<String, OffsetList> index = entityIndex;
+            if (index != null) {
+                index.computeIfAbsent(key, k -> new OffsetList()).add(offset);
+            }
+        }
+
+        /** Forgets everything from {@code position} on; used to roll back a failed batch. */
+        void truncate(int position) {
+            if (position + Integer.BYTES <= buffer.capacity()) {
+                buffer.putInt(position, 0);
+            }
+            writePosition = position;
+            sparseIndex.values().removeIf(offset -> offset >= position);
+        }
+
+        /** Indexes the records from the write position on; also catches up with another node's writes. */
+        void recover() {
+            ByteBuffer view = buffer.duplicate();
+            int offset = writePosition;
+            while (offset + Integer.BYTES <= view.capacity()) {
+                int length = view.getInt(offset);
+                if (length <= 0 || offset + Integer.BYTES + length > view.capacity()) {
+                    break;
+                }
+                AuditEvent event;
+                try {
+                    event = decode(view, offset + Integer.BYTES);
+                } catch (RuntimeException e) {
+                    logger.warn("Truncating audit segment {} at offset {}", number, offset);
+                    break;
+                }
+                track(offset, event.occurredAt().toEpochMilli());
+                index(indexKey(event.entityType(), event.entityId()), offset);
+                offset += Integer.BYTES + length;
+            }
+            writePosition = offset;
+        }
+
+        private void track(int offset, long timestamp) {
+            if (records % SPARSE_INDEX_INTERVAL == 0) {
+                sparseIndex.putIfAbsent(timestamp, offset);
+            }
+            if (records == 0) {
+                minTimestamp = timestamp;
+            }
+            maxTimestamp = timestamp;
+            records++;
+        }
+    }
+
+    private static final class OffsetList {
+
+        private int[] offsets = new int[4];
+        private int size;
+
+        synchronized void add(int offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(offsets, size);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.User;
+import com.company.vehiclemanagement.model.VehicleType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decides whether a new booking can skip the approval queue.
+ *
+ * Rules are configured as app.auto-approval.rules.&lt;name&gt;=&lt;condition&gt;
+ * (see {@link ApprovalRule} for the syntax) and compiled once at startup. A
+ * booking is approved by the first rule that matches; the returned trace lists
+ * every comparison that was evaluated on the way, for the audit journal.
+ */
+@Service
+public class AutoApprovalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutoApprovalService.class);
+
+    public record Decision(String rule, String trace) {
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auto-approval.enabled:false}")
+    private boolean enabled;
+
+    private List<ApprovalRule> rules = List.of();
+
+    private Counter approved;
+    private Counter notApproved;
+
+    @PostConstruct
+    public void init() {
+        approved = Counter.builder("app.bookings.auto_approval").tag("result", "approved").register(meterRegistry);
+        notApproved = Counter.builder("app.bookings.auto_approval").tag("result", "pending").register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        Map<String, String> conditions = Binder.get(environment)
+                .bind("app.auto-approval.rules", Bindable.mapOf(String.class, String.class))
+                .orElseGet(LinkedHashMap::new);
+        List<ApprovalRule> compiled = new ArrayList<>();
+        conditions.forEach((name, condition) -> compiled.add(ApprovalRule.compile(name, condition)));
+        rules = List.copyOf(compiled);
+        logger.info("Loaded {} auto-approval rules: {}", rules.size(), rules);
+    }
+
+    /**
+     * Evaluates the rules for a booking that is about to be saved as pending.
+     * Auto-assign requests are judged by their requested type.
+     */
+    public Optional<Decision> evaluate(Booking booking) {
+        if (rules.isEmpty()) {
+            return Optional.empty();
+        }
+        ApprovalRule.Facts facts = facts(booking, LocalDateTime.now());
+        StringBuilder trace = new StringBuilder();
+        for (ApprovalRule rule : rules) {
+            if (trace.length() > 0) {
+                trace.append("; ");
+            }
+            trace.append(rule.name()).append(": ");
+            if (rule.matches(facts, trace)) {
+                return Optional.of(new Decision(rule.name(), trace.toString()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Counts whether a new booking ended up auto-approved, once its
+     * transaction commits; a booking that is rolled back is not counted.
+     */
+    public void countOutcome(boolean autoApproved) {
+        if (rules.isEmpty()) {
+            return;
+        }
+        Counter counter = autoApproved ? approved : notApproved;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+
+    private static ApprovalRule.Facts facts(Booking booking, LocalDateTime now) {
+        User user = booking.getUser();
+        VehicleType type = booking.isAutoAssign() || booking.getVehicle() == null
+                ? booking.getRequestedType()
+                : booking.getVehicle().getType();
+        String site = booking.getVehicle() != null ? booking.getVehicle().getSiteCode()
+                : user != null ? user.getSiteCode() : null;
+        return new ApprovalRule.Facts(
+                user != null ? user.getRole() : null,
+                lowerCase(user != null ? user.getDepartment() : null),
+                type,
+                lowerCase(site),
+                hours(booking.getStartDateTime(), booking.getEndDateTime()),
+                hours(now, booking.getStartDateTime()));
+    }
+
+    private static double hours(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMinutes() / 60.0;
+    }
+
+    private static String lowerCase(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,275 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.VehicleView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Answers the availability lookups behind the booking form and the vehicle
+ * filter when many users ask for (nearly) the same time range at once, e.g.
+ * when the booking window opens.
+ *
+ * The requested range is widened to app.availability.slot-minutes boundaries
+ * and the fleet plus every approved booking overlapping that widened window is
+ * loaded as one snapshot. Concurrent requests for the same window wait for the
+ * single in-flight load instead of running their own queries, and the snapshot
+ * is kept for app.availability.cache-ttl-ms. Each answer is then computed from
+ * the snapshot for the exact requested range, so widening never changes the
+ * result. Committed {@link BookingChangedEvent}s and {@link VehicleChangedEvent}s
+ * drop the snapshots of the affected site and of the whole fleet.
+ *
+ * Snapshots are partitioned by site: a lookup for a user's site loads only
+ * that depot's vehicles (from the {@link FleetIndex}) and bookings, so the
+ * cost of a load grows with the size of one site rather than the fleet.
+ * Lookups for a single vehicle load only that vehicle and its bookings; their
+ * snapshots are dropped together with the vehicle's site.
+ *
+ * A change does not cancel loads already running: their waiters still get
+ * them, but they are not cached, and callers arriving after the change start
+ * a fresh load instead of joining the old one.
+ *
+ * Only for read-side lookups; booking creation and approval keep checking
+ * conflicts against the database inside their own transaction.
+ */
+@Service
+public class AvailabilityCoalescer {
+
+    private static final String ALL_SITES = "";
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.availability.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${app.availability.cache-ttl-ms:1000}")
+    private long cacheTtlMs;
+
+    @Value("${app.availability.max-entries:512}")
+    private int maxEntries;
+
+    // Per site, plus ALL_SITES for whole-fleet snapshots
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Window, Load> inFlight = new ConcurrentHashMap<>();
+    private final Map<Window, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Vehicles of the site (the whole fleet for a null site) in AVAILABLE
+     * status without an approved booking overlapping the range, ordered by
+     * make and model like VehicleQueryService.findAvailableVehiclesBetween.
+     */
+    public List<VehicleView> findAvailableVehiclesBetween(String siteCode, LocalDateTime startDateTime,
+            LocalDateTime endDateTime) {
+        Snapshot snapshot = snapshot(window(siteCode, null, startDateTime, endDateTime));
+        List<VehicleView> available = new ArrayList<>();
+        for (VehicleView vehicle : snapshot.vehicles().values()) {
+            if (vehicle.isAvailable() && !snapshot.hasConflict(vehicle.id(), startDateTime, endDateTime)) {
+                available.add(vehicle);
+            }
+        }
+        return available;
+    }
+
+    public boolean vehicleExists(Long vehicleId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return snapshot(vehicleWindow(vehicleId, startDateTime, endDateTime)).vehicles().containsKey(vehicleId);
+    }
+
+    /**
+     * Same answer as BookingService.hasConflictingBookings for the given vehicle.
+     */
+    public boolean hasConflictingBookings(Long vehicleId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return snapshot(vehicleWindow(vehicleId, startDateTime, endDateTime))
+                .hasConflict(vehicleId, startDateTime, endDateTime);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.vehicleId() == null) {
+            // The booking may have left a vehicle of any site
+            invalidate();
+        } else {
+            invalidate(siteOf(event.vehicleId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        snapshots.clear();
+    }
+
+    /**
+     * Drops the snapshots of one site and the whole-fleet snapshots, which
+     * contain that site as well. A null site only drops the latter.
+     */
+    private void invalidate(String siteCode) {
+        if (siteCode != null) {
+            version(siteCode).incrementAndGet();
+        }
+        version(null).incrementAndGet();
+        snapshots.keySet().removeIf(window -> window.covers(siteCode));
+    }
+
+    private Snapshot snapshot(Window window) {
+        Snapshot cached = snapshots.get(window);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)) {
+            counter("hit").increment();
+            return cached;
+        }
+
+        AtomicLong version = version(window.siteCode());
+        Load load = new Load(version.get(), new CompletableFuture<>());
+        while (true) {
+            Load existing = inFlight.putIfAbsent(window, load);
+            if (existing == null) {
+                break;
+            }
+            if (existing.version() >= load.version()) {
+                counter("coalesced").increment();
+                return join(existing.future());
+            }
+            // Started before a change: its own waiters keep it, new callers do not join it
+            if (inFlight.replace(window, existing, load)) {
+                break;
+            }
+        }
+
+        counter("load").increment();
+        try {
+            Snapshot snapshot = load(window);
+            if (cacheTtlMs > 0 && version.get() == load.version()) {
+                if (snapshots.size() >= maxEntries) {
+                    snapshots.clear();
+                }
+                snapshots.put(window, snapshot);
+            }
+            load.future().complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            load.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(window, load);
+        }
+    }
+
+    private Snapshot load(Window window) {
+        Map<Long, VehicleView> vehicles = new LinkedHashMap<>();
+        if (window.vehicleId() != null) {
+            vehicleQueryService.findById(window.vehicleId()).ifPresent(vehicle -> vehicles.put(vehicle.id(), vehicle));
+            List<BookingInterval> intervals = bookingQueryService.findApprovedIntervalsOfVehicleBetween(
+                    window.vehicleId(), window.start(), window.end());
+            return new Snapshot(vehicles, Map.of(window.vehicleId(), intervals), System.nanoTime());
+        }
+        for (VehicleView vehicle : fleetIndex.vehicles(window.siteCode())) {
+            vehicles.put(vehicle.id(), vehicle);
+        }
+        List<BookingInterval> intervals = window.siteCode() == null
+                ? bookingQueryService.findApprovedIntervalsBetween(window.start(), window.end())
+                : bookingQueryService.findApprovedIntervalsAtSiteBetween(window.siteCode(), window.start(),
+                        window.end());
+        Map<Long, List<BookingInterval>> bookings = intervals.stream()
+                .collect(Collectors.groupingBy(BookingInterval::vehicleId));
+        return new Snapshot(vehicles, bookings, System.nanoTime());
+    }
+
+    private String siteOf(Long vehicleId) {
+        return fleetIndex.siteOf(vehicleId).orElse(null);
+    }
+
+    private AtomicLong version(String siteCode) {
+        return versions.computeIfAbsent(siteCode != null ? siteCode : ALL_SITES, s -> new AtomicLong());
+    }
+
+    // Keyed by the vehicle's site too, so site invalidation and site versions cover it
+    private Window vehicleWindow(Long vehicleId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return window(siteOf(vehicleId), vehicleId, startDateTime, endDateTime);
+    }
+
+    private Window window(String siteCode, Long vehicleId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        LocalDateTime start = floorToSlot(startDateTime);
+        LocalDateTime end = floorToSlot(endDateTime);
+        if (end.isBefore(endDateTime)) {
+            end = end.plusMinutes(slotMinutes);
+        }
+        return new Window(siteCode, vehicleId, start, end);
+    }
+
+    private LocalDateTime floorToSlot(LocalDateTime dateTime) {
+        LocalDateTime day = dateTime.truncatedTo(ChronoUnit.DAYS);
+        long minutes = Duration.between(day, dateTime).toMinutes();
+        return day.plusMinutes(minutes - minutes % slotMinutes);
+    }
+
+    private static Snapshot join(CompletableFuture<Snapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("app.availability.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Load(long version, CompletableFuture<Snapshot> future) {
+    }
+
+    private record Window(String siteCode, Long vehicleId, LocalDateTime start, LocalDateTime end) {
+
+        boolean covers(String changedSite) {
+            return siteCode == null || siteCode.equals(changedSite);
+        }
+    }
+
+    private record Snapshot(Map<Long, VehicleView> vehicles, Map<Long, List<BookingInterval>> bookings,
+            long loadedAt) {
+
+        boolean hasConflict(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+            for (BookingInterval booking : bookings.getOrDefault(vehicleId, List.of())) {
+                if (booking.overlaps(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
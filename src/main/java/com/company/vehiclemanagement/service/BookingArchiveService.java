@@ -0,0 +1,218 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingArchive;
+import com.company.vehiclemanagement.model.BookingHistory;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.User;
+import com.company.vehiclemanagement.repository.BookingArchiveRepository;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.UserRepository;
+import com.company.vehiclemanagement.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves closed bookings out of the hot bookings table into bookings_archive
+ * and serves history queries that span both tiers.
+ */
+@Service
+public class BookingArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiveService.class);
+
+    private static final Set<BookingStatus> CLOSED_STATUSES =
+            EnumSet.of(BookingStatus.COMPLETED, BookingStatus.REJECTED, BookingStatus.CANCELLED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.archive.age-days:180}")
+    private int ageDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Archives closed bookings untouched for longer than app.archive.age-days.
+     * Each chunk commits on its own so the job never holds long locks on the
+     * hot table and can resume where it stopped after a failure.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public int archiveClosedBookings() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            logger.info("Archived {} closed bookings last updated before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Booking> chunk = bookingRepository.findByStatusInAndUpdatedAtBefore(
+                CLOSED_STATUSES, cutoff, PageRequest.of(0, batchSize, Sort.by("id")));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        bookingArchiveRepository.saveAll(chunk.stream().map(BookingArchive::from).toList());
+        bookingRepository.deleteAllInBatch(chunk);
+        return chunk.size();
+    }
+
+    /**
+     * A user's booking history across the hot and archive tiers, newest first.
+     * Both tiers are read up to the end of the requested page and merged, so
+     * the cost grows with the page offset rather than the size of the history.
+     */
+    @Transactional(readOnly = true)
+    public Page<Booking> findBookingHistoryByUser(User user, Pageable pageable) {
+        long archivedCount = bookingArchiveRepository.countByUserId(user.getId());
+        long total = bookingRepository.countByUser(user) + archivedCount;
+        int window = (int) pageable.getOffset() + pageable.getPageSize();
+
+        List<Booking> hot = bookingRepository.findByUserOrderByCreatedAtDesc(user, PageRequest.of(0, window));
+        List<BookingArchive> cold = archivedCount == 0 ? List.of()
+                : bookingArchiveRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), PageRequest.of(0, window));
+
+        List<Booking> merged = new ArrayList<>(pageable.getPageSize());
+        int h = 0;
+        int c = 0;
+        int skip = (int) pageable.getOffset();
+        while (merged.size() < pageable.getPageSize() && (h < hot.size() || c < cold.size())) {
+            boolean takeHot = c >= cold.size() || (h < hot.size()
+                    && !hot.get(h).getCreatedAt().isBefore(cold.get(c).getCreatedAt()));
+            Booking next = takeHot ? hot.get(h++) : restore(user, cold.get(c++));
+            if (skip > 0) {
+                skip--;
+            } else {
+                merged.add(next);
+            }
+        }
+        return new PageImpl<>(merged, pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingHistory findVehicleHistory(Long vehicleId, String before, int size) {
+        BookingHistory.Cursor cursor = BookingHistory.Cursor.parse(before);
+        Pageable window = PageRequest.of(0, size + 1);
+        return mergeHistory(
+                bookingRepository.findVehicleHistory(vehicleId, cursor.startDateTime(), cursor.id(), window),
+                bookingArchiveRepository.findVehicleHistory(vehicleId, cursor.startDateTime(), cursor.id(), window),
+                size);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingHistory findUserHistory(Long userId, String before, int size) {
+        BookingHistory.Cursor cursor = BookingHistory.Cursor.parse(before);
+        Pageable window = PageRequest.of(0, size + 1);
+        return mergeHistory(
+                bookingRepository.findUserHistory(userId, cursor.startDateTime(), cursor.id(), window),
+                bookingArchiveRepository.findUserHistory(userId, cursor.startDateTime(), cursor.id(), window),
+                size);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<BookingStatus, Long> countVehicleHistoryByStatus(Long vehicleId) {
+        return sumByStatus(bookingRepository.countByVehicleIdGroupByStatus(vehicleId),
+                bookingArchiveRepository.countByVehicleIdGroupByStatus(vehicleId));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<BookingStatus, Long> countUserHistoryByStatus(Long userId) {
+        return sumByStatus(bookingRepository.countByUserIdGroupByStatus(userId),
+                bookingArchiveRepository.countByUserIdGroupByStatus(userId));
+    }
+
+    /**
+     * Merges the newest {@code size + 1} rows of each tier after the cursor.
+     * The extra row only tells whether another slice follows, so every slice
+     * costs two short index range scans however long the history is.
+     */
+    private BookingHistory mergeHistory(List<BookingView> hot, List<BookingView> cold, int size) {
+        Comparator<BookingView> newestFirst = Comparator.comparing(BookingView::startDateTime)
+                .thenComparing(BookingView::id).reversed();
+        List<BookingView> merged = new ArrayList<>(hot.size() + cold.size());
+        merged.addAll(hot);
+        merged.addAll(cold);
+        merged.sort(newestFirst);
+        if (merged.size() <= size) {
+            return new BookingHistory(merged, null);
+        }
+        List<BookingView> slice = List.copyOf(merged.subList(0, size));
+        return new BookingHistory(slice, BookingHistory.Cursor.after(slice.get(size - 1)).toString());
+    }
+
+    private Map<BookingStatus, Long> sumByStatus(List<Object[]> hot, List<Object[]> cold) {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        for (List<Object[]> tier : List.of(hot, cold)) {
+            for (Object[] row : tier) {
+                counts.merge((BookingStatus) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public long countBookingHistoryByUser(User user) {
+        return bookingRepository.countByUser(user) + bookingArchiveRepository.countByUserId(user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public long countArchivedBookings() {
+        return bookingArchiveRepository.count();
+    }
+
+    @Transactional(readOnly = true)
+    public long countArchivedBookingsByStatus(BookingStatus status) {
+        return CLOSED_STATUSES.contains(status) ? bookingArchiveRepository.countByStatus(status) : 0;
+    }
+
+    private Booking restore(User user, BookingArchive archive) {
+        return archive.toBooking(user,
+                archive.getVehicleId() != null ? vehicleRepository.getReferenceById(archive.getVehicleId()) : null,
+                archive.getApprovedById() != null ? userRepository.getReferenceById(archive.getApprovedById()) : null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+
+/**
+ * Published by the booking services whenever a booking is created or its
+ * dates, vehicle or status change. Listeners that keep derived state
+ * (render caches, counters) should use
+ * {@code @TransactionalEventListener(fallbackExecution = true)} so they only
+ * react once the change is committed.
+ */
+public record BookingChangedEvent(Long bookingId, Long userId, Long vehicleId, BookingStatus status) {
+}
@@ -0,0 +1,97 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.FeedState;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Query side of bookings for list pages. Runs in read-only transactions
+ * (Spring switches the Hibernate session to FlushMode.MANUAL and read-only)
+ * and returns immutable {@link BookingView} projections; all changes go
+ * through {@link BookingService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookingQueryService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    public List<BookingView> findAllBookings() {
+        return bookingRepository.findAllViews();
+    }
+
+    public List<BookingView> findBookingsByStatus(BookingStatus status) {
+        return bookingRepository.findViewsByStatus(status);
+    }
+
+    public List<BookingView> findPendingBookings() {
+        return bookingRepository.findViewsByStatusOldestFirst(BookingStatus.PENDING);
+    }
+
+    public List<BookingView> findPendingBookings(int limit) {
+        return bookingRepository.findViewsByStatusOldestFirst(BookingStatus.PENDING, PageRequest.of(0, limit));
+    }
+
+    public List<BookingView> findBookingsByUserId(Long userId) {
+        return bookingRepository.findViewsByUserId(userId);
+    }
+
+    public List<BookingInterval> findApprovedIntervalsBetween(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return bookingRepository.findApprovedIntervalsBetween(startDateTime, endDateTime);
+    }
+
+    public List<BookingInterval> findApprovedIntervalsAtSiteBetween(String siteCode, LocalDateTime startDateTime,
+            LocalDateTime endDateTime) {
+        return bookingRepository.findApprovedIntervalsAtSiteBetween(siteCode, startDateTime, endDateTime);
+    }
+
+    public List<BookingInterval> findApprovedIntervalsOfVehicleBetween(Long vehicleId, LocalDateTime startDateTime,
+            LocalDateTime endDateTime) {
+        return bookingRepository.findApprovedIntervalsOfVehicleBetween(vehicleId, startDateTime, endDateTime);
+    }
+
+    public List<BookingInterval> findIntervalsByVehicleSince(Long vehicleId, Collection<BookingStatus> statuses,
+            LocalDateTime since) {
+        return bookingRepository.findIntervalsByVehicleSince(vehicleId, statuses, since);
+    }
+
+    /**
+     * What the ETag of a calendar feed is built from; the same rows as
+     * {@link #forEachFeedBooking}.
+     */
+    public FeedState findFeedState(CalendarFeed feed, Collection<BookingStatus> statuses, LocalDateTime since) {
+        return switch (feed.type()) {
+            case USER -> bookingRepository.findFeedStateByUserId(Long.valueOf(feed.id()), statuses, since);
+            case VEHICLE -> bookingRepository.findFeedStateByVehicleId(Long.valueOf(feed.id()), statuses, since);
+            case DEPARTMENT -> bookingRepository.findFeedStateByDepartment(feed.id(), statuses, since);
+        };
+    }
+
+    /**
+     * Hands the bookings of one calendar feed to {@code consumer}, ordered by
+     * start, while the result set is still open.
+     */
+    public void forEachFeedBooking(CalendarFeed feed, Collection<BookingStatus> statuses, LocalDateTime since,
+            Consumer<BookingView> consumer) {
+        try (Stream<BookingView> bookings = switch (feed.type()) {
+            case USER -> bookingRepository.streamViewsByUserId(Long.valueOf(feed.id()), statuses, since);
+            case VEHICLE -> bookingRepository.streamViewsByVehicleId(Long.valueOf(feed.id()), statuses, since);
+            case DEPARTMENT -> bookingRepository.streamViewsByDepartment(feed.id(), statuses, since);
+        }) {
+            bookings.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingLoad;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Booking quotas per user and department, enforced when a booking is created:
+ * open bookings per user, booked hours in a sliding window of
+ * app.quota.window-days around the new booking (per user and per department),
+ * and the share of a vehicle type's fleet a department may hold at the same
+ * time. A limit of 0 switches that quota off.
+ *
+ * The open (pending or approved, not yet ended) bookings are kept in memory,
+ * indexed by user and department. They are loaded once at startup and kept
+ * current from BookingService's transitions, so a quota check runs no
+ * queries. Bookings changed on other cluster nodes are reloaded by id when
+ * their change events are replayed.
+ */
+@Service
+public class BookingQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingQuotaService.class);
+
+    private static final Set<BookingStatus> OPEN_STATUSES = EnumSet.of(BookingStatus.PENDING, BookingStatus.APPROVED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.quota.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.quota.max-concurrent-bookings:5}")
+    private int maxConcurrentBookings;
+
+    @Value("${app.quota.window-days:7}")
+    private long windowDays;
+
+    @Value("${app.quota.max-hours-per-window:40}")
+    private double maxHoursPerWindow;
+
+    @Value("${app.quota.department-max-hours-per-window:400}")
+    private double departmentMaxHoursPerWindow;
+
+    @Value("${app.quota.department-max-type-share:0.5}")
+    private double departmentMaxTypeShare;
+
+    @Value("${app.quota.exempt-roles:ADMIN,FLEET_MANAGER}")
+    private Role[] exemptRoles;
+
+    // All guarded by this
+    private final Map<Long, BookingLoad> loads = new HashMap<>();
+    private final Map<Long, Map<Long, BookingLoad>> byUser = new HashMap<>();
+    private final Map<String, Map<Long, BookingLoad>> byDepartment = new HashMap<>();
+    private final Map<VehicleType, Long> fleetByType = new EnumMap<>(VehicleType.class);
+    private boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingLoad> open = bookingRepository.findLoadsSince(OPEN_STATUSES, now);
+        loads.clear();
+        byUser.clear();
+        byDepartment.clear();
+        for (BookingLoad load : open) {
+            add(load);
+        }
+        refreshFleet(countFleet());
+        loaded = true;
+        logger.info("Booking quotas loaded {} open bookings", open.size());
+    }
+
+    /**
+     * Checks the quotas for a booking that was just saved or changed and counts
+     * it right away, so concurrent requests see each other. Throws if a quota
+     * would be exceeded; if the transaction rolls back, the booking's previous
+     * load (if any) is counted again.
+     */
+    public synchronized void checkAndReserve(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        if (!loaded) {
+            rebuild();
+        }
+        BookingLoad load = BookingLoad.of(booking);
+        if (!Arrays.asList(exemptRoles).contains(booking.getUser().getRole())) {
+            check(load, LocalDateTime.now());
+        }
+        BookingLoad previous = loads.get(load.bookingId());
+        remove(load.bookingId());
+        add(load);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(load.bookingId(), previous);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies a booking's current state once the transaction commits: open
+     * bookings are (re)counted with their current dates, others dropped.
+     */
+    public void track(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        BookingLoad load = BookingLoad.of(booking);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(load);
+                }
+            });
+        } else {
+            apply(load);
+        }
+    }
+
+    // Local transitions already went through track(); only changes replayed from other nodes are handled here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled || !ClusterInvalidationBus.isReplaying()) {
+            return;
+        }
+        if (event.status() != null && !OPEN_STATUSES.contains(event.status())) {
+            forget(event.bookingId());
+            return;
+        }
+        bookingRepository.findLoadById(event.bookingId()).ifPresentOrElse(this::apply,
+                () -> forget(event.bookingId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (enabled) {
+            Map<VehicleType, Long> counts = countFleet();
+            synchronized (this) {
+                refreshFleet(counts);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.quota.purge-ms:600000}")
+    public synchronized void purgeEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ended = new ArrayList<>();
+        for (BookingLoad load : loads.values()) {
+            if (!load.isOpen(now)) {
+                ended.add(load.bookingId());
+            }
+        }
+        ended.forEach(this::remove);
+    }
+
+    private synchronized void apply(BookingLoad load) {
+        remove(load.bookingId());
+        if (load.isOpen(LocalDateTime.now())) {
+            add(load);
+        }
+    }
+
+    private synchronized void forget(Long bookingId) {
+        remove(bookingId);
+    }
+
+    private synchronized void restore(Long bookingId, BookingLoad previous) {
+        remove(bookingId);
+        if (previous != null) {
+            add(previous);
+        }
+    }
+
+    private void check(BookingLoad load, LocalDateTime now) {
+        List<BookingLoad> userLoads = open(byUser.get(load.userId()), load, now);
+        if (maxConcurrentBookings > 0 && userLoads.size() >= maxConcurrentBookings) {
+            reject("concurrent", "You already have " + userLoads.size() + " open bookings (limit "
+                    + maxConcurrentBookings + ")");
+        }
+        if (maxHoursPerWindow > 0) {
+            double hours = windowHours(userLoads, load);
+            if (hours > maxHoursPerWindow) {
+                reject("user-hours", String.format("This booking would bring you to %.1f booked hours within %d days "
+                        + "(limit %.1f)", hours, windowDays, maxHoursPerWindow));
+            }
+        }
+
+        if (load.department() == null) {
+            return;
+        }
+        List<BookingLoad> departmentLoads = open(byDepartment.get(load.department()), load, now);
+        if (departmentMaxHoursPerWindow > 0) {
+            double hours = windowHours(departmentLoads, load);
+            if (hours > departmentMaxHoursPerWindow) {
+                reject("department-hours", String.format("Department %s would reach %.1f booked hours within %d days "
+                        + "(limit %.1f)", load.department(), hours, windowDays, departmentMaxHoursPerWindow));
+            }
+        }
+        long fleet = load.type() != null ? fleetByType.getOrDefault(load.type(), 0L) : 0;
+        if (departmentMaxTypeShare > 0 && fleet > 0) {
+            long limit = Math.max(1, (long) Math.floor(fleet * departmentMaxTypeShare));
+            int held = peakOverlap(departmentLoads, load);
+            if (held >= limit) {
+                reject("department-type-share", "Department " + load.department() + " already holds " + held + " of "
+                        + fleet + " " + load.type().getDisplayName() + " vehicles in that period (limit " + limit + ")");
+            }
+        }
+    }
+
+    private void reject(String quota, String message) {
+        meterRegistry.counter("app.bookings.quota_rejections", "quota", quota).increment();
+        throw new RuntimeException(message);
+    }
+
+    private static List<BookingLoad> open(Map<Long, BookingLoad> loads, BookingLoad except, LocalDateTime now) {
+        if (loads == null) {
+            return List.of();
+        }
+        List<BookingLoad> result = new ArrayList<>(loads.size());
+        for (BookingLoad load : loads.values()) {
+            if (!load.bookingId().equals(except.bookingId()) && load.isOpen(now)) {
+                result.add(load);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Booked hours, including the new booking, in the busiest window of
+     * window-days that overlaps it. The booked hours change linearly between
+     * the points where a window edge meets a booking's start or end, so only
+     * windows starting or ending at one of those need to be summed.
+     */
+    private double windowHours(Collection<BookingLoad> others, BookingLoad load) {
+        Duration window = Duration.ofDays(windowDays);
+        LocalDateTime earliest = load.startDateTime().minus(window);
+        LocalDateTime latest = load.endDateTime();
+        List<BookingLoad> nearby = new ArrayList<>();
+        nearby.add(load);
+        for (BookingLoad other : others) {
+            if (other.endDateTime().isAfter(earliest) && other.startDateTime().isBefore(latest.plus(window))) {
+                nearby.add(other);
+            }
+        }
+        double busiest = 0;
+        for (BookingLoad edge : nearby) {
+            for (LocalDateTime from : List.of(edge.startDateTime(), edge.endDateTime(),
+                    edge.startDateTime().minus(window), edge.endDateTime().minus(window))) {
+                if (from.isBefore(earliest) || from.isAfter(latest)) {
+                    continue;
+                }
+                LocalDateTime to = from.plus(window);
+                double hours = 0;
+                for (BookingLoad booking : nearby) {
+                    hours += overlapHours(booking, from, to);
+                }
+                busiest = Math.max(busiest, hours);
+            }
+        }
+        return busiest;
+    }
+
+    private static double overlapHours(BookingLoad load, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = load.startDateTime().isAfter(from) ? load.startDateTime() : from;
+        LocalDateTime end = load.endDateTime().isBefore(to) ? load.endDateTime() : to;
+        return end.isAfter(start) ? Duration.between(start, end).toMinutes() / 60.0 : 0;
+    }
+
+    /** Most bookings of the same type the department holds at any one time during {@code load}. */
+    private static int peakOverlap(Collection<BookingLoad> others, BookingLoad load) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (BookingLoad other : others) {
+            if (other.type() == load.type() && other.overlaps(load.startDateTime(), load.endDateTime())) {
+                starts.add(other.startDateTime());
+                ends.add(other.endDateTime());
+            }
+        }
+        starts.sort(null);
+        ends.sort(null);
+        int peak = 0;
+        int current = 0;
+        int e = 0;
+        for (LocalDateTime start : starts) {
+            // Touching bookings overlap, so only ends strictly before this start are released
+            while (e < ends.size() && ends.get(e).isBefore(start)) {
+                current--;
+                e++;
+            }
+            peak = Math.max(peak, ++current);
+        }
+        return peak;
+    }
+
+    private void add(BookingLoad load) {
+        loads.put(load.bookingId(), load);
+        byUser.computeIfAbsent(load.userId(), id -> new HashMap<>()).put(load.bookingId(), load);
+        if (load.department() != null) {
+            byDepartment.computeIfAbsent(load.department(), d -> new HashMap<>()).put(load.bookingId(), load);
+        }
+    }
+
+    private void remove(Long bookingId) {
+        BookingLoad load = loads.remove(bookingId);
+        if (load == null) {
+            return;
+        }
+        removeFrom(byUser, load.userId(), bookingId);
+        if (load.department() != null) {
+            removeFrom(byDepartment, load.department(), bookingId);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Map<Long, BookingLoad>> index, K key, Long bookingId) {
+        Map<Long, BookingLoad> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(bookingId);
+            if (entries.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private Map<VehicleType, Long> countFleet() {
+        Map<VehicleType, Long> counts = new EnumMap<>(VehicleType.class);
+        for (Object[] row : vehicleRepository.countInServiceByType()) {
+            if (row[0] != null) {
+                counts.put((VehicleType) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    private void refreshFleet(Map<VehicleType, Long> counts) {
+        fleetByType.clear();
+        fleetByType.putAll(counts);
+    }
+}
@@ -1,17 +1,24 @@
 package com.company.vehiclemanagement.service;
 
+import com.company.vehiclemanagement.config.ReadYourWritesGuard;
 import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingHistory;
 import com.company.vehiclemanagement.model.BookingStatus;
 import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Vehicle;
 import com.company.vehiclemanagement.model.VehicleStatus;
 import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,30 +31,64 @@ public class BookingService {
     @Autowired
     private VehicleService vehicleService;
 
-    public List<Booking> findAllBookings() {
-        return bookingRepository.findAll();
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private VehicleAssignmentService vehicleAssignmentService;
+
+    @Autowired
+    private AutoApprovalService autoApprovalService;
+
+    @Autowired
+    private BookingQuotaService bookingQuotaService;
+
+    @Autowired
+    private BookingArchiveService bookingArchiveService;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public Page<Booking> findBookingHistoryByUser(User user, Pageable pageable) {
+        return bookingArchiveService.findBookingHistoryByUser(user, pageable);
     }
 
-    public List<Booking> findBookingsByUser(User user) {
-        return bookingRepository.findByUserOrderByCreatedAtDesc(user);
+    @Transactional(readOnly = true)
+    public BookingHistory findUserHistory(Long userId, String before, int size) {
+        return bookingArchiveService.findUserHistory(userId, before, size);
     }
 
-    public List<Booking> findBookingsByStatus(BookingStatus status) {
-        return bookingRepository.findByStatusOrderByCreatedAtAsc(status);
+    @Transactional(readOnly = true)
+    public BookingHistory findVehicleHistory(Long vehicleId, String before, int size) {
+        return bookingArchiveService.findVehicleHistory(vehicleId, before, size);
     }
 
-    public List<Booking> findPendingBookings() {
-        return bookingRepository.findByStatusOrderByCreatedAtAsc(BookingStatus.PENDING);
+    @Transactional(readOnly = true)
+    public Map<BookingStatus, Long> countUserHistoryByStatus(Long userId) {
+        return bookingArchiveService.countUserHistoryByStatus(userId);
     }
 
-    public List<Booking> findBookingsByVehicle(Vehicle vehicle) {
-        return bookingRepository.findByVehicle(vehicle);
+    @Transactional(readOnly = true)
+    public Map<BookingStatus, Long> countVehicleHistoryByStatus(Long vehicleId) {
+        return bookingArchiveService.countVehicleHistoryByStatus(vehicleId);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> findBookingsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return bookingRepository.findBookingsBetweenDates(startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Booking> findById(Long id) {
         return bookingRepository.findById(id);
     }
@@ -56,20 +97,74 @@ public class BookingService {
         // Validate booking dates
         validateBookingDates(booking.getStartDateTime(), booking.getEndDateTime());
 
-        // Check for conflicts
-        if (hasConflictingBookings(booking.getVehicle(), booking.getStartDateTime(), booking.getEndDateTime())) {
-            throw new RuntimeException("Vehicle is already booked for the selected time period");
-        }
-
-        // Verify vehicle is available
-        if (!booking.getVehicle().isAvailable()) {
-            throw new RuntimeException("Vehicle is not available for booking");
+        if (booking.isAutoAssign()) {
+            // "Assign for me" requests get their vehicle from VehicleAssignmentService
+            if (booking.getRequestedType() == null) {
+                throw new RuntimeException("Vehicle type is required");
+            }
+            booking.setVehicle(null);
+        } else {
+            if (booking.getVehicle() == null) {
+                throw new RuntimeException("Vehicle is required");
+            }
+
+            // Check for conflicts
+            if (hasConflictingBookings(booking.getVehicle(), booking.getStartDateTime(),
+                    booking.getEndDateTime())) {
+                throw new RuntimeException("Vehicle is already booked for the selected time period");
+            }
+
+            // Verify vehicle is available
+            if (!booking.getVehicle().isAvailable()) {
+                throw new RuntimeException("Vehicle is not available for booking");
+            }
         }
 
         // Set initial status
         booking.setStatus(BookingStatus.PENDING);
 
-        return bookingRepository.save(booking);
+        Optional<AutoApprovalService.Decision> decision = autoApprovalService.evaluate(booking)
+                .filter(d -> reserveForAutoApproval(booking));
+        decision.ifPresent(d -> booking.approve(null, "Auto-approved by rule " + d.rule()));
+
+        Booking saved = bookingRepository.save(booking);
+        bookingQuotaService.checkAndReserve(saved);
+        autoApprovalService.countOutcome(decision.isPresent());
+        // The user's next page load lists this booking; don't let replica lag hide it
+        readYourWritesGuard.markWrite();
+        if (decision.isPresent()) {
+            auditJournal.record("Booking", saved.getId(), "AUTO_APPROVE", BookingStatus.PENDING.name(),
+                    saved.getStatus().name() + " (" + decision.get().trace() + ")");
+        }
+        publishChange(saved);
+
+        if (decision.isPresent() && saved.getStartDateTime().isBefore(LocalDateTime.now().plusHours(1))) {
+            vehicleService.markVehicleInUse(saved.getVehicle().getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Makes sure an auto-approved booking has a vehicle that stays free: the
+     * vehicle row is locked so two bookings approved at once cannot both pass
+     * the conflict check. Otherwise the booking stays pending for an approver.
+     */
+    private boolean reserveForAutoApproval(Booking booking) {
+        if (booking.isAutoAssign()) {
+            Optional<Vehicle> vehicle = vehicleAssignmentService.assignVehicle(booking);
+            if (vehicle.isEmpty()) {
+                return false;
+            }
+            booking.setVehicle(vehicle.get());
+        }
+        vehicleRepository.findByIdForUpdate(booking.getVehicle().getId());
+        if (hasConflictingBookings(booking.getVehicle(), booking.getStartDateTime(), booking.getEndDateTime())) {
+            if (booking.isAutoAssign()) {
+                booking.setVehicle(null);
+            }
+            return false;
+        }
+        return true;
     }
 
     public Booking updateBooking(Booking booking) {
@@ -84,25 +179,38 @@ public class BookingService {
         // Validate new dates
         validateBookingDates(booking.getStartDateTime(), booking.getEndDateTime());
 
-        // Check for conflicts (excluding current booking)
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                booking.getVehicle(), booking.getStartDateTime(), booking.getEndDateTime());
+        if (existingBooking.isAutoAssign()) {
+            // The solver picks a new vehicle for the changed request on its next run
+            existingBooking.setRequestedType(booking.getRequestedType());
+            existingBooking.setRequiredCapacity(booking.getRequiredCapacity());
+            existingBooking.setVehicle(null);
+        } else {
+            // Check for conflicts (excluding current booking)
+            List<Booking> conflicts = bookingRepository.findConflictingBookings(
+                    booking.getVehicle(), booking.getStartDateTime(), booking.getEndDateTime());
 
-        // Remove current booking from conflicts
-        conflicts.removeIf(b -> b.getId().equals(booking.getId()));
+            // Remove current booking from conflicts
+            conflicts.removeIf(b -> b.getId().equals(booking.getId()));
 
-        if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Vehicle is already booked for the selected time period");
+            if (!conflicts.isEmpty()) {
+                throw new RuntimeException("Vehicle is already booked for the selected time period");
+            }
+
+            existingBooking.setVehicle(booking.getVehicle());
         }
 
         // Update booking details
-        existingBooking.setVehicle(booking.getVehicle());
         existingBooking.setStartDateTime(booking.getStartDateTime());
         existingBooking.setEndDateTime(booking.getEndDateTime());
         existingBooking.setDestination(booking.getDestination());
         existingBooking.setPurpose(booking.getPurpose());
 
-        return bookingRepository.save(existingBooking);
+        // The changed dates and type count against the quotas like a new booking
+        bookingQuotaService.checkAndReserve(existingBooking);
+        Booking saved = bookingRepository.save(existingBooking);
+        readYourWritesGuard.markWrite();
+        publishChange(saved);
+        return saved;
     }
 
     public void approveBooking(Long bookingId, User approver, String notes) {
@@ -113,13 +221,27 @@ public class BookingService {
             throw new RuntimeException("Can only approve pending bookings");
         }
 
-        // Double-check for conflicts before approval
+        // Resolve "assign for me" requests that have no (or no longer a free) tentative vehicle
+        if (booking.isAutoAssign() && (booking.getVehicle() == null
+                || hasConflictingBookings(booking.getVehicle(), booking.getStartDateTime(),
+                        booking.getEndDateTime()))) {
+            booking.setVehicle(vehicleAssignmentService.assignVehicle(booking)
+                    .orElseThrow(() -> new RuntimeException(
+                            "No matching vehicle is free for the requested time period")));
+        }
+
+        // Double-check for conflicts before approval, holding the vehicle row so two approvals cannot both pass
+        vehicleRepository.findByIdForUpdate(booking.getVehicle().getId());
         if (hasConflictingBookings(booking.getVehicle(), booking.getStartDateTime(), booking.getEndDateTime())) {
             throw new RuntimeException("Vehicle has conflicting bookings and cannot be approved");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.approve(approver, notes);
         bookingRepository.save(booking);
+        readYourWritesGuard.markWrite();
+        auditJournal.record("Booking", booking.getId(), "APPROVE", previousStatus.name(), booking.getStatus().name());
+        publishChange(booking);
 
         // Update vehicle status if booking starts soon (within 1 hour)
         if (booking.getStartDateTime().isBefore(LocalDateTime.now().plusHours(1))) {
@@ -135,8 +257,12 @@ public class BookingService {
             throw new RuntimeException("Can only reject pending bookings");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.reject(approver, notes);
         bookingRepository.save(booking);
+        readYourWritesGuard.markWrite();
+        auditJournal.record("Booking", booking.getId(), "REJECT", previousStatus.name(), booking.getStatus().name());
+        publishChange(booking);
     }
 
     public void cancelBooking(Long bookingId, User user) {
@@ -159,9 +285,11 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        readYourWritesGuard.markWrite();
+        publishChange(booking);
 
         // Mark vehicle as available if it was in use
-        if (booking.getVehicle().getStatus() == VehicleStatus.IN_USE) {
+        if (booking.getVehicle() != null && booking.getVehicle().getStatus() == VehicleStatus.IN_USE) {
             vehicleService.markVehicleAvailable(booking.getVehicle().getId());
         }
     }
@@ -174,8 +302,15 @@ public class BookingService {
             throw new RuntimeException("Can only complete approved bookings");
         }
 
+        // Clip to the booked window so readings from the next driver are not counted
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime tripEnd = booking.getEndDateTime().isBefore(now) ? booking.getEndDateTime() : now;
+        booking.setTripDistanceKm(telemetryStore.tripDistanceKm(booking.getVehicle().getId(),
+                booking.getStartDateTime(), tripEnd));
         booking.setStatus(BookingStatus.COMPLETED);
         bookingRepository.save(booking);
+        readYourWritesGuard.markWrite();
+        publishChange(booking);
 
         // Mark vehicle as available
         vehicleService.markVehicleAvailable(booking.getVehicle().getId());
@@ -190,31 +325,43 @@ public class BookingService {
         }
     }
 
+    @Transactional(readOnly = true)
     public boolean hasConflictingBookings(Vehicle vehicle, LocalDateTime startDateTime, LocalDateTime endDateTime) {
         List<Booking> conflicts = bookingRepository.findConflictingBookings(vehicle, startDateTime, endDateTime);
         return !conflicts.isEmpty();
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> findUserBookingsByStatus(User user, BookingStatus status) {
         return bookingRepository.findByUserAndStatus(user, status);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalBookingCount() {
-        return bookingRepository.count();
+        return bookingRepository.count() + bookingArchiveService.countArchivedBookings();
     }
 
+    @Transactional(readOnly = true)
     public long getBookingCountByStatus(BookingStatus status) {
-        return bookingRepository.findByStatus(status).size();
+        return bookingRepository.countByStatus(status) + bookingArchiveService.countArchivedBookingsByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public long getUserBookingCount(User user) {
-        return bookingRepository.findByUser(user).size();
+        return bookingArchiveService.countBookingHistoryByUser(user);
     }
 
+    @Transactional(readOnly = true)
     public long getVehicleBookingCount(Vehicle vehicle) {
         return bookingRepository.countApprovedBookingsByVehicle(vehicle);
     }
 
+    private void publishChange(Booking booking) {
+        bookingQuotaService.track(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking.getUser().getId(),
+                booking.getVehicle() != null ? booking.getVehicle().getId() : null, booking.getStatus()));
+    }
+
     private void validateBookingDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
         LocalDateTime now = LocalDateTime.now();
 
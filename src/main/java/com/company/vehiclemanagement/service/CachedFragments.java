@@ -0,0 +1,64 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.VehicleView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.company.vehiclemanagement.service.FragmentCache.Topic.BOOKINGS;
+import static com.company.vehiclemanagement.service.FragmentCache.Topic.USERS;
+import static com.company.vehiclemanagement.service.FragmentCache.Topic.VEHICLES;
+
+/**
+ * The page widgets served from {@link FragmentCache}, with the data each one
+ * needs and the topics it depends on. Templates insert the returned markup
+ * with th:utext.
+ */
+@Service
+public class CachedFragments {
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private UserService userService;
+
+    public String fleetStatus() {
+        return fragmentCache.render("fragments/fleet-status", "fleetStatus", "",
+                () -> Map.of(
+                        "availableVehicles", vehicleService.getAvailableVehicleCount(),
+                        "totalVehicles", vehicleService.getTotalVehicleCount()),
+                VEHICLES);
+    }
+
+    public String adminStats() {
+        return fragmentCache.render("fragments/admin-stats", "adminStats", "",
+                () -> Map.of(
+                        "totalBookings", bookingService.getTotalBookingCount(),
+                        "pendingBookingsCount", bookingService.getBookingCountByStatus(BookingStatus.PENDING),
+                        "totalVehicles", vehicleService.getTotalVehicleCount(),
+                        "availableVehicles", vehicleService.getAvailableVehicleCount(),
+                        "totalUsers", userService.getTotalUserCount(),
+                        "activeUsers", userService.getActiveUserCount()),
+                BOOKINGS, VEHICLES, USERS);
+    }
+
+    /**
+     * @param variant the catalog filter the list was selected with, e.g. "type=SUV"; null if not cacheable
+     */
+    public String vehicleCards(String variant, Supplier<List<VehicleView>> vehicles) {
+        return fragmentCache.render("fragments/vehicle-cards", "vehicleCards", variant,
+                () -> Map.of("vehicles", vehicles.get()),
+                VEHICLES);
+    }
+}
@@ -0,0 +1,28 @@
+package com.company.vehiclemanagement.service;
+
+/**
+ * Identifies one iCalendar subscription feed: the bookings of a user, of a
+ * vehicle or of everyone in a department.
+ */
+public record CalendarFeed(Type type, String id) {
+
+    public enum Type {
+        USER, VEHICLE, DEPARTMENT
+    }
+
+    public static CalendarFeed user(Long userId) {
+        return new CalendarFeed(Type.USER, String.valueOf(userId));
+    }
+
+    public static CalendarFeed vehicle(Long vehicleId) {
+        return new CalendarFeed(Type.VEHICLE, String.valueOf(vehicleId));
+    }
+
+    public static CalendarFeed department(String department) {
+        return new CalendarFeed(Type.DEPARTMENT, department);
+    }
+
+    public String key() {
+        return type.name().toLowerCase() + ":" + id;
+    }
+}
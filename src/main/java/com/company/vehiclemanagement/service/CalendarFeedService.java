@@ -0,0 +1,401 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.FeedState;
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * iCalendar (RFC 5545) subscription feeds for users, vehicles and departments.
+ *
+ * Calendar clients poll feeds every few minutes. The ETag is built from the
+ * current day (the feed window moves daily) and a digest of the feed's
+ * {@link FeedState}: which bookings are in the window and when they, their
+ * users and their vehicles last changed. Feed bodies contain just those
+ * bookings plus the names of their users and vehicles (DTSTAMP is the
+ * creation time), so equal ETags mean equal bytes, on whichever node of a
+ * cluster answers.
+ *
+ * The ETag of each feed is cached until a version counter that committed
+ * {@link BookingChangedEvent}s bump, so unchanged feeds are answered with 304
+ * without a query. A {@link UserChangedEvent} bumps the user's feed and the
+ * departments the user's bookings left and joined; a rename of a user or
+ * vehicle that appears in an already written feed bumps the generation, and
+ * with it every feed.
+ *
+ * Feed URLs carry a token instead of a login, because calendar clients cannot
+ * do form login and most cannot do basic auth. The token names the user it
+ * was issued to and their calendar token version, signed with HMAC together
+ * with the feed key. It stops working when the user is deactivated, leaves
+ * the department of a department feed, or revokes their links (which bumps
+ * the version). Vehicle feeds show who booked the vehicle and where to, so
+ * only fleet managers and admins get them, and a token stops working when its
+ * user loses that role.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarFeedService.class);
+
+    private static final Set<BookingStatus> FEED_STATUSES = EnumSet.of(BookingStatus.PENDING,
+            BookingStatus.APPROVED, BookingStatus.COMPLETED);
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Value("${app.calendar.secret:}")
+    private String secret;
+
+    @Value("${app.calendar.history-days:30}")
+    private int historyDays;
+
+    @Value("${app.calendar.max-tracked-bookings:100000}")
+    private int maxTrackedBookings;
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, CachedEtag> etags = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Last vehicle seen per open booking, so moving a booking also refreshes the vehicle it left.
+    // Least recently seen entries are dropped beyond max-tracked-bookings; the daily ETag change bounds the effect
+    private final Map<Long, Long> vehicleByBooking = new LinkedHashMap<>(16, 0.75f, true);
+    // Department the user's bookings were last shown under
+    private final Map<Long, String> departmentByUser = new ConcurrentHashMap<>();
+    // Names as written into feeds since boot; only those can make an ETag stale
+    private final Map<Long, String> writtenUserNames = new ConcurrentHashMap<>();
+    private final Map<Long, String> writtenVehicleNames = new ConcurrentHashMap<>();
+    // Token checks without a query per poll; dropped on UserChangedEvent
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            logger.warn("app.calendar.secret is not set; calendar feed links change on every restart");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        signingKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+    }
+
+    /**
+     * Token for {@code user} to subscribe to {@code feed}: userId.version.signature.
+     */
+    public String token(CalendarFeed feed, User user) {
+        return user.getId() + "." + user.getCalendarTokenVersion() + "."
+                + sign(feed, user.getId(), user.getCalendarTokenVersion());
+    }
+
+    public boolean isValidToken(CalendarFeed feed, String token) {
+        if (token == null) {
+            return false;
+        }
+        String[] parts = token.split("\\.", 3);
+        if (parts.length != 3) {
+            return false;
+        }
+        long userId;
+        int version;
+        try {
+            userId = Long.parseLong(parts[0]);
+            version = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!MessageDigest.isEqual(sign(feed, userId, version).getBytes(StandardCharsets.US_ASCII),
+                parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        // Only signed tokens get here, so unknown ids cannot fill the cache
+        Subscriber subscriber = subscribers.computeIfAbsent(userId, id -> userService.findById(id)
+                .map(Subscriber::of).orElse(Subscriber.GONE));
+        return subscriber.active() && subscriber.tokenVersion() == version
+                && (feed.type() != CalendarFeed.Type.DEPARTMENT || feed.id().equals(subscriber.department()))
+                && (feed.type() != CalendarFeed.Type.VEHICLE || canSeeVehicleFeeds(subscriber.role()));
+    }
+
+    public boolean canSeeVehicleFeeds(User user) {
+        return canSeeVehicleFeeds(user.getRole());
+    }
+
+    private static boolean canSeeVehicleFeeds(Role role) {
+        return role == Role.ADMIN || role == Role.FLEET_MANAGER;
+    }
+
+    /**
+     * Current strong ETag of the feed. Queries the feed's state only when a
+     * change or the new day has made the cached one stale.
+     */
+    public String etag(CalendarFeed feed) {
+        LocalDate today = LocalDate.now(zone);
+        // Read before the query, so a change committed meanwhile leaves the entry stale
+        long version = versions.computeIfAbsent(feed.key(), k -> new AtomicLong()).get();
+        long currentGeneration = generation.get();
+        CachedEtag cached = etags.get(feed.key());
+        if (cached != null && cached.day() == today.toEpochDay() && cached.generation() == currentGeneration
+                && cached.version() == version) {
+            return cached.etag();
+        }
+        FeedState state = bookingQueryService.findFeedState(feed, FEED_STATUSES, since(today));
+        String etag = "\"" + today.toEpochDay() + "-" + digest(state) + "\"";
+        etags.put(feed.key(), new CachedEtag(today.toEpochDay(), currentGeneration, version, etag));
+        return etag;
+    }
+
+    /**
+     * Writes the feed, one VEVENT per booking as rows arrive from the database.
+     */
+    public void write(CalendarFeed feed, Writer writer) throws IOException {
+        LocalDateTime since = since(LocalDate.now(zone));
+        writer.write("BEGIN:VCALENDAR\r\n");
+        writer.write("VERSION:2.0\r\n");
+        writer.write("PRODID:-//Company//Vehicle Management//EN\r\n");
+        writer.write("CALSCALE:GREGORIAN\r\n");
+        writeLine(writer, "X-WR-CALNAME:" + escape(calendarName(feed)));
+        try {
+            bookingQueryService.forEachFeedBooking(feed, FEED_STATUSES, since, booking -> {
+                remember(booking);
+                if (feed.type() == CalendarFeed.Type.DEPARTMENT) {
+                    departmentByUser.put(booking.userId(), feed.id());
+                }
+                try {
+                    writeEvent(feed, booking, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.write("END:VCALENDAR\r\n");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        bump(CalendarFeed.user(event.userId()));
+        // Only pending and approved bookings can still move to another vehicle
+        boolean open = event.status() == BookingStatus.PENDING || event.status() == BookingStatus.APPROVED;
+        Long previous = open && event.vehicleId() != null
+                ? trackVehicle(event.bookingId(), event.vehicleId())
+                : untrackVehicle(event.bookingId());
+        if (event.vehicleId() != null) {
+            bump(CalendarFeed.vehicle(event.vehicleId()));
+        }
+        if (previous != null && !previous.equals(event.vehicleId())) {
+            bump(CalendarFeed.vehicle(previous));
+        }
+        String department = departmentByUser.computeIfAbsent(event.userId(),
+                id -> userService.findById(id).map(User::getDepartment).orElse(""));
+        if (!department.isEmpty()) {
+            bump(CalendarFeed.department(department));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        subscribers.remove(event.userId());
+        bump(CalendarFeed.user(event.userId()));
+        Optional<User> user = userService.findById(event.userId());
+        String department = user.map(User::getDepartment).orElse("");
+        // Moving departments moves the user's bookings from one department feed to the other
+        String shownUnder = departmentByUser.remove(event.userId());
+        if (shownUnder != null && !shownUnder.isEmpty() && !shownUnder.equals(department)) {
+            bump(CalendarFeed.department(shownUnder));
+        }
+        if (!department.isEmpty()) {
+            bump(CalendarFeed.department(department));
+        }
+        String writtenName = writtenUserNames.get(event.userId());
+        if (writtenName != null && !writtenName.equals(user.map(User::getFullName).orElse(null))) {
+            // The name is in vehicle and department feeds that cannot be narrowed down from memory
+            writtenUserNames.remove(event.userId());
+            generation.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        String writtenName = writtenVehicleNames.get(event.vehicleId());
+        if (writtenName != null && !writtenName.equals(vehicleQueryService.findById(event.vehicleId())
+                .map(vehicle -> vehicleName(vehicle.displayName(), vehicle.licensePlate())).orElse(null))) {
+            // In the feeds of every user and department that booked it
+            writtenVehicleNames.remove(event.vehicleId());
+            generation.incrementAndGet();
+        }
+    }
+
+    private void remember(BookingView booking) {
+        if (booking.vehicleId() != null) {
+            if (booking.status() == BookingStatus.PENDING || booking.status() == BookingStatus.APPROVED) {
+                trackVehicle(booking.id(), booking.vehicleId());
+            }
+            writtenVehicleNames.put(booking.vehicleId(), vehicleName(booking.vehicleDisplayName(),
+                    booking.licensePlate()));
+        }
+        writtenUserNames.put(booking.userId(), booking.userFullName());
+    }
+
+    private synchronized Long trackVehicle(Long bookingId, Long vehicleId) {
+        Long previous = vehicleByBooking.put(bookingId, vehicleId);
+        if (vehicleByBooking.size() > maxTrackedBookings) {
+            Iterator<Long> eldest = vehicleByBooking.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return previous;
+    }
+
+    private synchronized Long untrackVehicle(Long bookingId) {
+        return vehicleByBooking.remove(bookingId);
+    }
+
+    private void bump(CalendarFeed feed) {
+        versions.computeIfAbsent(feed.key(), k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private LocalDateTime since(LocalDate today) {
+        return today.minusDays(historyDays).atStartOfDay();
+    }
+
+    private static String digest(FeedState state) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String sign(CalendarFeed feed, long userId, int version) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            byte[] signature = mac.doFinal((feed.key() + "|" + userId + "|" + version)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private void writeEvent(CalendarFeed feed, BookingView booking, Writer writer) throws IOException {
+        String vehicle = booking.vehicleDisplayName() != null
+                ? vehicleName(booking.vehicleDisplayName(), booking.licensePlate())
+                : "Vehicle to be assigned";
+        String summary = feed.type() == CalendarFeed.Type.USER
+                ? vehicle + " - " + booking.destination()
+                : booking.userFullName() + ": " + vehicle + " - " + booking.destination();
+
+        writer.write("BEGIN:VEVENT\r\n");
+        writeLine(writer, "UID:booking-" + booking.id() + "@vehicle-management");
+        writeLine(writer, "DTSTAMP:" + utc(booking.createdAt() != null ? booking.createdAt() : booking.startDateTime()));
+        writeLine(writer, "DTSTART:" + utc(booking.startDateTime()));
+        writeLine(writer, "DTEND:" + utc(booking.endDateTime()));
+        writeLine(writer, "SUMMARY:" + escape(summary));
+        writeLine(writer, "LOCATION:" + escape(booking.destination()));
+        writeLine(writer, "STATUS:" + (booking.status() == BookingStatus.PENDING ? "TENTATIVE" : "CONFIRMED"));
+        writer.write("END:VEVENT\r\n");
+    }
+
+    private String calendarName(CalendarFeed feed) {
+        return switch (feed.type()) {
+            case USER -> "My vehicle bookings";
+            case VEHICLE -> "Vehicle " + feed.id() + " schedule";
+            case DEPARTMENT -> feed.id() + " vehicle bookings";
+        };
+    }
+
+    private String utc(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT);
+    }
+
+    private static String vehicleName(String displayName, String licensePlate) {
+        return displayName + " (" + licensePlate + ")";
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                .replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "\\n");
+    }
+
+    // Content lines longer than 75 octets are folded with CRLF and a leading space
+    private static void writeLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            if (octets + size > MAX_LINE_OCTETS) {
+                writer.write(line, start, i - start);
+                writer.write("\r\n ");
+                start = i;
+                // The leading space counts towards the next line
+                octets = 1;
+            }
+            octets += size;
+        }
+        writer.write(line, start, line.length() - start);
+        writer.write("\r\n");
+    }
+
+    private record CachedEtag(long day, long generation, long version, String etag) {
+    }
+
+    private record Subscriber(boolean active, int tokenVersion, String department, Role role) {
+
+        static final Subscriber GONE = new Subscriber(false, -1, null, null);
+
+        static Subscriber of(User user) {
+            return new Subscriber(user.isActive(), user.getCalendarTokenVersion(), user.getDepartment(),
+                    user.getRole());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.ChargebackLine;
+import com.company.vehiclemanagement.model.ChargebackUsage;
+import com.company.vehiclemanagement.model.FuelType;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.repository.BookingArchiveRepository;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.ChargebackLineRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Monthly departmental chargeback: booked hours and driven distance of every
+ * approved or completed booking overlapping the month, priced with the rate
+ * card (app.chargeback.hourly-rates by vehicle type, app.chargeback.km-rates
+ * by fuel type, each with a "default" entry).
+ *
+ * The month's bookings are streamed from the hot and archive tables in one
+ * read-only transaction (the replica when one is configured) and spread over
+ * partitions by vehicle. The partitions are then aggregated in parallel on a
+ * fork-join pool and the totals written to chargeback_lines, replacing
+ * whatever an earlier run of the same month wrote. Bookings crossing a month
+ * boundary are split by the share of their time within the month.
+ */
+@Service
+public class ChargebackService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargebackService.class);
+
+    private static final Set<BookingStatus> BILLABLE_STATUSES =
+            EnumSet.of(BookingStatus.APPROVED, BookingStatus.COMPLETED);
+
+    private static final String UNASSIGNED = "UNASSIGNED";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private ChargebackLineRepository chargebackLineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.chargeback.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.chargeback.partitions:64}")
+    private int partitions;
+
+    private ForkJoinPool pool;
+    private Map<VehicleType, BigDecimal> hourlyRates;
+    private BigDecimal defaultHourlyRate;
+    private Map<FuelType, BigDecimal> kmRates;
+    private BigDecimal defaultKmRate;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism);
+        Map<String, BigDecimal> hourly = rates("app.chargeback.hourly-rates");
+        Map<String, BigDecimal> perKm = rates("app.chargeback.km-rates");
+        defaultHourlyRate = hourly.getOrDefault("default", BigDecimal.ZERO);
+        defaultKmRate = perKm.getOrDefault("default", BigDecimal.ZERO);
+        hourlyRates = byEnum(hourly, VehicleType.class);
+        kmRates = byEnum(perKm, FuelType.class);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(cron = "${app.chargeback.cron:0 0 3 1 * *}")
+    public void runPreviousMonth() {
+        run(YearMonth.now().minusMonths(1));
+    }
+
+    /**
+     * Computes and stores the chargeback of a month. Running a month again
+     * replaces its lines, so a run can be repeated after late corrections.
+     */
+    public synchronized List<ChargebackLine> run(YearMonth month) {
+        long started = System.nanoTime();
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        List<List<ChargebackUsage>> buckets = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        Consumer<ChargebackUsage> distribute =
+                usage -> buckets.get(Math.floorMod(usage.vehicleId().hashCode(), partitions)).add(usage);
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+        read.executeWithoutResult(status -> {
+            try (Stream<ChargebackUsage> hot = bookingRepository.streamUsageBetween(BILLABLE_STATUSES, from, to)) {
+                hot.forEach(distribute);
+            }
+            try (Stream<ChargebackUsage> cold =
+                    bookingArchiveRepository.streamUsageBetween(BILLABLE_STATUSES, from, to)) {
+                cold.forEach(distribute);
+            }
+        });
+
+        Map<LineKey, Totals> totals = pool.invoke(new AggregateTask(buckets, 0, buckets.size(), from, to));
+
+        String period = month.toString();
+        LocalDateTime computedAt = LocalDateTime.now();
+        List<ChargebackLine> lines = new ArrayList<>(totals.size());
+        totals.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(LineKey.ORDER))
+                .forEach(entry -> lines.add(toLine(period, entry.getKey(), entry.getValue(), computedAt)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            chargebackLineRepository.deleteByPeriod(period);
+            chargebackLineRepository.saveAll(lines);
+        });
+
+        int bookings = totals.values().stream().mapToInt(t -> t.bookings).sum();
+        logger.info("Chargeback for {}: {} bookings in {} lines in {} ms", period, bookings, lines.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return lines;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChargebackLine> findLines(YearMonth month) {
+        return chargebackLineRepository.findByPeriodOrderByDepartmentAscVehicleTypeAscFuelTypeAsc(month.toString());
+    }
+
+    private ChargebackLine toLine(String period, LineKey key, Totals totals, LocalDateTime computedAt) {
+        BigDecimal hourlyRate = key.vehicleType() != null
+                ? hourlyRates.getOrDefault(key.vehicleType(), defaultHourlyRate) : defaultHourlyRate;
+        BigDecimal kmRate = key.fuelType() != null
+                ? kmRates.getOrDefault(key.fuelType(), defaultKmRate) : defaultKmRate;
+        BigDecimal hours = BigDecimal.valueOf(totals.hours).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal km = BigDecimal.valueOf(totals.km).setScale(1, RoundingMode.HALF_UP);
+        BigDecimal amount = hours.multiply(hourlyRate).add(km.multiply(kmRate)).setScale(2, RoundingMode.HALF_UP);
+        return new ChargebackLine(period, key.department(), key.vehicleType(), key.fuelType(), totals.bookings,
+                hours.doubleValue(), km.doubleValue(), hourlyRate, kmRate, amount, computedAt);
+    }
+
+    private Map<String, BigDecimal> rates(String prefix) {
+        return Binder.get(environment).bind(prefix, Bindable.mapOf(String.class, BigDecimal.class))
+                .orElseGet(HashMap::new);
+    }
+
+    private static <E extends Enum<E>> Map<E, BigDecimal> byEnum(Map<String, BigDecimal> rates, Class<E> type) {
+        Map<E, BigDecimal> result = new EnumMap<>(type);
+        rates.forEach((name, rate) -> {
+            if (!name.equals("default")) {
+                try {
+                    result.put(Enum.valueOf(type, name.toUpperCase(Locale.ROOT)), rate);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Unknown " + type.getSimpleName() + " in chargeback rates: " + name);
+                }
+            }
+        });
+        return result;
+    }
+
+    private record LineKey(String department, VehicleType vehicleType, FuelType fuelType) {
+
+        static final Comparator<LineKey> ORDER = Comparator.comparing(LineKey::department)
+                .thenComparing(LineKey::vehicleType, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(LineKey::fuelType, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static final class Totals {
+        int bookings;
+        double hours;
+        double km;
+
+        void merge(Totals other) {
+            bookings += other.bookings;
+            hours += other.hours;
+            km += other.km;
+        }
+    }
+
+    /** Splits the partition range in halves down to single partitions and merges the totals back up. */
+    private static final class AggregateTask extends RecursiveTask<Map<LineKey, Totals>> {
+
+        private final List<List<ChargebackUsage>> buckets;
+        private final int lo;
+        private final int hi;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        AggregateTask(List<List<ChargebackUsage>> buckets, int lo, int hi, LocalDateTime from, LocalDateTime to) {
+            this.buckets = buckets;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<LineKey, Totals> compute() {
+            if (hi - lo <= 1) {
+                return lo < hi ? aggregate(buckets.get(lo)) : new HashMap<>();
+            }
+            int mid = (lo + hi) >>> 1;
+            AggregateTask left = new AggregateTask(buckets, lo, mid, from, to);
+            left.fork();
+            Map<LineKey, Totals> result = new AggregateTask(buckets, mid, hi, from, to).compute();
+            left.join().forEach((key, totals) -> result.merge(key, totals, (a, b) -> {
+                a.merge(b);
+                return a;
+            }));
+            return result;
+        }
+
+        private Map<LineKey, Totals> aggregate(List<ChargebackUsage> usages) {
+            Map<LineKey, Totals> result = new HashMap<>();
+            for (ChargebackUsage usage : usages) {
+                long total = Duration.between(usage.startDateTime(), usage.endDateTime()).toMinutes();
+                LocalDateTime start = usage.startDateTime().isAfter(from) ? usage.startDateTime() : from;
+                LocalDateTime end = usage.endDateTime().isBefore(to) ? usage.endDateTime() : to;
+                long inMonth = Duration.between(start, end).toMinutes();
+                if (total <= 0 || inMonth <= 0) {
+                    continue;
+                }
+                String department = usage.department() != null && !usage.department().isBlank()
+                        ? usage.department() : UNASSIGNED;
+                Totals totals = result.computeIfAbsent(
+                        new LineKey(department, usage.vehicleType(), usage.fuelType()), k -> new Totals());
+                totals.bookings++;
+                totals.hours += inMonth / 60.0;
+                if (usage.tripDistanceKm() != null) {
+                    totals.km += usage.tripDistanceKm() * inMonth / total;
+                }
+            }
+            return result;
+        }
+    }
+}
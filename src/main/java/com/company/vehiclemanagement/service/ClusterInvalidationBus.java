@@ -0,0 +1,260 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Carries booking, vehicle and user change events between the nodes of a
+ * cluster so that every node's in-process caches drop stale entries.
+ *
+ * Each local change event is written to cache_invalidations in the
+ * transaction that made the change (before commit), so a change and its
+ * invalidation commit or roll back together. Every node polls the table every
+ * app.cluster.poll-ms and republishes rows written by other nodes as local
+ * events, which the caches already listen to.
+ *
+ * Identity values are handed out at insert but become visible at commit, so a
+ * row can show up after rows with higher ids. The poller remembers when it
+ * first noticed each missing id and rereads just those ids on later polls.
+ * The watermark, below which every id is either seen or given up on, passes a
+ * hole once it has been missing for app.cluster.settle-ms (usually a
+ * rolled-back insert), but the id is still rechecked until
+ * app.cluster.retention-minutes, so a transaction that commits late is applied
+ * late rather than lost. Only a commit more than retention-minutes after its
+ * insert is missed, and by then cleanup could have deleted the row anyway.
+ * Off unless app.cluster.enabled=true.
+ */
+@Service
+public class ClusterInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterInvalidationBus.class);
+
+    private static final String INSERT_SQL = "INSERT INTO cache_invalidations "
+            + "(entity_type, entity_id, user_id, vehicle_id, status, origin_node, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_COLUMNS = "SELECT id, entity_type, entity_id, user_id, vehicle_id, status, "
+            + "origin_node FROM cache_invalidations ";
+    private static final String SELECT_NEW_SQL = SELECT_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_IDS_SQL = SELECT_COLUMNS + "WHERE id IN (%s) ORDER BY id";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM cache_invalidations";
+    private static final String DELETE_SQL = "DELETE FROM cache_invalidations WHERE created_at < ?";
+
+    private static final RowMapper<Change> CHANGE_MAPPER = (rs, rowNum) -> new Change(
+            rs.getLong("id"),
+            rs.getString("entity_type"),
+            rs.getLong("entity_id"),
+            rs.getObject("user_id", Long.class),
+            rs.getObject("vehicle_id", Long.class),
+            rs.getString("status"),
+            rs.getString("origin_node"));
+
+    // Set while a remote change is republished, so it is not written back to the table
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${app.cluster.max-batch:1000}")
+    private int maxBatch;
+
+    @Value("${app.cluster.settle-ms:5000}")
+    private long settleMs;
+
+    @Value("${app.cluster.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // Poller state; only touched by the scheduled poll
+    private long watermark;
+    private long lastRead;
+    private final TreeSet<Long> seen = new TreeSet<>();
+    // Ids not visible yet, with the time each was first found missing
+    private final TreeMap<Long, Long> missing = new TreeMap<>();
+
+    private Counter published;
+    private Counter applied;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        published = Counter.builder("app.cluster.invalidations").tag("result", "published").register(meterRegistry);
+        applied = Counter.builder("app.cluster.invalidations").tag("result", "applied").register(meterRegistry);
+        // Changes from before this node started are already in what it loads from the database
+        watermark = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        lastRead = watermark;
+        logger.info("Cluster invalidation bus started as node {} at change {}", nodeId, watermark);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * True while a change made on another node is being republished. Listeners
+     * that already applied local changes directly use it to act on remote ones.
+     */
+    public static boolean isReplaying() {
+        return REPLAYING.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish("BOOKING", event.bookingId(), event.userId(), event.vehicleId(),
+                event.status() != null ? event.status().name() : null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        publish("VEHICLE", event.vehicleId(), null, event.vehicleId(), null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        publish("USER", event.userId(), event.userId(), null, null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.poll-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            List<Change> changes = jdbcTemplate.query(SELECT_NEW_SQL, CHANGE_MAPPER, lastRead, maxBatch);
+            for (Change change : changes) {
+                // Holes below this row: transactions that have not committed yet, or rolled back
+                for (long id = lastRead + 1; id < change.id(); id++) {
+                    missing.put(id, now);
+                }
+                accept(change);
+                lastRead = change.id();
+            }
+            recheckMissing(now);
+            advanceWatermark(now);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to poll cache invalidations", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.cleanup-ms:600000}")
+    public void deleteOldChanges() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = jdbcTemplate.update(DELETE_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        if (deleted > 0) {
+            logger.debug("Deleted {} old cache invalidations", deleted);
+        }
+    }
+
+    private void publish(String entityType, Long entityId, Long userId, Long vehicleId, String status) {
+        if (!enabled || REPLAYING.get() || entityId == null) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, entityType, entityId, userId, vehicleId, status, nodeId,
+                Timestamp.valueOf(LocalDateTime.now()));
+        published.increment();
+    }
+
+    private void accept(Change change) {
+        if (change.id() > watermark) {
+            seen.add(change.id());
+        }
+        handle(change);
+    }
+
+    private void recheckMissing(long now) {
+        long retentionMs = retentionMinutes * 60_000;
+        missing.values().removeIf(since -> now - since > retentionMs);
+        if (missing.isEmpty()) {
+            return;
+        }
+        Object[] ids = missing.keySet().stream().limit(maxBatch).toArray();
+        String sql = String.format(SELECT_IDS_SQL, String.join(",", Collections.nCopies(ids.length, "?")));
+        for (Change change : jdbcTemplate.query(sql, CHANGE_MAPPER, ids)) {
+            missing.remove(change.id());
+            accept(change);
+        }
+    }
+
+    private void handle(Change change) {
+        if (nodeId.equals(change.originNode())) {
+            return;
+        }
+        Object event = switch (change.entityType()) {
+            case "BOOKING" -> new BookingChangedEvent(change.entityId(), change.userId(), change.vehicleId(),
+                    change.status() != null ? BookingStatus.valueOf(change.status()) : null);
+            case "VEHICLE" -> new VehicleChangedEvent(change.entityId());
+            case "USER" -> new UserChangedEvent(change.entityId());
+            default -> null;
+        };
+        if (event == null) {
+            logger.warn("Ignoring cache invalidation {} with unknown type {}", change.id(), change.entityType());
+            return;
+        }
+        REPLAYING.set(true);
+        try {
+            // No transaction is active here, so the listeners run right away
+            eventPublisher.publishEvent(event);
+            applied.increment();
+        } finally {
+            REPLAYING.set(false);
+        }
+    }
+
+    private void advanceWatermark(long now) {
+        while (watermark < lastRead) {
+            long next = watermark + 1;
+            if (!seen.remove(next)) {
+                Long since = missing.get(next);
+                if (since != null && now - since < settleMs) {
+                    break;
+                }
+                // Missing for settle-ms: most likely rolled back, but still rechecked until retention
+            }
+            watermark = next;
+        }
+    }
+
+    private record Change(long id, String entityType, Long entityId, Long userId, Long vehicleId, String status,
+            String originNode) {
+    }
+}
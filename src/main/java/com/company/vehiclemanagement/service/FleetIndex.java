@@ -0,0 +1,172 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.model.VehicleView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory vehicle catalog partitioned by site (depot).
+ *
+ * Each site's vehicles are loaded with one query the first time the site is
+ * asked for and indexed by type and status, so catalog lookups for a user's
+ * site never scan other depots. A committed {@link VehicleChangedEvent} drops
+ * the partition the vehicle was indexed in and the one it belongs to now,
+ * which covers vehicles moved between sites. Partitions also expire after
+ * app.fleet.max-age-seconds because the telemetry writer updates mileage
+ * without an event.
+ *
+ * A null site means the whole fleet; those lookups go to the database as
+ * before and are not cached, since they are meant for admins and users that
+ * have no home site.
+ */
+@Service
+public class FleetIndex {
+
+    // Marks vehicles without a site in siteByVehicle, which cannot hold nulls
+    private static final String NO_SITE = "";
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Value("${app.fleet.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<Long, String> siteByVehicle = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile List<String> sites;
+
+    /**
+     * Vehicles of the site ordered by make and model, or the whole fleet when
+     * {@code siteCode} is null.
+     */
+    public List<VehicleView> vehicles(String siteCode) {
+        return siteCode == null ? vehicleQueryService.findAllVehicles() : partition(siteCode).vehicles();
+    }
+
+    public List<VehicleView> availableVehicles(String siteCode) {
+        return vehiclesByStatus(siteCode, VehicleStatus.AVAILABLE);
+    }
+
+    public List<VehicleView> vehiclesByStatus(String siteCode, VehicleStatus status) {
+        if (siteCode == null) {
+            return vehicleQueryService.findVehiclesByStatus(status);
+        }
+        return partition(siteCode).byStatus().getOrDefault(status, List.of());
+    }
+
+    public List<VehicleView> vehiclesByType(String siteCode, VehicleType type) {
+        if (siteCode == null) {
+            return vehicleQueryService.findVehiclesByType(type);
+        }
+        return partition(siteCode).byType().getOrDefault(type, List.of());
+    }
+
+    public List<VehicleView> vehiclesByCapacity(String siteCode, Integer minCapacity) {
+        if (siteCode == null) {
+            return vehicleQueryService.findVehiclesByCapacity(minCapacity);
+        }
+        List<VehicleView> result = new ArrayList<>();
+        for (VehicleView vehicle : partition(siteCode).vehicles()) {
+            if (vehicle.seatingCapacity() != null && vehicle.seatingCapacity() >= minCapacity) {
+                result.add(vehicle);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Site of the vehicle; empty for unknown vehicles and vehicles without a
+     * site.
+     */
+    public Optional<String> siteOf(Long vehicleId) {
+        String site = siteByVehicle.get(vehicleId);
+        if (site == null) {
+            Optional<VehicleView> vehicle = vehicleQueryService.findById(vehicleId);
+            if (vehicle.isEmpty()) {
+                return Optional.empty();
+            }
+            site = vehicle.get().siteCode() != null ? vehicle.get().siteCode() : NO_SITE;
+            siteByVehicle.put(vehicleId, site);
+        }
+        return site.equals(NO_SITE) ? Optional.empty() : Optional.of(site);
+    }
+
+    public List<String> sites() {
+        List<String> current = sites;
+        if (current == null) {
+            current = List.copyOf(vehicleQueryService.findSiteCodes());
+            sites = current;
+        }
+        return current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        version.incrementAndGet();
+        String previous = siteByVehicle.remove(event.vehicleId());
+        if (previous != null) {
+            partitions.remove(previous);
+        }
+        siteOf(event.vehicleId()).ifPresent(partitions::remove);
+        sites = null;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        partitions.clear();
+        siteByVehicle.clear();
+        sites = null;
+    }
+
+    private Partition partition(String siteCode) {
+        Partition partition = partitions.get(siteCode);
+        if (partition != null
+                && System.nanoTime() - partition.loadedAt() < TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            return partition;
+        }
+        long loadVersion = version.get();
+        partition = load(siteCode);
+        // A change committed during the load may not be in it; serve it once but do not keep it
+        if (version.get() == loadVersion) {
+            partitions.put(siteCode, partition);
+        }
+        return partition;
+    }
+
+    private Partition load(String siteCode) {
+        List<VehicleView> vehicles = vehicleQueryService.findVehiclesAtSite(siteCode);
+        Map<VehicleType, List<VehicleView>> byType = new EnumMap<>(VehicleType.class);
+        Map<VehicleStatus, List<VehicleView>> byStatus = new EnumMap<>(VehicleStatus.class);
+        for (VehicleView vehicle : vehicles) {
+            if (vehicle.type() != null) {
+                byType.computeIfAbsent(vehicle.type(), t -> new ArrayList<>()).add(vehicle);
+            }
+            if (vehicle.status() != null) {
+                byStatus.computeIfAbsent(vehicle.status(), s -> new ArrayList<>()).add(vehicle);
+            }
+            siteByVehicle.put(vehicle.id(), siteCode);
+        }
+        byType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        byStatus.replaceAll((status, list) -> Collections.unmodifiableList(list));
+        return new Partition(List.copyOf(vehicles), byType, byStatus, System.nanoTime());
+    }
+
+    private record Partition(List<VehicleView> vehicles, Map<VehicleType, List<VehicleView>> byType,
+            Map<VehicleStatus, List<VehicleView>> byStatus, long loadedAt) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.company.vehiclemanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Render cache for Thymeleaf fragments that are expensive to build but change
+ * rarely (vehicle cards, fleet status, admin statistics).
+ *
+ * A fragment is rendered once and kept as markup together with the versions
+ * of the data topics it depends on. The versions are bumped after every
+ * committed {@link BookingChangedEvent} / {@link VehicleChangedEvent}, so a
+ * cached fragment is served until something it shows has changed, or until
+ * app.fragment-cache.max-age-seconds for values without events (user counts).
+ * On a hit neither the model supplier nor the template engine runs.
+ *
+ * Disabled by default so template edits show up immediately during
+ * development; the prod profile turns it on.
+ */
+@Service
+public class FragmentCache {
+
+    public enum Topic {
+        BOOKINGS, VEHICLES, USERS
+    }
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.fragment-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.fragment-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${app.fragment-cache.max-entries:256}")
+    private int maxEntries;
+
+    private final Map<Topic, AtomicLong> versions = new EnumMap<>(Topic.class);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public FragmentCache() {
+        for (Topic topic : Topic.values()) {
+            versions.put(topic, new AtomicLong());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the rendered markup of {@code template :: fragment}.
+     *
+     * @param variant   distinguishes renderings of the same fragment with different inputs (e.g. a filter);
+     *                  null renders without caching
+     * @param variables model for the fragment, only evaluated when it has to be rendered
+     * @param dependsOn data topics whose changes invalidate the rendering
+     */
+    public String render(String template, String fragment, String variant, Supplier<Map<String, Object>> variables,
+            Topic... dependsOn) {
+        if (!enabled || variant == null) {
+            return process(template, fragment, variables.get());
+        }
+
+        Locale locale = LocaleContextHolder.getLocale();
+        String key = template + "::" + fragment + "::" + variant + "::" + locale;
+        // Read the versions before rendering so a change that lands mid-render invalidates the result
+        String version = versionKey(dependsOn);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version.equals(version) && now - entry.renderedAt < maxAgeNanos()) {
+            counter(fragment, "hit").increment();
+            return entry.markup;
+        }
+
+        counter(fragment, "miss").increment();
+        String markup = process(template, fragment, variables.get());
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(version, markup, now));
+        return markup;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        versions.get(Topic.BOOKINGS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        versions.get(Topic.VEHICLES).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.get(Topic.USERS).incrementAndGet();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private String process(String template, String fragment, Map<String, Object> variables) {
+        return templateEngine.process(template, Set.of(fragment), context(variables));
+    }
+
+    // Link expressions (@{...}) need the servlet request when one is available
+    private static IContext context(Map<String, Object> variables) {
+        Locale locale = LocaleContextHolder.getLocale();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            HttpServletRequest request = attributes.getRequest();
+            HttpServletResponse response = attributes.getResponse();
+            return new WebContext(JakartaServletWebApplication.buildApplication(request.getServletContext())
+                    .buildExchange(request, response), locale, variables);
+        }
+        return new Context(locale, variables);
+    }
+
+    private String versionKey(Topic... topics) {
+        StringBuilder key = new StringBuilder();
+        for (Topic topic : topics) {
+            key.append(topic.ordinal()).append(':').append(versions.get(topic).get()).append(';');
+        }
+        return key.toString();
+    }
+
+    private long maxAgeNanos() {
+        return TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    private Counter counter(String fragment, String result) {
+        return Counter.builder("app.fragment.cache")
+                .tag("fragment", fragment)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(String version, String markup, long renderedAt) {
+    }
+}
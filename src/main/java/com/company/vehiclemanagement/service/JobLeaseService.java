@@ -0,0 +1,62 @@
+package com.company.vehiclemanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Leases in job_leases that let one node of a cluster own a scheduled job.
+ * A node runs the job only while it holds the lease and renews it on every
+ * run, so the owner keeps the job until it stops and another node picks it up
+ * once the lease has expired. The lease should outlast the interval between
+ * runs plus the clock skew between nodes. Every node owns every job unless
+ * app.cluster.enabled=true.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final String RENEW_SQL = "UPDATE job_leases SET owner = ?, expires_at = ? "
+            + "WHERE name = ? AND (owner = ? OR expires_at < ?)";
+    private static final String INSERT_SQL = "INSERT INTO job_leases (name, owner, expires_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClusterInvalidationBus clusterInvalidationBus;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Takes or renews the lease of a job for the given duration, committed on
+     * its own so other nodes see it while the job runs. False when another
+     * node holds an unexpired lease.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String job, Duration duration) {
+        if (!enabled) {
+            return true;
+        }
+        String node = clusterInvalidationBus.nodeId();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(duration));
+        if (jdbcTemplate.update(RENEW_SQL, node, expiresAt, job, node, Timestamp.valueOf(now)) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, job, node, expiresAt) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Held by another node, or taken by one at the same moment
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.vehiclemanagement.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Every slot carries a sequence number: a slot is free for position p when its
+ * sequence equals p, and holds a published element for p when it equals p + 1.
+ * Producers claim a run of positions with one CAS on the tail and publish each
+ * element by advancing its slot sequence; the consumer frees a slot by moving
+ * its sequence one lap ahead. A batch is claimed all-or-nothing, so a full
+ * buffer rejects the whole batch instead of storing part of it.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the consumer thread
+    private volatile long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Appends all elements, or none if there is not enough free room.
+     */
+    boolean offerAll(List<? extends E> batch) {
+        int n = batch.size();
+        if (n == 0) {
+            return true;
+        }
+        if (n > capacity()) {
+            return false;
+        }
+        long start;
+        while (true) {
+            start = tail.get();
+            long last = start + n - 1;
+            // Slots are freed in order, so the last slot of the run being free means all of them are
+            long sequence = sequences.get((int) (last & mask));
+            if (sequence < last) {
+                return false;
+            }
+            if (sequence == last && tail.compareAndSet(start, start + n)) {
+                break;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            long position = start + i;
+            int index = (int) (position & mask);
+            elements.lazySet(index, batch.get(i));
+            sequences.set(index, position + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published elements to {@code consumer} in order
+     * and returns how many were taken. Must only be called from one thread.
+     */
+    int drain(Consumer<E> consumer, int max) {
+        long position = head;
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                // Empty, or the producer that claimed this slot has not published yet
+                break;
+            }
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+            consumer.accept(element);
+            position++;
+            taken++;
+        }
+        head = position;
+        return taken;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
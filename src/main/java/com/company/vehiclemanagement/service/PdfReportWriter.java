@@ -0,0 +1,113 @@
+package com.company.vehiclemanagement.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * PDF table through OpenPDF. The table is marked incomplete and added to the
+ * document every {@value #FLUSH_ROWS} rows, which renders those rows to the
+ * stream and drops them from memory; the header row repeats on every page.
+ */
+final class PdfReportWriter implements ReportWriter {
+
+    private static final int FLUSH_ROWS = 200;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Document document = new Document(PageSize.A4.rotate(), 24, 24, 24, 24);
+    private final Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+    private final Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
+    private PdfPTable table;
+    private int pendingRows;
+
+    PdfReportWriter(OutputStream out, String title) throws IOException {
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            document.add(new Paragraph(title, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
+        } catch (DocumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        table = new PdfPTable(columns.size());
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(8);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        for (String column : columns) {
+            PdfPCell cell = new PdfPCell(new Phrase(column, headerFont));
+            cell.setGrayFill(0.9f);
+            table.addCell(cell);
+        }
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        for (Object value : values) {
+            PdfPCell cell = new PdfPCell(new Phrase(format(value), cellFont));
+            if (value instanceof Number) {
+                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            }
+            table.addCell(cell);
+        }
+        if (++pendingRows >= FLUSH_ROWS) {
+            add(table);
+            pendingRows = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (table != null) {
+            table.setComplete(true);
+            add(table);
+        }
+        document.close();
+    }
+
+    @Override
+    public void close() {
+        if (document.isOpen()) {
+            document.close();
+        }
+    }
+
+    private void add(Element element) throws IOException {
+        try {
+            document.add(element);
+        } catch (DocumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME.format(dateTime);
+        }
+        if (value instanceof Double number) {
+            return String.format("%.2f", number);
+        }
+        return value.toString();
+    }
+}
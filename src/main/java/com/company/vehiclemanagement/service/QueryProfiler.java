@@ -0,0 +1,184 @@
+package com.company.vehiclemanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Collects JDBC statement timings from the profiling DataSource proxy.
+ *
+ * Timings are aggregated per originating repository method (tracked by
+ * QueryProfilingConfig.QueryOriginAspect). Statements slower than app.profiling.slow-query-ms
+ * are captured with the types of their bind parameters and the controller
+ * endpoint that triggered them into a fixed-size ring buffer, so memory use
+ * stays bounded no matter how many slow statements occur. Parameter values are
+ * never kept: they include password hashes, e-mail addresses and phone numbers.
+ */
+@Service
+public class QueryProfiler implements QueryExecutionListener {
+
+    private static final String NO_ORIGIN = "(outside repository)";
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    @Value("${app.profiling.slow-query-ms:100}")
+    private long slowQueryMs;
+
+    @Value("${app.profiling.ring-size:256}")
+    private int ringSize;
+
+    private final ThreadLocal<String> currentOrigin = new ThreadLocal<>();
+    private final Map<String, OriginCounters> countersByOrigin = new ConcurrentHashMap<>();
+    private final AtomicLong slowQuerySequence = new AtomicLong();
+    private AtomicReferenceArray<SlowQuery> slowQueries;
+
+    @PostConstruct
+    public void init() {
+        slowQueries = new AtomicReferenceArray<>(ringSize);
+    }
+
+    /**
+     * Marks the current thread as running inside a repository method and
+     * returns the previous origin, which must be passed back to {@link #exit}.
+     */
+    public String enter(String origin) {
+        String previous = currentOrigin.get();
+        if (previous == null) {
+            // The outermost repository call is the one the service asked for
+            currentOrigin.set(origin);
+        }
+        return previous;
+    }
+
+    public void exit(String previous) {
+        if (previous == null) {
+            currentOrigin.remove();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String origin = currentOrigin.get() != null ? currentOrigin.get() : NO_ORIGIN;
+        long elapsedMs = execInfo.getElapsedTime();
+        countersByOrigin.computeIfAbsent(origin, k -> new OriginCounters()).record(elapsedMs, execInfo.isSuccess());
+
+        if (elapsedMs >= slowQueryMs) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            List<String> parameterTypes = new ArrayList<>();
+            for (QueryInfo queryInfo : queryInfoList) {
+                for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                    for (ParameterSetOperation operation : operations) {
+                        Object[] args = operation.getArgs();
+                        boolean isNull = args.length < 2 || args[1] == null
+                                || "setNull".equals(operation.getMethod().getName());
+                        parameterTypes.add(isNull ? "null" : args[1].getClass().getSimpleName());
+                    }
+                }
+            }
+            int slot = (int) (slowQuerySequence.getAndIncrement() % slowQueries.length());
+            slowQueries.set(slot, new SlowQuery(Instant.now(), elapsedMs, origin, currentEndpoint(),
+                    truncate(sql, MAX_SQL_LENGTH), parameterTypes, execInfo.isBatch()));
+        }
+    }
+
+    /**
+     * Origins ordered by total time spent in JDBC, most expensive first.
+     */
+    public List<OriginStats> topOrigins(int limit) {
+        return countersByOrigin.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(OriginStats::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Slowest statements currently held in the ring buffer.
+     */
+    public List<SlowQuery> slowestQueries(int limit) {
+        List<SlowQuery> captured = new ArrayList<>(slowQueries.length());
+        for (int i = 0; i < slowQueries.length(); i++) {
+            SlowQuery query = slowQueries.get(i);
+            if (query != null) {
+                captured.add(query);
+            }
+        }
+        captured.sort(Comparator.comparingLong(SlowQuery::elapsedMs).reversed());
+        return captured.size() > limit ? captured.subList(0, limit) : captured;
+    }
+
+    public void reset() {
+        countersByOrigin.clear();
+        for (int i = 0; i < slowQueries.length(); i++) {
+            slowQueries.set(i, null);
+        }
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) + "..." : value;
+    }
+
+    public record OriginStats(String origin, long count, long errors, long totalMs, long maxMs, double averageMs) {
+    }
+
+    public record SlowQuery(Instant capturedAt, long elapsedMs, String origin, String endpoint, String sql,
+            List<String> parameterTypes, boolean batch) {
+    }
+
+    private static final class OriginCounters {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        void record(long elapsedMs, boolean success) {
+            count.increment();
+            totalMs.add(elapsedMs);
+            maxMs.accumulateAndGet(elapsedMs, Math::max);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        OriginStats snapshot(String origin) {
+            long calls = count.sum();
+            long total = totalMs.sum();
+            return new OriginStats(origin, calls, errors.sum(), total, maxMs.get(),
+                    calls == 0 ? 0 : (double) total / calls);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.model.ReportJob;
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleView;
+import com.company.vehiclemanagement.repository.BookingArchiveRepository;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import com.company.vehiclemanagement.repository.ReportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs admin reports in the background and keeps their output files.
+ *
+ * Jobs run on app.reports.threads worker threads with a queue of
+ * app.reports.queue-capacity; further submissions are refused rather than
+ * queued without bound. Each running job holds one connection for a
+ * read-only transaction (the replica when one is configured), so with the
+ * default of two workers report exports can never take more than two of the
+ * pool's connections away from interactive requests. Rows are streamed from
+ * the database straight into the output file.
+ *
+ * Jobs are stored in report_jobs and their files in app.reports.dir, so with
+ * several nodes any of them can answer for a job as long as they share that
+ * directory. Jobs and files are kept for app.reports.retention-hours; a job
+ * whose node stopped before it finished is dropped with the rest.
+ */
+@Service
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    private static final Set<BookingStatus> USED_STATUSES = EnumSet.of(BookingStatus.APPROVED, BookingStatus.COMPLETED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.dir:./data/reports}")
+    private String directory;
+
+    @Value("${app.reports.threads:2}")
+    private int threads;
+
+    @Value("${app.reports.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.reports.maintenance-horizon-days:30}")
+    private long maintenanceHorizonDays;
+
+    private Path dir;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Interactive requests come first when the CPU is busy
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ReportJob submit(ReportJob.Type type, ReportJob.Format format, LocalDateTime from, LocalDateTime to,
+            String submittedBy) {
+        if (type == ReportJob.Type.MAINTENANCE) {
+            // Current state of the fleet; no period
+            from = null;
+            to = null;
+        } else if (from == null || to == null || !from.isBefore(to)) {
+            throw new RuntimeException("A period with from before to is required");
+        }
+        ReportJob job = reportJobRepository.save(
+                new ReportJob(UUID.randomUUID().toString(), type, format, from, to, submittedBy));
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            reportJobRepository.delete(job);
+            throw new RuntimeException("Too many reports are queued; try again later");
+        }
+        return job;
+    }
+
+    public Optional<ReportJob> findJob(String id) {
+        return reportJobRepository.findById(id);
+    }
+
+    public List<ReportJob> findJobs() {
+        return reportJobRepository.findAllByOrderBySubmittedAtDesc();
+    }
+
+    /** The output of a finished job, in the shared report directory. */
+    public Path file(ReportJob job) {
+        return dir.resolve(job.getFileName());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.cleanup-ms:600000}")
+    public void deleteExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        for (ReportJob job : reportJobRepository.findBySubmittedAtBefore(cutoff)) {
+            try {
+                Files.deleteIfExists(file(job));
+            } catch (IOException e) {
+                logger.warn("Failed to delete report file {}", file(job), e);
+            }
+            reportJobRepository.delete(job);
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.started();
+        reportJobRepository.save(job);
+        Path file = file(job);
+        Path partial = dir.resolve(job.getFileName() + ".part");
+        try {
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024);
+                    ReportWriter writer = ReportWriter.open(job.getFormat(), out, title(job))) {
+                rows = switch (job.getType()) {
+                    case BOOKINGS -> writeBookings(job, writer);
+                    case UTILIZATION -> writeUtilization(job, writer);
+                    case MAINTENANCE -> writeMaintenance(writer);
+                };
+                writer.finish();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.done(rows);
+            reportJobRepository.save(job);
+            logger.info("Report {} {} finished: {} rows in {} ms", job.getType(), job.getId(), rows,
+                    Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis());
+        } catch (Exception e) {
+            logger.warn("Report {} {} failed", job.getType(), job.getId(), e);
+            job.failed(String.valueOf(e.getMessage()));
+            reportJobRepository.save(job);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException deleteFailure) {
+                logger.warn("Failed to delete partial report file {}", partial, deleteFailure);
+            }
+        }
+    }
+
+    private long writeBookings(ReportJob job, ReportWriter writer) throws IOException {
+        writer.header(List.of("Booking", "User", "Name", "Vehicle", "License plate", "Start", "End", "Hours",
+                "Destination", "Status", "Created"));
+        long[] rows = new long[1];
+        Consumer<BookingView> write = booking -> {
+            writeRow(writer, booking.id(), booking.username(), booking.userFullName(), booking.vehicleDisplayName(),
+                    booking.licensePlate(), booking.startDateTime(), booking.endDateTime(),
+                    hours(booking.startDateTime(), booking.endDateTime()), booking.destination(),
+                    booking.status().name(), booking.createdAt());
+            rows[0]++;
+        };
+        read(() -> {
+            // Archived bookings are the older ones, so they come first
+            try (Stream<BookingView> archived = bookingArchiveRepository.streamViewsBetween(job.getFrom(), job.getTo())) {
+                archived.forEach(write);
+            }
+            try (Stream<BookingView> current = bookingRepository.streamViewsBetween(job.getFrom(), job.getTo())) {
+                current.forEach(write);
+            }
+        });
+        return rows[0];
+    }
+
+    private long writeUtilization(ReportJob job, ReportWriter writer) throws IOException {
+        writer.header(List.of("License plate", "Vehicle", "Type", "Site", "Status", "Bookings", "Booked hours",
+                "Utilization %"));
+        // One entry per vehicle, however many bookings the period has
+        Map<Long, double[]> usage = new HashMap<>();
+        Consumer<BookingInterval> add = interval -> {
+            LocalDateTime start = interval.startDateTime().isAfter(job.getFrom())
+                    ? interval.startDateTime() : job.getFrom();
+            LocalDateTime end = interval.endDateTime().isBefore(job.getTo()) ? interval.endDateTime() : job.getTo();
+            double[] totals = usage.computeIfAbsent(interval.vehicleId(), id -> new double[2]);
+            totals[0]++;
+            totals[1] += hours(start, end);
+        };
+        read(() -> {
+            try (Stream<BookingInterval> archived =
+                    bookingArchiveRepository.streamIntervalsBetween(USED_STATUSES, job.getFrom(), job.getTo())) {
+                archived.forEach(add);
+            }
+            try (Stream<BookingInterval> current =
+                    bookingRepository.streamIntervalsBetween(USED_STATUSES, job.getFrom(), job.getTo())) {
+                current.forEach(add);
+            }
+        });
+        double periodHours = hours(job.getFrom(), job.getTo());
+        long rows = 0;
+        for (VehicleView vehicle : vehicleQueryService.findAllVehicles()) {
+            double[] totals = usage.getOrDefault(vehicle.id(), new double[2]);
+            writer.row(vehicle.licensePlate(), vehicle.displayName(), name(vehicle.type()), vehicle.siteCode(),
+                    name(vehicle.status()), (long) totals[0], round(totals[1]),
+                    round(100 * totals[1] / periodHours));
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeMaintenance(ReportWriter writer) throws IOException {
+        writer.header(List.of("License plate", "Vehicle", "Site", "Status", "Mileage", "Next service",
+                "Insurance expiry", "Issues"));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusDays(maintenanceHorizonDays);
+        List<VehicleView> backlog = new ArrayList<>();
+        Map<Long, String> issues = new HashMap<>();
+        for (VehicleView vehicle : vehicleQueryService.findAllVehicles()) {
+            List<String> found = new ArrayList<>();
+            if (vehicle.status() == VehicleStatus.MAINTENANCE || vehicle.status() == VehicleStatus.OUT_OF_SERVICE) {
+                found.add(vehicle.status().getDisplayName());
+            }
+            if (vehicle.nextServiceDate() != null && vehicle.nextServiceDate().isBefore(horizon)) {
+                found.add(vehicle.nextServiceDate().isBefore(now) ? "Service overdue" : "Service due");
+            }
+            if (vehicle.insuranceExpiry() != null && vehicle.insuranceExpiry().isBefore(horizon)) {
+                found.add(vehicle.insuranceExpiry().isBefore(now) ? "Insurance expired" : "Insurance expiring");
+            }
+            if (!found.isEmpty()) {
+                backlog.add(vehicle);
+                issues.put(vehicle.id(), String.join("; ", found));
+            }
+        }
+        backlog.sort(Comparator.comparing(ReportService::earliestDue, Comparator.nullsLast(Comparator.naturalOrder())));
+        for (VehicleView vehicle : backlog) {
+            writer.row(vehicle.licensePlate(), vehicle.displayName(), vehicle.siteCode(), name(vehicle.status()),
+                    vehicle.mileage(), vehicle.nextServiceDate(), vehicle.insuranceExpiry(), issues.get(vehicle.id()));
+        }
+        return backlog.size();
+    }
+
+    private void read(Runnable work) {
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+        read.executeWithoutResult(status -> work.run());
+    }
+
+    private static void writeRow(ReportWriter writer, Object... values) {
+        try {
+            writer.row(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String title(ReportJob job) {
+        String name = switch (job.getType()) {
+            case BOOKINGS -> "Bookings";
+            case UTILIZATION -> "Vehicle utilization";
+            case MAINTENANCE -> "Maintenance backlog";
+        };
+        return job.getFrom() != null ? name + " " + job.getFrom().toLocalDate() + " to " + job.getTo().toLocalDate()
+                : name;
+    }
+
+    private static LocalDateTime earliestDue(VehicleView vehicle) {
+        if (vehicle.nextServiceDate() == null) {
+            return vehicle.insuranceExpiry();
+        }
+        if (vehicle.insuranceExpiry() == null) {
+            return vehicle.nextServiceDate();
+        }
+        return vehicle.nextServiceDate().isBefore(vehicle.insuranceExpiry())
+                ? vehicle.nextServiceDate() : vehicle.insuranceExpiry();
+    }
+
+    private static double hours(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMinutes() / 60.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
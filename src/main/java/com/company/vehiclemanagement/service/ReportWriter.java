@@ -0,0 +1,33 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.ReportJob;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Row-by-row report output. Implementations keep at most a small window of
+ * rows in memory, so a report's size is bounded by disk, not heap.
+ * {@link #finish()} completes the document; {@link #close()} releases
+ * resources and does not close the stream.
+ */
+interface ReportWriter extends AutoCloseable {
+
+    void header(List<String> columns) throws IOException;
+
+    void row(Object... values) throws IOException;
+
+    void finish() throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    static ReportWriter open(ReportJob.Format format, OutputStream out, String title) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvReportWriter(out);
+            case XLSX -> new XlsxReportWriter(out, title);
+            case PDF -> new PdfReportWriter(out, title);
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package com.company.vehiclemanagement.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compressed block of telemetry points (timestamp in epoch
+ * milliseconds plus a fixed number of double columns).
+ *
+ * Timestamps are stored as delta-of-delta: a tracker reporting at a steady
+ * rate costs one bit per point. Values are XORed with the previous value of
+ * the same column; an unchanged value costs one bit and a small change only
+ * its meaningful bits. Missing values are stored as NaN.
+ *
+ * Bit layout per point: the timestamp (first point: 64 raw bits), then every
+ * column (first point: 64 raw bits each).
+ *
+ *   timestamp delta-of-delta   value XOR with previous
+ *   0                 = 0      0                  unchanged
+ *   10   + 7 bits     [-63, 64]    10 + bits      fits the previous leading/trailing window
+ *   110  + 9 bits     [-255, 256]  11 + 5 bits leading zeros + 6 bits length + bits
+ *   1110 + 12 bits    [-2047, 2048]
+ *   1111 + 64 bits    anything else
+ */
+final class TelemetryBlock {
+
+    private static final long MISSING = Double.doubleToRawLongBits(Double.NaN);
+
+    private final int columns;
+    private long[] words = new long[16];
+    private int bitLength;
+    private int count;
+
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long previousDelta;
+    private final long[] previousValues;
+    private final int[] previousLeading;
+    private final int[] previousTrailing;
+
+    TelemetryBlock(int columns) {
+        this.columns = columns;
+        previousValues = new long[columns];
+        previousLeading = new int[columns];
+        previousTrailing = new int[columns];
+    }
+
+    /**
+     * Appends a point. Timestamps must not decrease within a block.
+     */
+    void append(long timestamp, Double[] values) {
+        if (count == 0) {
+            firstTimestamp = timestamp;
+            write(timestamp, 64);
+            for (int c = 0; c < columns; c++) {
+                long bits = bits(values[c]);
+                write(bits, 64);
+                previousValues[c] = bits;
+                previousLeading[c] = -1;
+            }
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            for (int c = 0; c < columns; c++) {
+                writeValue(c, bits(values[c]));
+            }
+        }
+        lastTimestamp = timestamp;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    int byteLength() {
+        return (bitLength + 7) >>> 3;
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(((bitLength + 63) >>> 6) * Long.BYTES);
+        for (int i = 0; i < (bitLength + 63) >>> 6; i++) {
+            buffer.putLong(words[i]);
+        }
+        return Arrays.copyOf(buffer.array(), byteLength());
+    }
+
+    /**
+     * Decodes {@code count} points from a block written by {@link #toBytes()}.
+     */
+    static void decode(byte[] bytes, int count, int columns, PointConsumer consumer) {
+        Reader reader = new Reader(bytes);
+        long timestamp = 0;
+        long delta = 0;
+        long[] values = new long[columns];
+        int[] leading = new int[columns];
+        int[] trailing = new int[columns];
+        Double[] decoded = new Double[columns];
+
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamp = reader.read(64);
+                for (int c = 0; c < columns; c++) {
+                    values[c] = reader.read(64);
+                }
+            } else {
+                delta += reader.readDeltaOfDelta();
+                timestamp += delta;
+                for (int c = 0; c < columns; c++) {
+                    if (reader.read(1) == 0) {
+                        continue;
+                    }
+                    if (reader.read(1) == 1) {
+                        leading[c] = (int) reader.read(5);
+                        int significant = (int) reader.read(6);
+                        if (significant == 0) {
+                            significant = 64;
+                        }
+                        trailing[c] = 64 - leading[c] - significant;
+                    }
+                    int significant = 64 - leading[c] - trailing[c];
+                    values[c] ^= reader.read(significant) << trailing[c];
+                }
+            }
+            for (int c = 0; c < columns; c++) {
+                double value = Double.longBitsToDouble(values[c]);
+                decoded[c] = Double.isNaN(value) ? null : value;
+            }
+            consumer.accept(timestamp, decoded);
+        }
+    }
+
+    @FunctionalInterface
+    interface PointConsumer {
+        void accept(long timestamp, Double[] values);
+    }
+
+    private static long bits(Double value) {
+        return value != null ? Double.doubleToLongBits(value) : MISSING;
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            write(0, 1);
+        } else if (dod >= -63 && dod <= 64) {
+            write(0b10, 2);
+            write(dod + 63, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            write(0b110, 3);
+            write(dod + 255, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            write(0b1110, 4);
+            write(dod + 2047, 12);
+        } else {
+            write(0b1111, 4);
+            write(dod, 64);
+        }
+    }
+
+    private void writeValue(int column, long bits) {
+        long xor = bits ^ previousValues[column];
+        previousValues[column] = bits;
+        if (xor == 0) {
+            write(0, 1);
+            return;
+        }
+        write(1, 1);
+        // Leading zeros are stored in 5 bits
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading[column] >= 0 && leading >= previousLeading[column]
+                && trailing >= previousTrailing[column]) {
+            write(0, 1);
+            write(xor >>> previousTrailing[column], 64 - previousLeading[column] - previousTrailing[column]);
+        } else {
+            int significant = 64 - leading - trailing;
+            write(1, 1);
+            write(leading, 5);
+            // 64 significant bits do not fit in 6 bits and are written as 0
+            write(significant & 0x3f, 6);
+            write(xor >>> trailing, significant);
+            previousLeading[column] = leading;
+            previousTrailing[column] = trailing;
+        }
+    }
+
+    private void write(long value, int bits) {
+        while (bits > 0) {
+            int word = bitLength >>> 6;
+            if (word == words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int free = 64 - (bitLength & 63);
+            int take = Math.min(bits, free);
+            long chunk = (value >>> (bits - take)) & mask(take);
+            words[word] |= chunk << (free - take);
+            bitLength += take;
+            bits -= take;
+        }
+    }
+
+    private static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private static final class Reader {
+
+        private final long[] words;
+        private int position;
+
+        Reader(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, ((bytes.length + 7) >>> 3) * Long.BYTES));
+            words = new long[buffer.capacity() / Long.BYTES];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = buffer.getLong();
+            }
+        }
+
+        long read(int bits) {
+            long result = 0;
+            while (bits > 0) {
+                int available = 64 - (position & 63);
+                int take = Math.min(bits, available);
+                long chunk = (words[position >>> 6] >>> (available - take)) & mask(take);
+                result = take == 64 ? chunk : (result << take) | chunk;
+                position += take;
+                bits -= take;
+            }
+            return result;
+        }
+
+        long readDeltaOfDelta() {
+            if (read(1) == 0) {
+                return 0;
+            }
+            if (read(1) == 0) {
+                return read(7) - 63;
+            }
+            if (read(1) == 0) {
+                return read(9) - 255;
+            }
+            if (read(1) == 0) {
+                return read(12) - 2047;
+            }
+            return read(64);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.TelemetryReading;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingests tracker readings without doing any database work on request threads.
+ *
+ * Accepted batches go into a lock-free {@link MpscRingBuffer}; a single writer
+ * thread drains it and appends the readings to the {@link TelemetryStore},
+ * sorted by vehicle and time within each drained batch. The highest odometer value seen per
+ * vehicle is kept in memory and written back to vehicles.mileage every
+ * app.telemetry.mileage-flush-ms, so a vehicle reporting every second costs
+ * one mileage update per flush rather than one per reading. Mileage only ever
+ * moves forward; every vehicle it moves gets a {@link VehicleChangedEvent}.
+ *
+ * When the buffer is full {@link #offer} rejects the batch and the caller is
+ * expected to retry later (the endpoint answers 429). The writer sleeps while
+ * the buffer is empty and is unparked by {@link #offer}. A batch the store
+ * fails on is retried from the failing reading with backoff, up to
+ * app.telemetry.write-attempts times; what is still unwritten then is counted
+ * under app.telemetry.readings{result=failed} and logged.
+ */
+@Service
+public class TelemetryIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryIngestService.class);
+
+    private static final Comparator<TelemetryReading> BY_VEHICLE_AND_TIME = Comparator
+            .comparing(TelemetryReading::vehicleId)
+            .thenComparing(TelemetryReading::recordedAt);
+
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5_000;
+    // An unknown id reloads the vehicle ids at most this often; seeding and bulk loads publish no events
+    private static final long KNOWN_VEHICLES_RELOAD_MS = 10_000;
+
+    private static final String UPDATE_MILEAGE_SQL = "UPDATE vehicles SET mileage = ? "
+            + "WHERE id = ? AND (mileage IS NULL OR mileage < ?)";
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.telemetry.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${app.telemetry.max-batch:2000}")
+    private int maxBatch;
+
+    @Value("${app.telemetry.mileage-flush-ms:5000}")
+    private long mileageFlushMs;
+
+    @Value("${app.telemetry.write-attempts:5}")
+    private int writeAttempts;
+
+    private MpscRingBuffer<TelemetryReading> buffer;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Ids of existing vehicles, dropped after any vehicle change
+    private volatile KnownVehicles knownVehicles;
+
+    // Writer thread only
+    private final Map<Long, Double> pendingMileage = new HashMap<>();
+    private long nextMileageFlush;
+
+    private Counter accepted;
+    private Counter rejected;
+    private Counter written;
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(Integer.highestOneBit(Math.max(bufferCapacity, 2)));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        accepted = Counter.builder("app.telemetry.readings").tag("result", "accepted").register(meterRegistry);
+        rejected = Counter.builder("app.telemetry.readings").tag("result", "rejected").register(meterRegistry);
+        written = Counter.builder("app.telemetry.readings").tag("result", "written").register(meterRegistry);
+        failed = Counter.builder("app.telemetry.readings").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("app.telemetry.buffer.size", this, s -> s.buffer.size()).register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "telemetry-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Queues the readings for storage. Returns false, storing nothing, when the
+     * buffer has no room for the whole batch.
+     */
+    public boolean offer(List<TelemetryReading> readings) {
+        if (!buffer.offerAll(readings)) {
+            rejected.increment(readings.size());
+            return false;
+        }
+        accepted.increment(readings.size());
+        LockSupport.unpark(writer);
+        return true;
+    }
+
+    /**
+     * Whether the id belongs to an existing vehicle; readings for anything
+     * else are refused before they are acknowledged.
+     */
+    public boolean isKnownVehicle(Long vehicleId) {
+        KnownVehicles known = knownVehicles;
+        if (known == null || (!known.ids().contains(vehicleId) && known.isStale())) {
+            known = reloadKnownVehicles(known);
+        }
+        return known.ids().contains(vehicleId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        knownVehicles = null;
+    }
+
+    private synchronized KnownVehicles reloadKnownVehicles(KnownVehicles seen) {
+        KnownVehicles current = knownVehicles;
+        if (current != null && current != seen) {
+            // Another request reloaded while this one waited
+            return current;
+        }
+        current = new KnownVehicles(Set.copyOf(jdbcTemplate.queryForList("SELECT id FROM vehicles", Long.class)),
+                System.currentTimeMillis());
+        knownVehicles = current;
+        return current;
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    private void writeLoop() {
+        List<TelemetryReading> batch = new ArrayList<>(maxBatch);
+        nextMileageFlush = System.currentTimeMillis() + mileageFlushMs;
+        while (running || buffer.size() > 0) {
+            buffer.drain(batch::add, maxBatch);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            } else if (running) {
+                // offer() and stop() unpark; the timeout only serves the mileage flush
+                long untilFlush = nextMileageFlush - System.currentTimeMillis();
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.max(untilFlush, 1)));
+            }
+            if (!running || System.currentTimeMillis() >= nextMileageFlush) {
+                flushMileage();
+            }
+        }
+        flushMileage();
+    }
+
+    private void writeBatch(List<TelemetryReading> batch) {
+        batch.sort(BY_VEHICLE_AND_TIME);
+        int next = 0;
+        int attempt = 1;
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (next < batch.size()) {
+            TelemetryReading reading = batch.get(next);
+            try {
+                if (telemetryStore.append(reading)) {
+                    written.increment();
+                }
+            } catch (RuntimeException e) {
+                if (attempt >= writeAttempts || !running) {
+                    failed.increment(batch.size() - next);
+                    logger.error("Dropping {} telemetry readings after {} attempts", batch.size() - next, attempt, e);
+                    return;
+                }
+                logger.warn("Failed to write telemetry readings, retrying in {} ms", backoffMs, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                attempt++;
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                continue;
+            }
+            if (reading.odometerKm() != null) {
+                pendingMileage.merge(reading.vehicleId(), reading.odometerKm(), Math::max);
+            }
+            next++;
+        }
+    }
+
+    private void flushMileage() {
+        nextMileageFlush = System.currentTimeMillis() + mileageFlushMs;
+        if (pendingMileage.isEmpty()) {
+            return;
+        }
+        List<Object[]> updates = new ArrayList<>(pendingMileage.size());
+        pendingMileage.forEach((vehicleId, mileage) -> updates.add(new Object[] { mileage, vehicleId, mileage }));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_MILEAGE_SQL, updates);
+                for (int i = 0; i < counts.length; i++) {
+                    // 0 when the vehicle already had a higher mileage
+                    if (counts[i] != 0) {
+                        eventPublisher.publishEvent(new VehicleChangedEvent((Long) updates.get(i)[1]));
+                    }
+                }
+            });
+            pendingMileage.clear();
+        } catch (RuntimeException e) {
+            // Keep the values and try again on the next flush
+            logger.warn("Failed to update mileage for {} vehicles", updates.size(), e);
+        }
+    }
+
+    private record KnownVehicles(Set<Long> ids, long loadedAt) {
+
+        boolean isStale() {
+            return System.currentTimeMillis() - loadedAt >= KNOWN_VEHICLES_RELOAD_MS;
+        }
+    }
+}
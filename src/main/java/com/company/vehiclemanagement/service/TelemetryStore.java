@@ -0,0 +1,604 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.TelemetryAggregate;
+import com.company.vehiclemanagement.model.TelemetryField;
+import com.company.vehiclemanagement.model.TelemetryReading;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-vehicle time-series store for tracker readings.
+ *
+ * Each vehicle has a directory of append-only segment files
+ * (vehicle-12/segment-00000001.tsb, ...) holding compressed
+ * {@link TelemetryBlock}s. New points go into an open in-memory block that is
+ * written out once it holds app.telemetry.store.block-points points, by the
+ * periodic flush, or at shutdown. A segment is closed once it reaches
+ * app.telemetry.store.segment-size-mb.
+ *
+ * Block record layout: [long firstTimestamp][long lastTimestamp][int count]
+ * [int byteLength][bytes]. The block headers form the in-memory index and are
+ * rebuilt from the segments on startup; a record cut short by a crash is
+ * truncated away. Queries read only the blocks overlapping the requested
+ * range, plus the open block.
+ *
+ * Points must arrive in timestamp order per vehicle; older points than the
+ * last stored one are dropped. Timestamps are the readings' local date-times
+ * taken as UTC, so there are no gaps or repeats at daylight-saving changes.
+ *
+ * With app.telemetry.store.peers-dir set (the cluster profile), every node
+ * writes its own directory under that shared root and queries also read the
+ * blocks the other nodes have written there, so any node gives the same
+ * answers once the others have flushed. Readings of one vehicle may then be
+ * spread over several nodes' blocks, which can overlap in time.
+ *
+ * Durability: the open blocks live only in memory until they fill up or the
+ * next flush (app.telemetry.store.flush-ms). A crash loses up to that much of
+ * every vehicle's readings, on top of whatever is still queued in
+ * {@link TelemetryIngestService}, although the endpoint has already answered
+ * 202 for them. Trackers that cannot tolerate this must keep and resend
+ * their own recent readings.
+ */
+@Service
+public class TelemetryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryStore.class);
+
+    private static final String VEHICLE_PREFIX = "vehicle-";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".tsb";
+    private static final int HEADER_BYTES = 2 * Long.BYTES + 2 * Integer.BYTES;
+    private static final TelemetryField[] FIELDS = TelemetryField.values();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.telemetry.store.dir:./data/telemetry}")
+    private String directory;
+
+    @Value("${app.telemetry.store.block-points:720}")
+    private int blockPoints;
+
+    @Value("${app.telemetry.store.segment-size-mb:8}")
+    private int segmentSizeMb;
+
+    @Value("${app.telemetry.store.peers-dir:}")
+    private String peersDirectory;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    // Blocks written by the other nodes, by node directory and vehicle; caught up before each query
+    private final Map<Path, Map<Long, PeerSeries>> peers = new ConcurrentHashMap<>();
+    private Counter appended;
+    private Counter outOfOrder;
+    private Counter invalid;
+
+    @PostConstruct
+    public void open() throws IOException {
+        appended = Counter.builder("app.telemetry.store.points").tag("result", "appended").register(meterRegistry);
+        outOfOrder = Counter.builder("app.telemetry.store.points").tag("result", "out_of_order").register(meterRegistry);
+        invalid = Counter.builder("app.telemetry.store.points").tag("result", "invalid").register(meterRegistry);
+
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        try (Stream<Path> vehicles = Files.list(dir)) {
+            for (Path vehicleDir : vehicles.filter(Files::isDirectory).toList()) {
+                String name = vehicleDir.getFileName().toString();
+                if (name.startsWith(VEHICLE_PREFIX)) {
+                    long vehicleId = Long.parseLong(name.substring(VEHICLE_PREFIX.length()));
+                    series.put(vehicleId, Series.load(vehicleId, vehicleDir));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Appends a reading. Returns false when it is older than the last stored
+     * reading of the vehicle, or its vehicle id cannot name a vehicle
+     * directory. Whether the vehicle exists is checked before the reading is
+     * accepted (TelemetryIngestService.isKnownVehicle).
+     */
+    public boolean append(TelemetryReading reading) {
+        if (reading.vehicleId() == null || reading.vehicleId() <= 0) {
+            invalid.increment();
+            return false;
+        }
+        Series vehicleSeries = series.computeIfAbsent(reading.vehicleId(),
+                id -> new Series(id, Paths.get(directory, VEHICLE_PREFIX + id)));
+        Double[] values = new Double[FIELDS.length];
+        for (TelemetryField field : FIELDS) {
+            values[field.ordinal()] = field.of(reading);
+        }
+        boolean accepted;
+        try {
+            accepted = vehicleSeries.append(toMillis(reading.recordedAt()), values, blockPoints, segmentSizeBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        (accepted ? appended : outOfOrder).increment();
+        return accepted;
+    }
+
+    /**
+     * Writes all open blocks so readings survive a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.store.flush-ms:30000}")
+    public void flush() {
+        for (Series vehicleSeries : series.values()) {
+            try {
+                vehicleSeries.flush(segmentSizeBytes());
+            } catch (IOException e) {
+                logger.error("Failed to flush telemetry of vehicle {}", vehicleSeries.vehicleId, e);
+            }
+        }
+    }
+
+    /**
+     * The oldest {@code limit} readings of a vehicle with from <= recordedAt <= to,
+     * oldest first; the next page starts after the last of them. Blocks are
+     * decoded in order of their first reading only until no further block can
+     * hold one of those, so a page costs the same however long the range is.
+     */
+    public List<TelemetryReading> range(Long vehicleId, LocalDateTime from, LocalDateTime to, int limit) {
+        long fromMs = toMillis(from);
+        long toMs = toMillis(to);
+        List<TelemetryReading> readings = new ArrayList<>();
+        long[] latest = { Long.MIN_VALUE };
+        TelemetryBlock.PointConsumer collect = (timestamp, values) -> {
+            if (timestamp >= fromMs && timestamp <= toMs) {
+                readings.add(toReading(vehicleId, timestamp, values));
+                latest[0] = Math.max(latest[0], timestamp);
+            }
+        };
+
+        Series vehicleSeries = series.get(vehicleId);
+        Series.Snapshot snapshot = vehicleSeries != null ? vehicleSeries.snapshot() : null;
+        if (snapshot != null && snapshot.openBlock() != null) {
+            TelemetryBlock.decode(snapshot.openBlock(), snapshot.openCount(), FIELDS.length, collect);
+        }
+        List<BlockRef> overlapping = overlapping(vehicleId, snapshot, fromMs, toMs);
+        overlapping.sort(Comparator.comparingLong(BlockRef::firstTimestamp));
+        for (BlockRef block : overlapping) {
+            // This and every later block only hold readings after the first limit ones
+            if (readings.size() >= limit && block.firstTimestamp() > latest[0]) {
+                break;
+            }
+            TelemetryBlock.decode(block.read(), block.count(), FIELDS.length, collect);
+        }
+        // The open block and the blocks of different nodes interleave
+        readings.sort(Comparator.comparing(TelemetryReading::recordedAt));
+        return readings.size() > limit ? new ArrayList<>(readings.subList(0, limit)) : readings;
+    }
+
+    public Optional<TelemetryReading> last(Long vehicleId) {
+        Series vehicleSeries = series.get(vehicleId);
+        long lastTimestamp = vehicleSeries != null ? vehicleSeries.snapshot().lastTimestamp() : Long.MIN_VALUE;
+        for (BlockRef block : peerBlocks(vehicleId)) {
+            lastTimestamp = Math.max(lastTimestamp, block.lastTimestamp());
+        }
+        if (lastTimestamp == Long.MIN_VALUE) {
+            return Optional.empty();
+        }
+        TelemetryReading[] last = new TelemetryReading[1];
+        scan(vehicleId, toDateTime(lastTimestamp), toDateTime(lastTimestamp),
+                (timestamp, values) -> last[0] = toReading(vehicleId, timestamp, values));
+        return Optional.ofNullable(last[0]);
+    }
+
+    /**
+     * Min/max/average of {@code field} per {@code interval}, with intervals
+     * aligned to {@code from}.
+     */
+    public List<TelemetryAggregate> downsample(Long vehicleId, TelemetryField field, LocalDateTime from,
+            LocalDateTime to, Duration interval) {
+        long fromMs = toMillis(from);
+        long intervalMs = Math.max(interval.toMillis(), 1);
+        TreeMap<Long, double[]> buckets = new TreeMap<>();
+        scan(vehicleId, from, to, (timestamp, values) -> {
+            Double value = values[field.ordinal()];
+            if (value == null) {
+                return;
+            }
+            long bucket = (timestamp - fromMs) / intervalMs;
+            double[] aggregate = buckets.computeIfAbsent(bucket,
+                    b -> new double[] { 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0 });
+            aggregate[0]++;
+            aggregate[1] = Math.min(aggregate[1], value);
+            aggregate[2] = Math.max(aggregate[2], value);
+            aggregate[3] += value;
+        });
+        List<TelemetryAggregate> result = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, aggregate) -> result.add(new TelemetryAggregate(
+                toDateTime(fromMs + bucket * intervalMs), (long) aggregate[0], aggregate[1], aggregate[2],
+                aggregate[3] / aggregate[0])));
+        return result;
+    }
+
+    /**
+     * Distance driven between two instants: the last odometer reading in the
+     * range minus the first, or null with fewer than two odometer readings.
+     * Blocks are decoded from either end of the range only until no further
+     * block can hold an earlier or later reading, so the cost does not grow
+     * with the length of the range.
+     */
+    public Double tripDistanceKm(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        long fromMs = toMillis(from);
+        long toMs = toMillis(to);
+        Series vehicleSeries = series.get(vehicleId);
+        Series.Snapshot snapshot = vehicleSeries != null ? vehicleSeries.snapshot() : null;
+        List<BlockRef> overlapping = overlapping(vehicleId, snapshot, fromMs, toMs);
+
+        // {timestamp, odometer} of the first and of the last odometer reading in the range
+        double[] first = null;
+        double[] last = null;
+        if (snapshot != null && snapshot.openBlock() != null) {
+            last = odometerReading(snapshot.openBlock(), snapshot.openCount(), fromMs, toMs, false);
+            if (last != null) {
+                first = odometerReading(snapshot.openBlock(), snapshot.openCount(), fromMs, toMs, true);
+            }
+        }
+        overlapping.sort(Comparator.comparingLong(BlockRef::firstTimestamp));
+        for (BlockRef block : overlapping) {
+            if (first != null && block.firstTimestamp() >= first[0]) {
+                break;
+            }
+            first = earlier(first, odometerReading(block.read(), block.count(), fromMs, toMs, true));
+        }
+        overlapping.sort(Comparator.comparingLong(BlockRef::lastTimestamp).reversed());
+        for (BlockRef block : overlapping) {
+            if (last != null && block.lastTimestamp() <= last[0]) {
+                break;
+            }
+            last = later(last, odometerReading(block.read(), block.count(), fromMs, toMs, false));
+        }
+        if (first == null || last == null || first[0] == last[0]) {
+            return null;
+        }
+        return last[1] - first[1];
+    }
+
+    public Stats stats() {
+        long blocks = 0;
+        long points = 0;
+        long bytes = 0;
+        for (Series vehicleSeries : series.values()) {
+            Series.Snapshot snapshot = vehicleSeries.snapshot();
+            for (BlockRef block : snapshot.blocks()) {
+                blocks++;
+                points += block.count();
+                bytes += HEADER_BYTES + block.length();
+            }
+            if (snapshot.openBlock() != null) {
+                points += snapshot.openCount();
+                bytes += snapshot.openBlock().length;
+            }
+        }
+        return new Stats(series.size(), blocks, points, bytes, points == 0 ? 0 : (double) bytes / points);
+    }
+
+    public record Stats(int vehicles, long blocks, long points, long bytes, double bytesPerPoint) {
+    }
+
+    private void scan(Long vehicleId, LocalDateTime from, LocalDateTime to, TelemetryBlock.PointConsumer consumer) {
+        long fromMs = from != null ? toMillis(from) : Long.MIN_VALUE;
+        long toMs = to != null ? toMillis(to) : Long.MAX_VALUE;
+        TelemetryBlock.PointConsumer filtered = (timestamp, values) -> {
+            if (timestamp >= fromMs && timestamp <= toMs) {
+                consumer.accept(timestamp, values);
+            }
+        };
+
+        for (BlockRef block : peerBlocks(vehicleId)) {
+            if (block.lastTimestamp() >= fromMs && block.firstTimestamp() <= toMs) {
+                TelemetryBlock.decode(block.read(), block.count(), FIELDS.length, filtered);
+            }
+        }
+        Series vehicleSeries = series.get(vehicleId);
+        if (vehicleSeries == null) {
+            return;
+        }
+        Series.Snapshot snapshot = vehicleSeries.snapshot();
+        for (BlockRef block : snapshot.blocks()) {
+            if (block.lastTimestamp() >= fromMs && block.firstTimestamp() <= toMs) {
+                TelemetryBlock.decode(block.read(), block.count(), FIELDS.length, filtered);
+            }
+        }
+        if (snapshot.openBlock() != null) {
+            TelemetryBlock.decode(snapshot.openBlock(), snapshot.openCount(), FIELDS.length, filtered);
+        }
+    }
+
+    /**
+     * Flushed blocks of the vehicle, this node's and the other nodes', that may
+     * hold readings between the two instants.
+     */
+    private List<BlockRef> overlapping(Long vehicleId, Series.Snapshot snapshot, long fromMs, long toMs) {
+        List<BlockRef> overlapping = new ArrayList<>();
+        for (BlockRef block : snapshot != null ? snapshot.blocks() : List.<BlockRef>of()) {
+            if (block.lastTimestamp() >= fromMs && block.firstTimestamp() <= toMs) {
+                overlapping.add(block);
+            }
+        }
+        for (BlockRef block : peerBlocks(vehicleId)) {
+            if (block.lastTimestamp() >= fromMs && block.firstTimestamp() <= toMs) {
+                overlapping.add(block);
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * The vehicle's blocks in the other nodes' directories, including those
+     * written since the last call. Empty without app.telemetry.store.peers-dir.
+     */
+    private List<BlockRef> peerBlocks(Long vehicleId) {
+        if (peersDirectory == null || peersDirectory.isBlank()) {
+            return List.of();
+        }
+        Path own = Paths.get(directory).toAbsolutePath().normalize();
+        List<BlockRef> blocks = new ArrayList<>();
+        try (Stream<Path> nodes = Files.list(Paths.get(peersDirectory))) {
+            for (Path node : nodes.filter(Files::isDirectory).toList()) {
+                if (node.toAbsolutePath().normalize().equals(own)) {
+                    continue;
+                }
+                PeerSeries peer = peers.computeIfAbsent(node, n -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(vehicleId, id -> new PeerSeries(node.resolve(VEHICLE_PREFIX + id)));
+                blocks.addAll(peer.refresh());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return blocks;
+    }
+
+    private static double[] earlier(double[] a, double[] b) {
+        return a == null || (b != null && b[0] < a[0]) ? b : a;
+    }
+
+    private static double[] later(double[] a, double[] b) {
+        return a == null || (b != null && b[0] > a[0]) ? b : a;
+    }
+
+    private static double[] odometerReading(byte[] block, int count, long fromMs, long toMs, boolean earliest) {
+        double[][] found = new double[1][];
+        TelemetryBlock.decode(block, count, FIELDS.length, (timestamp, values) -> {
+            Double odometer = values[TelemetryField.ODOMETER_KM.ordinal()];
+            if (odometer != null && timestamp >= fromMs && timestamp <= toMs && (!earliest || found[0] == null)) {
+                found[0] = new double[] { timestamp, odometer };
+            }
+        });
+        return found[0];
+    }
+
+    private TelemetryReading toReading(Long vehicleId, long timestamp, Double[] values) {
+        return new TelemetryReading(vehicleId, toDateTime(timestamp),
+                values[TelemetryField.ODOMETER_KM.ordinal()], values[TelemetryField.LATITUDE.ordinal()],
+                values[TelemetryField.LONGITUDE.ordinal()], values[TelemetryField.ENERGY_LEVEL.ordinal()]);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private long segmentSizeBytes() {
+        return segmentSizeMb * 1024L * 1024L;
+    }
+
+    private record BlockRef(Path segment, long offset, long firstTimestamp, long lastTimestamp, int count,
+            int length) {
+
+        byte[] read() {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of " + segment);
+                    }
+                }
+                return buffer.array();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Series {
+
+        private final long vehicleId;
+        private final Path dir;
+        private final List<BlockRef> blocks = new ArrayList<>();
+        private TelemetryBlock open;
+        private Path activeSegment;
+        private int segmentNumber;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        Series(long vehicleId, Path dir) {
+            this.vehicleId = vehicleId;
+            this.dir = dir;
+        }
+
+        static Series load(long vehicleId, Path dir) throws IOException {
+            Series loaded = new Series(vehicleId, dir);
+            List<Path> segments;
+            try (Stream<Path> files = Files.list(dir)) {
+                segments = files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                        && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+            for (Path segment : segments) {
+                loaded.index(segment);
+                loaded.activeSegment = segment;
+                String name = segment.getFileName().toString();
+                loaded.segmentNumber = Integer.parseInt(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            }
+            return loaded;
+        }
+
+        private void index(Path segment) throws IOException {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                long position = readBlocks(channel, segment, 0, blocks);
+                for (BlockRef block : blocks) {
+                    lastTimestamp = Math.max(lastTimestamp, block.lastTimestamp());
+                }
+                if (position < size) {
+                    logger.warn("Truncating incomplete telemetry block in {} at {}", segment, position);
+                    channel.truncate(position);
+                }
+            }
+        }
+
+        synchronized boolean append(long timestamp, Double[] values, int blockPoints, long segmentSize)
+                throws IOException {
+            if (timestamp < lastTimestamp) {
+                return false;
+            }
+            // Flush a full block first: if that fails, the point is not taken and can be retried
+            if (open != null && open.count() >= blockPoints) {
+                flush(segmentSize);
+            }
+            if (open == null) {
+                open = new TelemetryBlock(FIELDS.length);
+            }
+            open.append(timestamp, values);
+            lastTimestamp = timestamp;
+            return true;
+        }
+
+        synchronized void flush(long segmentSize) throws IOException {
+            if (open == null || open.count() == 0) {
+                return;
+            }
+            if (activeSegment == null || Files.size(activeSegment) >= segmentSize) {
+                Files.createDirectories(dir);
+                segmentNumber++;
+                activeSegment = dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+            }
+            byte[] bytes = open.toBytes();
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bytes.length);
+            record.putLong(open.firstTimestamp()).putLong(open.lastTimestamp())
+                    .putInt(open.count()).putInt(bytes.length).put(bytes).flip();
+            try (FileChannel channel = FileChannel.open(activeSegment, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long offset = channel.size();
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+                channel.force(false);
+                blocks.add(new BlockRef(activeSegment, offset + HEADER_BYTES, open.firstTimestamp(),
+                        open.lastTimestamp(), open.count(), bytes.length));
+            }
+            open = null;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(List.copyOf(blocks), open != null ? open.toBytes() : null,
+                    open != null ? open.count() : 0, lastTimestamp);
+        }
+
+        record Snapshot(List<BlockRef> blocks, byte[] openBlock, int openCount, long lastTimestamp) {
+        }
+    }
+
+    /**
+     * Adds the complete block records of a segment from {@code position} on to
+     * {@code blocks} and returns the position after the last of them.
+     */
+    private static long readBlocks(FileChannel channel, Path segment, long position, List<BlockRef> blocks)
+            throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            long first = header.getLong();
+            long last = header.getLong();
+            int count = header.getInt();
+            int length = header.getInt();
+            if (count <= 0 || length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            blocks.add(new BlockRef(segment, position + HEADER_BYTES, first, last, count, length));
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    /**
+     * One vehicle's blocks in another node's directory, read-only. A block
+     * that node is still appending is picked up by a later refresh.
+     */
+    private static final class PeerSeries {
+
+        private final Path dir;
+        private final List<BlockRef> blocks = new ArrayList<>();
+        private final Map<Path, Long> indexedUpTo = new TreeMap<>();
+
+        PeerSeries(Path dir) {
+            this.dir = dir;
+        }
+
+        synchronized List<BlockRef> refresh() throws IOException {
+            if (Files.isDirectory(dir)) {
+                List<Path> segments;
+                try (Stream<Path> files = Files.list(dir)) {
+                    segments = files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                            .sorted()
+                            .toList();
+                }
+                for (Path segment : segments) {
+                    long position = indexedUpTo.getOrDefault(segment, 0L);
+                    if (Files.size(segment) > position) {
+                        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                            indexedUpTo.put(segment, readBlocks(channel, segment, position, blocks));
+                        }
+                    }
+                }
+            }
+            return List.copyOf(blocks);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.company.vehiclemanagement.service;
+
+/**
+ * Published by {@link UserService} whenever a user is registered or their
+ * details, role or active flag change.
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,31 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.UserView;
+import com.company.vehiclemanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Query side of users for the admin user list. Returns immutable
+ * {@link UserView} projections from read-only transactions; all changes go
+ * through {@link UserService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserQueryService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public List<UserView> findAllActiveUsers() {
+        return userRepository.findActiveViews();
+    }
+
+    public List<UserView> findUsersByRole(Role role) {
+        return userRepository.findViewsByRole(role);
+    }
+}
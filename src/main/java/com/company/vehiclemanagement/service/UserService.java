@@ -4,6 +4,7 @@ import com.company.vehiclemanagement.model.User;
 import com.company.vehiclemanagement.model.Role;
 import com.company.vehiclemanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,7 +29,14 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
@@ -68,29 +76,27 @@ public class UserService implements UserDetailsService {
         // Set active by default
         user.setActive(true);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
-    public List<User> findAllActiveUsers() {
-        return userRepository.findByActiveTrue();
-    }
-
-    public List<User> findUsersByRole(Role role) {
-        return userRepository.findByRole(role);
-    }
-
+    @Transactional(readOnly = true)
     public List<User> findUsersByDepartment(String department) {
         return userRepository.findByDepartment(department);
     }
@@ -107,7 +113,9 @@ public class UserService implements UserDetailsService {
         existingUser.setDepartment(user.getDepartment());
         existingUser.setEmployeeId(user.getEmployeeId());
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void updatePassword(Long userId, String newPassword) {
@@ -122,43 +130,69 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
+        boolean wasActive = user.isActive();
         user.setActive(false);
         userRepository.save(user);
+        auditJournal.record("User", userId, "DEACTIVATE", wasActive, false);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     public void activateUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
+        boolean wasActive = user.isActive();
         user.setActive(true);
         userRepository.save(user);
+        auditJournal.record("User", userId, "ACTIVATE", wasActive, true);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+    }
+
+    // Invalidates every calendar feed link issued to the user; new links can be fetched afterwards
+    public void revokeCalendarLinks(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+
+        int previousVersion = user.getCalendarTokenVersion();
+        user.setCalendarTokenVersion(previousVersion + 1);
+        userRepository.save(user);
+        auditJournal.record("User", userId, "REVOKE_CALENDAR_LINKS", previousVersion, previousVersion + 1);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     public void updateUserRole(Long userId, Role newRole) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
+        Role previousRole = user.getRole();
         user.setRole(newRole);
         userRepository.save(user);
+        auditJournal.record("User", userId, "ROLE", previousRole.name(), newRole.name());
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
+    @Transactional(readOnly = true)
     public boolean isUsernameAvailable(String username) {
         return !userRepository.existsByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public boolean isEmailAvailable(String email) {
         return !userRepository.existsByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public boolean isEmployeeIdAvailable(String employeeId) {
         return !userRepository.existsByEmployeeId(employeeId);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalUserCount() {
         return userRepository.count();
     }
 
+    @Transactional(readOnly = true)
     public long getActiveUserCount() {
-        return userRepository.countByActiveTrue();
+        return userRepository.countByIsActiveTrue();
     }
 }
\ No newline at end of file
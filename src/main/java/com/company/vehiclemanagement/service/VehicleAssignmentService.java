@@ -0,0 +1,304 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.Vehicle;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Assigns concrete vehicles to "assign for me" bookings, which only ask for a
+ * vehicle type and a seating capacity.
+ *
+ * The batch solver is the greedy interval-scheduling algorithm for several
+ * machines: requests are taken in order of end time and each goes to the
+ * compatible vehicle that became free most recently before the request starts
+ * (best fit). For identical vehicles this maximizes the number of requests
+ * that can be approved; with mixed capacities the smallest fitting vehicle is
+ * preferred on ties so larger vehicles stay free for larger groups.
+ *
+ * Requests are solved per site: each user's requests only draw from the
+ * vehicles of their own depot, so a run costs the sum of the per-site problems
+ * instead of one problem over the whole fleet. *
+ * The pending requests are read without locks and each result is written
+ * with a conditional update, so a request approved, rejected, cancelled or
+ * edited while the solver ran keeps that change and is solved again on the
+ * next run. In a cluster one node owns the job through a lease in job_leases.
+ */
+@Service
+@Transactional
+public class VehicleAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleAssignmentService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${app.assignment.time-budget-ms:5000}")
+    private long timeBudgetMs;
+
+    @Value("${app.assignment.lease-ms:180000}")
+    private long leaseMs;
+
+    /**
+     * Re-solves the whole pending "assign for me" batch. Tentative assignments
+     * from earlier runs are recomputed so that newly arrived requests can be
+     * packed optimally together with the older ones. Requests that do not fit
+     * are left without a vehicle and retried on the next run. Requests that
+     * have already started are left to the approvers.
+     */
+    @Scheduled(fixedDelayString = "${app.assignment.interval-ms:60000}")
+    public int assignPendingBookings() {
+        if (!jobLeaseService.tryAcquire("vehicle-assignment", Duration.ofMillis(leaseMs))) {
+            return 0;
+        }
+        List<Booking> pending = bookingRepository
+                .findByStatusAndAutoAssignTrueAndStartDateTimeAfterOrderByCreatedAtAsc(BookingStatus.PENDING,
+                        LocalDateTime.now());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime horizonStart = pending.get(0).getStartDateTime();
+        LocalDateTime horizonEnd = pending.get(0).getEndDateTime();
+        for (Booking booking : pending) {
+            if (booking.getStartDateTime().isBefore(horizonStart)) {
+                horizonStart = booking.getStartDateTime();
+            }
+            if (booking.getEndDateTime().isAfter(horizonEnd)) {
+                horizonEnd = booking.getEndDateTime();
+            }
+        }
+
+        // Users without a site draw from the whole fleet, so they go last and see what the sites took
+        Map<String, List<Booking>> bySite = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (Booking booking : pending) {
+            bySite.computeIfAbsent(booking.getUser().getSiteCode(), s -> new ArrayList<>()).add(booking);
+        }
+
+        Map<Long, VehicleTimeline> timelines = new HashMap<>();
+        long deadline = System.nanoTime() + Duration.ofMillis(timeBudgetMs).toNanos();
+        int assigned = 0;
+        int processed = 0;
+        int skipped = 0;
+        List<Booking> changed = new ArrayList<>();
+        List<Booking> unprocessed = new ArrayList<>();
+        for (Map.Entry<String, List<Booking>> site : bySite.entrySet()) {
+            if (System.nanoTime() > deadline) {
+                unprocessed.addAll(site.getValue());
+                continue;
+            }
+            List<Booking> ordered = new ArrayList<>(site.getValue());
+            ordered.sort(Comparator.comparing(Booking::getEndDateTime)
+                    .thenComparing(Booking::getStartDateTime, Comparator.reverseOrder()));
+            Map<VehicleType, List<VehicleTimeline>> timelinesByType = loadTimelines(site.getKey(), horizonStart,
+                    horizonEnd, timelines);
+
+            int siteProcessed = 0;
+            for (Booking booking : ordered) {
+                if (System.nanoTime() > deadline) {
+                    break;
+                }
+                siteProcessed++;
+                Long previousVehicleId = booking.getVehicle() != null ? booking.getVehicle().getId() : null;
+                VehicleTimeline best = findBestFit(booking, timelinesByType.get(booking.getRequestedType()));
+                if (best != null) {
+                    best.occupy(booking.getStartDateTime(), booking.getEndDateTime());
+                    booking.setVehicle(best.vehicle);
+                    assigned++;
+                } else {
+                    booking.setVehicle(null);
+                }
+                if (!Objects.equals(previousVehicleId, best != null ? best.vehicle.getId() : null)) {
+                    changed.add(booking);
+                }
+            }
+            unprocessed.addAll(ordered.subList(siteProcessed, ordered.size()));
+            processed += siteProcessed;
+        }
+        // Out of time: tentative vehicles from an earlier run were not occupied in this run's
+        // timelines and may have been given to another request, so they are released; the
+        // next run assigns these requests again
+        for (Booking booking : unprocessed) {
+            if (booking.getVehicle() != null) {
+                booking.setVehicle(null);
+                changed.add(booking);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : changed) {
+            if (bookingRepository.assignIfUnchanged(booking.getId(), booking.getVehicle(), booking.getUpdatedAt(),
+                    now) == 0) {
+                // Changed since it was read; whatever still needs a vehicle is solved on the next run
+                skipped++;
+                continue;
+            }
+            eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking.getUser().getId(),
+                    booking.getVehicle() != null ? booking.getVehicle().getId() : null, booking.getStatus()));
+        }
+
+        logger.info("Vehicle assignment run: {} of {} pending requests assigned ({} processed, {} sites, "
+                + "{} changed meanwhile)", assigned, pending.size(), processed, bySite.size(), skipped);
+        return assigned;
+    }
+
+    /**
+     * Timelines of the available vehicles of one site (the whole fleet for a
+     * null site), occupied by the approved bookings within the horizon.
+     * Timelines already built for an earlier site are reused, so requests of
+     * different sites never share a vehicle slot.
+     */
+    private Map<VehicleType, List<VehicleTimeline>> loadTimelines(String siteCode, LocalDateTime horizonStart,
+            LocalDateTime horizonEnd, Map<Long, VehicleTimeline> timelines) {
+        List<Vehicle> vehicles = siteCode != null
+                ? vehicleService.findAvailableVehiclesAtSite(siteCode)
+                : vehicleService.findAvailableVehicles();
+        Map<Long, VehicleTimeline> fresh = new HashMap<>();
+        Map<VehicleType, List<VehicleTimeline>> timelinesByType = new EnumMap<>(VehicleType.class);
+        for (Vehicle vehicle : vehicles) {
+            VehicleTimeline timeline = timelines.get(vehicle.getId());
+            if (timeline == null) {
+                timeline = new VehicleTimeline(vehicle);
+                timelines.put(vehicle.getId(), timeline);
+                fresh.put(vehicle.getId(), timeline);
+            }
+            timelinesByType.computeIfAbsent(vehicle.getType(), t -> new ArrayList<>()).add(timeline);
+        }
+        for (List<VehicleTimeline> candidates : timelinesByType.values()) {
+            candidates.sort(Comparator.comparingInt(VehicleTimeline::capacity));
+        }
+        List<Booking> approved = siteCode != null
+                ? bookingRepository.findApprovedBookingsAtSiteBetween(siteCode, horizonStart, horizonEnd)
+                : bookingRepository.findApprovedBookingsBetween(horizonStart, horizonEnd);
+        for (Booking booking : approved) {
+            // Reused timelines were occupied when they were built
+            VehicleTimeline timeline = fresh.get(booking.getVehicle().getId());
+            if (timeline != null) {
+                timeline.occupy(booking.getStartDateTime(), booking.getEndDateTime());
+            }
+        }
+        return timelinesByType;
+    }
+
+    /**
+     * Incremental fallback used when a single request has to be resolved right
+     * away, e.g. when an admin approves it before the next batch run or its
+     * tentative vehicle was taken in the meantime.
+     */
+    public Optional<Vehicle> assignVehicle(Booking booking) {
+        if (booking.getRequestedType() == null) {
+            return Optional.empty();
+        }
+        int capacity = requiredCapacity(booking);
+        String siteCode = booking.getUser() != null ? booking.getUser().getSiteCode() : null;
+        return vehicleService.findVehiclesByType(booking.getRequestedType()).stream()
+                .filter(Vehicle::isAvailable)
+                .filter(v -> siteCode == null || siteCode.equals(v.getSiteCode()))
+                .filter(v -> v.getSeatingCapacity() != null && v.getSeatingCapacity() >= capacity)
+                .sorted(Comparator.comparing(Vehicle::getSeatingCapacity))
+                .filter(v -> bookingRepository.findConflictingBookings(
+                        v, booking.getStartDateTime(), booking.getEndDateTime()).isEmpty())
+                .findFirst();
+    }
+
+    private VehicleTimeline findBestFit(Booking booking, List<VehicleTimeline> candidates) {
+        if (candidates == null) {
+            return null;
+        }
+        int capacity = requiredCapacity(booking);
+        VehicleTimeline best = null;
+        long bestGap = Long.MAX_VALUE;
+        for (VehicleTimeline candidate : candidates) {
+            if (candidate.capacity() < capacity
+                    || !candidate.isFree(booking.getStartDateTime(), booking.getEndDateTime())) {
+                continue;
+            }
+            long gap = candidate.idleGapBefore(booking.getStartDateTime());
+            // Candidates are sorted by capacity, so strict comparison keeps the smallest vehicle on ties
+            if (gap < bestGap || best == null) {
+                best = candidate;
+                bestGap = gap;
+            }
+        }
+        return best;
+    }
+
+    private int requiredCapacity(Booking booking) {
+        return booking.getRequiredCapacity() != null ? booking.getRequiredCapacity() : 1;
+    }
+
+    /**
+     * Busy intervals of one vehicle, keyed by start time. Overlap semantics
+     * match BookingRepository.findConflictingBookings (inclusive bounds).
+     */
+    private static final class VehicleTimeline {
+
+        private final Vehicle vehicle;
+        private final TreeMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+
+        VehicleTimeline(Vehicle vehicle) {
+            this.vehicle = vehicle;
+        }
+
+        int capacity() {
+            return vehicle.getSeatingCapacity() != null ? vehicle.getSeatingCapacity() : 0;
+        }
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.floorEntry(end);
+            return before == null || before.getValue().isBefore(start);
+        }
+
+        long idleGapBefore(LocalDateTime start) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.lowerEntry(start);
+            // An untouched vehicle is the worst fit: it may serve a later request with no predecessor
+            return before == null ? Long.MAX_VALUE - 1 : Duration.between(before.getValue(), start).toMinutes();
+        }
+
+        void occupy(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime mergedStart = start;
+            LocalDateTime mergedEnd = end;
+            Map.Entry<LocalDateTime, LocalDateTime> overlap = busy.floorEntry(mergedEnd);
+            while (overlap != null && !overlap.getValue().isBefore(mergedStart)) {
+                if (overlap.getKey().isBefore(mergedStart)) {
+                    mergedStart = overlap.getKey();
+                }
+                if (overlap.getValue().isAfter(mergedEnd)) {
+                    mergedEnd = overlap.getValue();
+                }
+                busy.remove(overlap.getKey());
+                overlap = busy.floorEntry(mergedEnd);
+            }
+            busy.put(mergedStart, mergedEnd);
+        }
+    }
+}
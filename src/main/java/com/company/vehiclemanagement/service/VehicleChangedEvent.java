@@ -0,0 +1,9 @@
+package com.company.vehiclemanagement.service;
+
+/**
+ * Published by {@link VehicleService} whenever a vehicle is added or its
+ * details or status change, and by {@link TelemetryIngestService} when
+ * reported odometer readings raise its mileage.
+ */
+public record VehicleChangedEvent(Long vehicleId) {
+}
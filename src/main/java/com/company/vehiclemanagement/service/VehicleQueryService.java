@@ -0,0 +1,84 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.VehicleStatus;
+import com.company.vehiclemanagement.model.VehicleType;
+import com.company.vehiclemanagement.model.VehicleView;
+import com.company.vehiclemanagement.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Query side of vehicles for the catalog and fleet list pages. Returns
+ * immutable {@link VehicleView} projections from read-only transactions;
+ * all changes go through {@link VehicleService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VehicleQueryService {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    public Optional<VehicleView> findById(Long id) {
+        return vehicleRepository.findViewById(id);
+    }
+
+    /**
+     * Hands each matching vehicle to {@code consumer} while the result set is
+     * still open, so callers can write large catalogs without holding the
+     * whole list in memory. Null filters match everything.
+     */
+    public void forEachVehicle(VehicleType type, VehicleStatus status, Integer minCapacity, String siteCode,
+            Consumer<VehicleView> consumer) {
+        try (Stream<VehicleView> vehicles = vehicleRepository.streamViews(type, status, minCapacity, siteCode)) {
+            vehicles.forEach(consumer);
+        }
+    }
+
+    public List<VehicleView> findAllVehicles() {
+        return vehicleRepository.findAllViews();
+    }
+
+    public List<VehicleView> findVehiclesAtSite(String siteCode) {
+        return vehicleRepository.findViewsBySiteCode(siteCode);
+    }
+
+    public List<String> findSiteCodes() {
+        return vehicleRepository.findSiteCodes();
+    }
+
+    public List<VehicleView> findAvailableVehicles() {
+        return vehicleRepository.findViewsByStatus(VehicleStatus.AVAILABLE);
+    }
+
+    public List<VehicleView> findAvailableVehiclesBetween(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return vehicleRepository.findAvailableViewsBetween(startDateTime, endDateTime);
+    }
+
+    public List<VehicleView> findVehiclesByType(VehicleType type) {
+        return vehicleRepository.findViewsByType(type);
+    }
+
+    public List<VehicleView> findVehiclesByStatus(VehicleStatus status) {
+        return vehicleRepository.findViewsByStatus(status);
+    }
+
+    public List<VehicleView> findVehiclesByCapacity(Integer minCapacity) {
+        return vehicleRepository.findViewsByMinCapacity(minCapacity);
+    }
+
+    public List<VehicleView> findVehiclesNeedingService() {
+        return vehicleRepository.findViewsNeedingService(LocalDateTime.now());
+    }
+
+    public List<VehicleView> findVehiclesWithExpiringInsurance(int daysAhead) {
+        return vehicleRepository.findViewsWithInsuranceExpiringBefore(LocalDateTime.now().plusDays(daysAhead));
+    }
+}
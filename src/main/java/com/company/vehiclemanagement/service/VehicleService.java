@@ -5,6 +5,8 @@ import com.company.vehiclemanagement.model.VehicleStatus;
 import com.company.vehiclemanagement.model.VehicleType;
 import com.company.vehiclemanagement.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,34 +21,36 @@ public class VehicleService {
     @Autowired
     private VehicleRepository vehicleRepository;
 
-    public List<Vehicle> findAllVehicles() {
-        return vehicleRepository.findAll();
-    }
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
+    @Value("${app.fleet.default-site:HQ}")
+    private String defaultSite;
+
+    @Transactional(readOnly = true)
     public List<Vehicle> findAvailableVehicles() {
         return vehicleRepository.findByStatusOrderByMakeAscModelAsc(VehicleStatus.AVAILABLE);
     }
 
-    public List<Vehicle> findAvailableVehiclesBetween(LocalDateTime startDateTime, LocalDateTime endDateTime) {
-        return vehicleRepository.findAvailableVehiclesBetween(startDateTime, endDateTime);
+    @Transactional(readOnly = true)
+    public List<Vehicle> findAvailableVehiclesAtSite(String siteCode) {
+        return vehicleRepository.findByStatusAndSiteCode(VehicleStatus.AVAILABLE, siteCode);
     }
 
+    @Transactional(readOnly = true)
     public List<Vehicle> findVehiclesByType(VehicleType type) {
         return vehicleRepository.findByType(type);
     }
 
-    public List<Vehicle> findVehiclesByStatus(VehicleStatus status) {
-        return vehicleRepository.findByStatus(status);
-    }
-
-    public List<Vehicle> findVehiclesByCapacity(Integer minCapacity) {
-        return vehicleRepository.findBySeatingCapacityGreaterThanEqual(minCapacity);
-    }
-
+    @Transactional(readOnly = true)
     public Optional<Vehicle> findById(Long id) {
         return vehicleRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Vehicle> findByLicensePlate(String licensePlate) {
         return Optional.ofNullable(vehicleRepository.findByLicensePlate(licensePlate));
     }
@@ -61,8 +65,16 @@ public class VehicleService {
         if (vehicle.getStatus() == null) {
             vehicle.setStatus(VehicleStatus.AVAILABLE);
         }
+        // Every vehicle belongs to a site; without one no site's catalog or assignment run would see it
+        if (vehicle.getSiteCode() == null || vehicle.getSiteCode().isBlank()) {
+            vehicle.setSiteCode(defaultSite);
+        } else {
+            vehicle.setSiteCode(vehicle.getSiteCode().trim());
+        }
 
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(saved.getId()));
+        return saved;
     }
 
     public Vehicle updateVehicle(Vehicle vehicle) {
@@ -79,6 +91,10 @@ public class VehicleService {
         existingVehicle.setMileage(vehicle.getMileage());
         existingVehicle.setColor(vehicle.getColor());
         existingVehicle.setDescription(vehicle.getDescription());
+        // The site only changes when the form sends one
+        if (vehicle.getSiteCode() != null && !vehicle.getSiteCode().isBlank()) {
+            existingVehicle.setSiteCode(vehicle.getSiteCode().trim());
+        }
         existingVehicle.setInsuranceExpiry(vehicle.getInsuranceExpiry());
         existingVehicle.setLastServiceDate(vehicle.getLastServiceDate());
         existingVehicle.setNextServiceDate(vehicle.getNextServiceDate());
@@ -91,7 +107,9 @@ public class VehicleService {
             existingVehicle.setLicensePlate(vehicle.getLicensePlate());
         }
 
-        return vehicleRepository.save(existingVehicle);
+        Vehicle saved = vehicleRepository.save(existingVehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void deleteVehicle(Long id) {
@@ -103,14 +121,19 @@ public class VehicleService {
         // instead
         vehicle.setStatus(VehicleStatus.OUT_OF_SERVICE);
         vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(id));
     }
 
     public void updateVehicleStatus(Long vehicleId, VehicleStatus status) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found: " + vehicleId));
 
+        VehicleStatus previousStatus = vehicle.getStatus();
         vehicle.setStatus(status);
         vehicleRepository.save(vehicle);
+        auditJournal.record("Vehicle", vehicleId, "STATUS",
+                previousStatus != null ? previousStatus.name() : null, status.name());
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicleId));
     }
 
     public void markVehicleInUse(Long vehicleId) {
@@ -125,15 +148,6 @@ public class VehicleService {
         updateVehicleStatus(vehicleId, VehicleStatus.MAINTENANCE);
     }
 
-    public List<Vehicle> findVehiclesNeedingService() {
-        return vehicleRepository.findVehiclesNeedingService(LocalDateTime.now());
-    }
-
-    public List<Vehicle> findVehiclesWithExpiringInsurance(int daysAhead) {
-        LocalDateTime futureDate = LocalDateTime.now().plusDays(daysAhead);
-        return vehicleRepository.findVehiclesWithExpiringInsurance(futureDate);
-    }
-
     public void updateServiceDate(Long vehicleId, LocalDateTime serviceDate, LocalDateTime nextServiceDate) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found: " + vehicleId));
@@ -141,6 +155,7 @@ public class VehicleService {
         vehicle.setLastServiceDate(serviceDate);
         vehicle.setNextServiceDate(nextServiceDate);
         vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicleId));
     }
 
     public void updateInsuranceExpiry(Long vehicleId, LocalDateTime expiryDate) {
@@ -149,26 +164,32 @@ public class VehicleService {
 
         vehicle.setInsuranceExpiry(expiryDate);
         vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicleId));
     }
 
+    @Transactional(readOnly = true)
     public boolean isLicensePlateAvailable(String licensePlate) {
         return !vehicleRepository.existsByLicensePlate(licensePlate);
     }
 
+    @Transactional(readOnly = true)
     public boolean isLicensePlateAvailableForUpdate(String licensePlate, Long vehicleId) {
         Vehicle existingVehicle = vehicleRepository.findByLicensePlate(licensePlate);
         return existingVehicle == null || existingVehicle.getId().equals(vehicleId);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalVehicleCount() {
         return vehicleRepository.count();
     }
 
+    @Transactional(readOnly = true)
     public long getAvailableVehicleCount() {
-        return vehicleRepository.findByStatus(VehicleStatus.AVAILABLE).size();
+        return vehicleRepository.countByStatus(VehicleStatus.AVAILABLE);
     }
 
+    @Transactional(readOnly = true)
     public long getVehicleCountByStatus(VehicleStatus status) {
-        return vehicleRepository.findByStatus(status).size();
+        return vehicleRepository.countByStatus(status);
     }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.BookingInterval;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.VehicleTimeline;
+import com.company.vehiclemanagement.model.VehicleTimeline.Interval;
+import com.company.vehiclemanagement.model.VehicleView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds per-vehicle free/busy timelines so the booking form can show a
+ * calendar instead of probing the availability endpoint date by date.
+ *
+ * The approved and pending bookings of a vehicle from the start of the
+ * current day onward are loaded once, already sorted by start, and cached per
+ * vehicle. Each timeline is then a single sort-merge pass over that list
+ * clipped to the requested window. A committed {@link BookingChangedEvent}
+ * drops the entry of the booking's vehicle and of any vehicle whose cached
+ * list contains the booking, which covers bookings moved to another vehicle.
+ * Windows starting before the cached range are read from the database.
+ *
+ * The entry also holds the vehicle's status, dropped on a
+ * {@link VehicleChangedEvent}: unknown vehicles have no timeline, and only
+ * vehicles that take bookings (the same check as booking creation) get free
+ * gaps. Entries beyond app.timeline.max-entries are evicted least recently
+ * used first.
+ */
+@Service
+public class VehicleTimelineService {
+
+    private static final Set<BookingStatus> OCCUPYING = EnumSet.of(BookingStatus.APPROVED, BookingStatus.PENDING);
+
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Value("${app.timeline.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    @Value("${app.timeline.max-entries:1024}")
+    private int maxEntries;
+
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
+    // Access-ordered for LRU eviction; guarded by its own lock
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The vehicle's timeline over [from, to], or empty for an unknown vehicle.
+     */
+    public Optional<VehicleTimeline> timeline(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        Entry entry = entry(vehicleId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        List<BookingInterval> bookings;
+        if (!from.isBefore(entry.since())) {
+            bookings = entry.bookings();
+        } else {
+            bookings = bookingQueryService.findIntervalsByVehicleSince(vehicleId, OCCUPYING, from);
+        }
+
+        List<Interval> busy = new ArrayList<>();
+        List<Interval> tentative = new ArrayList<>();
+        List<Interval> occupied = new ArrayList<>();
+        merge(bookings, BookingStatus.APPROVED, from, to, busy);
+        merge(bookings, BookingStatus.PENDING, from, to, tentative);
+        merge(bookings, null, from, to, occupied);
+
+        List<Interval> free = new ArrayList<>();
+        if (entry.bookable()) {
+            LocalDateTime cursor = from;
+            for (Interval interval : occupied) {
+                if (interval.start().isAfter(cursor)) {
+                    free.add(new Interval(cursor, interval.start(), 0));
+                }
+                if (interval.end().isAfter(cursor)) {
+                    cursor = interval.end();
+                }
+            }
+            if (cursor.isBefore(to)) {
+                free.add(new Interval(cursor, to, 0));
+            }
+        }
+        return Optional.of(new VehicleTimeline(vehicleId, entry.bookable(), from, to, busy, tentative, free));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        version.incrementAndGet();
+        synchronized (entries) {
+            if (event.vehicleId() != null) {
+                entries.remove(event.vehicleId());
+            }
+            entries.values().removeIf(entry -> entry.bookingIds().contains(event.bookingId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        version.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(event.vehicleId());
+        }
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // Null for an unknown vehicle, which is never cached
+    private Entry entry(Long vehicleId) {
+        LocalDateTime since = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(vehicleId);
+        }
+        if (entry != null && !entry.since().isBefore(since)
+                && System.nanoTime() - entry.loadedAt() < TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            return entry;
+        }
+        long loadVersion = version.get();
+        Optional<VehicleView> vehicle = vehicleQueryService.findById(vehicleId);
+        if (vehicle.isEmpty()) {
+            return null;
+        }
+        List<BookingInterval> bookings = bookingQueryService.findIntervalsByVehicleSince(vehicleId, OCCUPYING, since);
+        Set<Long> bookingIds = new HashSet<>();
+        bookings.forEach(booking -> bookingIds.add(booking.bookingId()));
+        entry = new Entry(vehicle.get().isAvailable(), since, List.copyOf(bookings), Set.copyOf(bookingIds),
+                System.nanoTime());
+        // A change committed while loading may be missing from the entry; serve it but do not keep it
+        if (version.get() == loadVersion) {
+            synchronized (entries) {
+                entries.put(vehicleId, entry);
+                if (entries.size() > maxEntries) {
+                    Iterator<Long> eldest = entries.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Sort-merge pass over bookings ordered by start: overlapping or touching
+     * ranges of the given status (null for any) are joined and clipped to the window.
+     */
+    private static void merge(List<BookingInterval> bookings, BookingStatus status, LocalDateTime from,
+            LocalDateTime to, List<Interval> merged) {
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        int count = 0;
+        for (BookingInterval booking : bookings) {
+            if ((status != null && booking.status() != status) || !booking.overlaps(from, to)) {
+                continue;
+            }
+            if (start != null && !booking.startDateTime().isAfter(end)) {
+                if (booking.endDateTime().isAfter(end)) {
+                    end = booking.endDateTime();
+                }
+                count++;
+                continue;
+            }
+            if (start != null) {
+                merged.add(clip(start, end, from, to, count));
+            }
+            start = booking.startDateTime();
+            end = booking.endDateTime();
+            count = 1;
+        }
+        if (start != null) {
+            merged.add(clip(start, end, from, to, count));
+        }
+    }
+
+    private static Interval clip(LocalDateTime start, LocalDateTime end, LocalDateTime from, LocalDateTime to,
+            int count) {
+        return new Interval(start.isBefore(from) ? from : start, end.isAfter(to) ? to : end, count);
+    }
+
+    private record Entry(boolean bookable, LocalDateTime since, List<BookingInterval> bookings, Set<Long> bookingIds,
+            long loadedAt) {
+    }
+}
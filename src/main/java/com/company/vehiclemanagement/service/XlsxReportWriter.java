@@ -0,0 +1,117 @@
+package com.company.vehiclemanagement.service;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * XLSX through POI's streaming SXSSF workbook: only the last
+ * {@value #WINDOW_ROWS} rows stay in memory, older ones are flushed to a
+ * temporary file. Reports longer than a sheet continue on a new sheet.
+ */
+final class XlsxReportWriter implements ReportWriter {
+
+    private static final int WINDOW_ROWS = 200;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream out;
+    private final String title;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW_ROWS);
+    private final CellStyle headerStyle;
+    private final CellStyle dateTimeStyle;
+    private final CellStyle dateStyle;
+    private List<String> columns;
+    private SXSSFSheet sheet;
+    private int nextRow;
+
+    XlsxReportWriter(OutputStream out, String title) {
+        this.out = out;
+        this.title = title;
+        workbook.setCompressTempFiles(true);
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+        newSheet();
+    }
+
+    @Override
+    public void row(Object... values) {
+        if (sheet == null || nextRow >= MAX_ROWS) {
+            newSheet();
+        }
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof LocalDateTime dateTime) {
+                cell.setCellValue(dateTime);
+                cell.setCellStyle(dateTimeStyle);
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Deletes the temporary sheet files
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        int number = workbook.getNumberOfSheets() + 1;
+        String suffix = number == 1 ? "" : " (" + number + ")";
+        // Sheet names are limited to 31 characters
+        sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(
+                title.substring(0, Math.min(title.length(), 31 - suffix.length())) + suffix));
+        nextRow = 0;
+        if (columns != null) {
+            Row row = sheet.createRow(nextRow++);
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(columns.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Demo data snapshot loaded by DataInitializer when app.startup.seed-mode=snapshot.
+-- Same users and vehicles as DataInitializer.run(); passwords are precomputed
+-- BCrypt hashes, so no encoding happens at startup. Keep both lists in sync.
+
+INSERT INTO users (username, email, password, first_name, last_name, phone_number, employee_id, department, site_code, role, is_active, created_at, updated_at) VALUES
+('admin', 'admin@company.com', '$2a$10$CNcjVjMzW0E/nEFuhuDnPe0ABVgyTQ44AWNbhNrLqah9N8Cv7053m', 'Admin', 'User', '555-0001', '1001', 'IT', NULL, 'ADMIN', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('manager', 'manager@company.com', '$2a$10$au0G1Eok1pBrnZcS8ceFLe9mK3hole6x/tPl82JxtHJo6pYHdAlKW', 'Fleet', 'Manager', '555-0001', '2001', 'Operations', NULL, 'FLEET_MANAGER', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('employee', 'john.doe@company.com', '$2a$10$D5mbmyWwGzPd3ZZBPX/qO.oz/OhikAOPwhsT44yipl5LJgXIt7j.K', 'John', 'Doe', '555-0001', '3001', 'Sales', 'HQ', 'EMPLOYEE', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('jane.smith', 'jane.smith@company.com', '$2a$10$YENVdmjXqDBdpsYBKd3k6e6qzgKDca2zRbai8dGkLYW4mIc/ww...', 'Jane', 'Smith', '555-0002', '3002', 'Marketing', 'HQ', 'EMPLOYEE', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('mike.wilson', 'mike.wilson@company.com', '$2a$10$YENVdmjXqDBdpsYBKd3k6e6qzgKDca2zRbai8dGkLYW4mIc/ww...', 'Mike', 'Wilson', '555-0003', '3003', 'Finance', 'NORTH', 'EMPLOYEE', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO vehicles (make, model, model_year, license_plate, type, fuel_type, seating_capacity, mileage, status, insurance_expiry, last_service_date, next_service_date, site_code, created_at, updated_at) VALUES
+('Toyota', 'Camry', 2023, 'ABC-123', 'SEDAN', 'PETROL', 5, 18250.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'HQ', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Honda', 'CR-V', 2022, 'DEF-456', 'SUV', 'PETROL', 5, 34120.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'HQ', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Ford', 'Transit', 2023, 'GHI-789', 'VAN', 'PETROL', 8, 12870.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'HQ', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('BMW', 'X5', 2023, 'JKL-012', 'SUV', 'PETROL', 7, 9640.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'NORTH', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Mercedes', 'Sprinter', 2022, 'MNO-345', 'VAN', 'PETROL', 12, 41530.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'HQ', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Audi', 'A4', 2023, 'PQR-678', 'SEDAN', 'PETROL', 5, 7310.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'NORTH', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Volkswagen', 'Tiguan', 2022, 'STU-901', 'SUV', 'PETROL', 5, 28460.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'NORTH', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('Nissan', 'Altima', 2023, 'VWX-234', 'SEDAN', 'PETROL', 5, 22190.0, 'AVAILABLE', DATEADD('MONTH', 6, CURRENT_TIMESTAMP), DATEADD('MONTH', -2, CURRENT_TIMESTAMP), DATEADD('MONTH', 4, CURRENT_TIMESTAMP), 'HQ', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
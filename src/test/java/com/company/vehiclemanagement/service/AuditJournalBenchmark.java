@@ -0,0 +1,87 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.AuditEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time for one caller to record a burst of events until the last of them is
+ * written and forced to disk, with a fresh journal directory per iteration.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AuditJournal
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class AuditJournalBenchmark {
+
+    private static final String NEW_VALUE = "Booking{id=123456, user=emp00042, vehicle=2021 Toyota Corolla, "
+            + "startDateTime=2026-11-02T09:00, endDateTime=2026-11-02T17:00, destination='Head office', "
+            + "status=APPROVED}";
+
+    @Param("500000")
+    private int events;
+
+    @Param("4096")
+    private int maxBatch;
+
+    private Path directory;
+    private AuditJournal journal;
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 64);
+        ReflectionTestUtils.setField(journal, "maxBatch", maxBatch);
+        ReflectionTestUtils.setField(journal, "queueCapacity", 65536);
+        ReflectionTestUtils.setField(journal, "indexedSegments", 8);
+        journal.open();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws Exception {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<AuditEvent> recordUntilDurable() {
+        for (int i = 0; i < events; i++) {
+            journal.record("Booking", (long) (i % 10_000), "UPDATE", null, NEW_VALUE);
+        }
+        // One writer, in queue order: once the marker is indexed, everything before it is on disk
+        journal.record("Marker", 1L, "MARK", null, null);
+        List<AuditEvent> marker;
+        while ((marker = journal.query("Marker", 1L, null, null, 1)).isEmpty()) {
+            LockSupport.parkNanos(100_000);
+        }
+        return marker;
+    }
+}
@@ -0,0 +1,115 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.VehicleManagementApplication;
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingView;
+import com.company.vehiclemanagement.repository.BookingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the admin booking list: managed entities, read the way the page
+ * did (user and vehicle names per row), in a read-write and in a read-only
+ * transaction, against the read-only BookingView projection. Heap per list
+ * is the gc.alloc.rate.norm line of the gc profiler.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BookingList
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class BookingListBenchmark {
+
+    @Param("5000")
+    private int bookings;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private BookingQueryService bookingQueryService;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        dataDirectory = Files.createTempDirectory("booking-list-benchmark");
+        context = new SpringApplicationBuilder(VehicleManagementApplication.class)
+                .profiles("synthetic")
+                // As arguments: they must win over application-synthetic.properties
+                .run("--server.port=0",
+                        "--app.synthetic.users=500",
+                        "--app.synthetic.vehicles=200",
+                        "--app.synthetic.bookings=" + bookings,
+                        "--app.audit.dir=" + dataDirectory.resolve("audit"),
+                        "--app.telemetry.store.dir=" + dataDirectory.resolve("telemetry"),
+                        "--app.reports.dir=" + dataDirectory.resolve("reports"),
+                        "--logging.level.root=WARN");
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingQueryService = context.getBean(BookingQueryService.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory.toFile());
+    }
+
+    @Benchmark
+    public Integer entitiesReadWrite(Blackhole blackhole) {
+        return readWrite.execute(status -> render(bookingRepository.findAll(), blackhole));
+    }
+
+    @Benchmark
+    public Integer entitiesReadOnly(Blackhole blackhole) {
+        return readOnly.execute(status -> render(bookingRepository.findAll(), blackhole));
+    }
+
+    @Benchmark
+    public List<BookingView> views() {
+        return bookingQueryService.findAllBookings();
+    }
+
+    // What the list page read from each entity row
+    private static int render(List<Booking> list, Blackhole blackhole) {
+        for (Booking booking : list) {
+            blackhole.consume(booking.getUser().getFullName());
+            if (booking.getVehicle() != null) {
+                blackhole.consume(booking.getVehicle().getMake());
+                blackhole.consume(booking.getVehicle().getLicensePlate());
+            }
+        }
+        return list.size();
+    }
+}
@@ -0,0 +1,82 @@
+package com.company.vehiclemanagement.service;
+
+import com.company.vehiclemanagement.model.Booking;
+import com.company.vehiclemanagement.model.BookingStatus;
+import com.company.vehiclemanagement.model.Role;
+import com.company.vehiclemanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingQuotaServiceTest {
+
+    private static final LocalDateTime DAY_0 = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    private BookingQuotaService quotas;
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        quotas = new BookingQuotaService();
+        ReflectionTestUtils.setField(quotas, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quotas, "enabled", true);
+        ReflectionTestUtils.setField(quotas, "maxConcurrentBookings", 0);
+        ReflectionTestUtils.setField(quotas, "windowDays", 7L);
+        ReflectionTestUtils.setField(quotas, "maxHoursPerWindow", 40.0);
+        ReflectionTestUtils.setField(quotas, "departmentMaxHoursPerWindow", 0.0);
+        ReflectionTestUtils.setField(quotas, "departmentMaxTypeShare", 0.0);
+        ReflectionTestUtils.setField(quotas, "exemptRoles", new Role[] { Role.ADMIN });
+        // Nothing to load: the test starts from an empty book
+        ReflectionTestUtils.setField(quotas, "loaded", true);
+
+        employee = new User();
+        employee.setId(1L);
+        employee.setRole(Role.EMPLOYEE);
+    }
+
+    @Test
+    void rejectsBookingThatFillsAWindowNeitherStartingNorEndingAtIt() {
+        quotas.checkAndReserve(booking(1L, DAY_0, 19.5));
+        quotas.checkAndReserve(booking(2L, DAY_0.plusDays(6), 19.5));
+
+        // [day 0, day 7] would hold 41h, although both windows aligned with B hold 21.5h
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> quotas.checkAndReserve(booking(3L, DAY_0.plusHours(84), 2)));
+        assertTrue(e.getMessage().contains("41.0"), e.getMessage());
+    }
+
+    @Test
+    void acceptsBookingThatKeepsEveryWindowWithinTheLimit() {
+        quotas.checkAndReserve(booking(1L, DAY_0, 19.5));
+        quotas.checkAndReserve(booking(2L, DAY_0.plusDays(6), 19.5));
+
+        assertDoesNotThrow(() -> quotas.checkAndReserve(booking(3L, DAY_0.plusHours(84), 1)));
+    }
+
+    @Test
+    void checksAChangedBookingAgainstItsNewDates() {
+        quotas.checkAndReserve(booking(1L, DAY_0, 19.5));
+        quotas.checkAndReserve(booking(2L, DAY_0.plusDays(6), 19.5));
+        quotas.checkAndReserve(booking(3L, DAY_0.plusDays(20), 2));
+
+        assertThrows(RuntimeException.class, () -> quotas.checkAndReserve(booking(3L, DAY_0.plusHours(84), 2)));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, double hours) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUser(employee);
+        booking.setStartDateTime(start);
+        booking.setEndDateTime(start.plusMinutes((long) (hours * 60)));
+        booking.setStatus(BookingStatus.PENDING);
+        return booking;
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.vehiclemanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<Integer>(1));
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<Integer>(6));
+    }
+
+    @Test
+    void drainsNothingWhenEmpty() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        assertTrue(buffer.offerAll(List.of()));
+        assertEquals(0, buffer.drain(drained::add, 10));
+        assertEquals(0, buffer.size());
+        assertTrue(drained.isEmpty());
+    }
+
+    @Test
+    void rejectsWholeBatchWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+
+        assertFalse(buffer.offerAll(List.of(1, 2, 3, 4, 5)));
+        assertTrue(buffer.offerAll(List.of(1, 2, 3, 4)));
+        assertFalse(buffer.offerAll(List.of(5)));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(1, buffer.drain(drained::add, 1));
+        // One slot is free: a batch of two is not stored in part
+        assertFalse(buffer.offerAll(List.of(5, 6)));
+        assertTrue(buffer.offerAll(List.of(5)));
+        assertEquals(4, buffer.drain(drained::add, 10));
+        assertEquals(List.of(1, 2, 3, 4, 5), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void keepsOrderAcrossManyLaps() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        int next = 0;
+        // Batches of three never line up with the four slots, so runs wrap around the end
+        for (int round = 0; round < 100; round++) {
+            List<Integer> batch = List.of(next, next + 1, next + 2);
+            next += 3;
+            assertTrue(buffer.offerAll(batch), "round " + round);
+            expected.addAll(batch);
+            assertEquals(3, buffer.drain(drained::add, 10));
+        }
+        assertEquals(expected, drained);
+    }
+
+    @Test
+    void deliversEveryElementOfConcurrentProducersOnceAndInOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            futures.add(executor.submit(() -> {
+                start.await();
+                int sent = 0;
+                while (sent < perProducer) {
+                    // Batches of 1 to 7 elements, retried until there is room
+                    int size = Math.min(1 + (sent % 7), perProducer - sent);
+                    List<long[]> batch = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        batch.add(new long[] { producer, sent + i });
+                    }
+                    while (!buffer.offerAll(batch)) {
+                        // Let the consumer run even on a single core
+                        Thread.yield();
+                    }
+                    sent += size;
+                }
+                return null;
+            }));
+        }
+
+        long[] nextExpected = new long[producers];
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        start.countDown();
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            int taken = buffer.drain(element -> {
+                assertEquals(nextExpected[(int) element[0]], element[1], "producer " + element[0]);
+                nextExpected[(int) element[0]]++;
+            }, 100);
+            if (taken == 0) {
+                Thread.yield();
+            }
+            received += taken;
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals((long) producers * perProducer, received);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextExpected[p]);
+        }
+        assertEquals(0, buffer.size());
+    }
+}
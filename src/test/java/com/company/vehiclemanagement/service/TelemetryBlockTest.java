@@ -0,0 +1,118 @@
+package com.company.vehiclemanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TelemetryBlockTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void roundTripsDeltaOfDeltaAtEveryEncodingBoundary() {
+        // 0, the edges of the 7, 9 and 12 bit ranges and just outside them, then raw 64 bits
+        long[] deltaOfDeltas = { 0, -63, 64, -64, 65, -255, 256, -256, 257, -2047, 2048, -2048, 2049,
+                1L << 40, -(1L << 40), 0 };
+        List<Point> points = new ArrayList<>();
+        long timestamp = T0;
+        long delta = 10_000;
+        points.add(new Point(timestamp, 1.0));
+        for (long deltaOfDelta : deltaOfDeltas) {
+            delta += deltaOfDelta;
+            timestamp += delta;
+            points.add(new Point(timestamp, 1.0));
+        }
+
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void storesASteadyRateInOneBitPerTimestamp() {
+        TelemetryBlock block = new TelemetryBlock(0);
+        for (int i = 0; i < 641; i++) {
+            block.append(T0 + i * 1_000L, new Double[0]);
+        }
+
+        // 64 raw bits, the first delta (12 bit range) and one bit for each of the 639 others
+        assertEquals((64 + 4 + 12 + 639 + 7) / 8, block.byteLength());
+    }
+
+    @Test
+    void roundTripsRepeatedAndMissingValues() {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            points.add(new Point(T0 + i * 1_000L, 42.5, null, i < 25 ? null : 7.0));
+        }
+
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void roundTripsValuesThatReuseAndThatWidenTheXorWindow() {
+        List<Point> points = new ArrayList<>();
+        double[] values = { 1.0, 1.5, 1.25, 1.75, 1000.0, 1.0, 1.5, Math.nextUp(1.5), Math.nextDown(1.5), 1.5 };
+        for (int i = 0; i < values.length; i++) {
+            points.add(new Point(T0 + i * 1_000L, values[i]));
+        }
+
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void roundTripsAnXorWithAllSixtyFourBitsMeaningful() {
+        double first = 1.0;
+        // Differs in the sign bit and the lowest mantissa bit: no leading or trailing zeros
+        double second = Double.longBitsToDouble(Double.doubleToLongBits(first) ^ 0x8000_0000_0000_0001L);
+        double third = Double.longBitsToDouble(Double.doubleToLongBits(second) ^ 0x8000_0000_0000_0001L);
+        List<Point> points = List.of(new Point(T0, first), new Point(T0 + 1_000, second),
+                new Point(T0 + 2_000, third), new Point(T0 + 3_000, -3.5));
+
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void roundTripsRandomReadings() {
+        Random random = new Random(42);
+        List<Point> points = new ArrayList<>();
+        long timestamp = T0;
+        double odometer = 12_000;
+        for (int i = 0; i < 2_000; i++) {
+            timestamp += random.nextInt(10) == 0 ? random.nextInt(100_000) : 5_000;
+            odometer += random.nextDouble() * 0.2;
+            Double latitude = random.nextInt(20) == 0 ? null : 48 + random.nextDouble();
+            Double longitude = latitude == null ? null : 11 + random.nextDouble();
+            points.add(new Point(timestamp, odometer, latitude, longitude, (double) random.nextInt(101)));
+        }
+
+        assertRoundTrip(points);
+    }
+
+    private static void assertRoundTrip(List<Point> points) {
+        int columns = points.get(0).values().length;
+        TelemetryBlock block = new TelemetryBlock(columns);
+        for (Point point : points) {
+            block.append(point.timestamp(), point.values());
+        }
+        byte[] bytes = block.toBytes();
+        assertEquals(block.byteLength(), bytes.length);
+
+        List<Point> decoded = new ArrayList<>();
+        TelemetryBlock.decode(bytes, block.count(), columns,
+                (timestamp, values) -> decoded.add(new Point(timestamp, values.clone())));
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).timestamp(), decoded.get(i).timestamp(), "timestamp of point " + i);
+            assertArrayEquals(points.get(i).values(), decoded.get(i).values(), "values of point " + i);
+        }
+        assertEquals(points.get(0).timestamp(), block.firstTimestamp());
+        assertEquals(points.get(points.size() - 1).timestamp(), block.lastTimestamp());
+    }
+
+    private record Point(long timestamp, Double... values) {
+    }
+}